@@ -0,0 +1,40 @@
+package org.tanzu.mcpclient.chat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a streamed response chunk into the data of an SSE message event. Streamed chunks are
+ * usually a few tokens; the larger sizes cover models that send longer deltas.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ChatControllerBenchmark {
+
+    @Param({"8", "64", "512"})
+    int chunkLength;
+
+    private ChatController controller;
+    private String chunk;
+
+    @Setup
+    public void setUp() {
+        controller = new ChatController(null, null, null, null,
+                new DefaultListableBeanFactory().getBeanProvider(ObservationRegistry.class));
+        String text = "Tokens \"quoted\", with newlines\nand unicode é中 ";
+        chunk = text.repeat(chunkLength / text.length() + 1).substring(0, chunkLength);
+    }
+
+    @Benchmark
+    public String toEventData() throws JsonProcessingException {
+        return controller.toEventData(chunk);
+    }
+}
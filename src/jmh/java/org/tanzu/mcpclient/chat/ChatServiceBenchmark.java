@@ -0,0 +1,39 @@
+package org.tanzu.mcpclient.chat;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the tenant-scoped document filter expression for a chat over the selected documents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ChatServiceBenchmark {
+
+    @Param({"1", "10", "100"})
+    int documents;
+
+    private String tenantId;
+    private List<String> documentIds;
+
+    @Setup
+    public void setUp() {
+        tenantId = "3f2b8c1e-5d4a-4e7f-9b6c-2a1d0e9f8c7b";
+        documentIds = IntStream.range(0, documents)
+                .mapToObj(i -> String.format("%08x-0000-4000-8000-%012x", i, i))
+                .toList();
+    }
+
+    @Benchmark
+    public Filter.Expression buildDocumentFilterExpression() {
+        return ChatService.buildDocumentFilterExpression(tenantId, documentIds);
+    }
+}
@@ -0,0 +1,55 @@
+package org.tanzu.mcpclient.document;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits extracted PDF pages into chunks with the default {@link TokenTextSplitter}, as
+ * {@link DocumentService} does before embedding. The pages are generated from a fixed seed so that
+ * every run splits the same text.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class DocumentSplitBenchmark {
+
+    private static final String[] WORDS = {"the", "service", "binding", "platform", "agent", "vector",
+            "store", "tenant", "conversation", "memory", "model", "prompt", "embedding", "request",
+            "response", "latency", "throughput", "configuration", "deployment", "cloud"};
+
+    @Param({"1", "20"})
+    int pages;
+
+    private final TokenTextSplitter tokenSplitter = new TokenTextSplitter();
+    private List<Document> documents;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        documents = new ArrayList<>(pages);
+        for (int page = 0; page < pages; page++) {
+            StringBuilder text = new StringBuilder();
+            // Roughly the text of a dense PDF page
+            for (int word = 0; word < 600; word++) {
+                text.append(WORDS[random.nextInt(WORDS.length)]);
+                text.append(word % 15 == 14 ? ".\n" : " ");
+            }
+            documents.add(new Document(text.toString(), Map.of("page_number", page + 1)));
+        }
+    }
+
+    @Benchmark
+    public List<Document> split() {
+        return tokenSplitter.split(documents);
+    }
+}
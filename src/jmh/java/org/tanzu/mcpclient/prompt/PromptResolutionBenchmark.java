@@ -0,0 +1,65 @@
+package org.tanzu.mcpclient.prompt;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates prompt arguments and extracts the content of a resolved prompt, the work
+ * {@link PromptResolutionService} does around each call to an MCP server.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class PromptResolutionBenchmark {
+
+    @Param({"2", "10"})
+    int arguments;
+
+    private McpPrompt prompt;
+    private Map<String, Object> providedArguments;
+    private McpSchema.GetPromptResult result;
+
+    @Setup
+    public void setUp() {
+        List<PromptArgument> promptArguments = new ArrayList<>();
+        providedArguments = new LinkedHashMap<>();
+        for (int i = 0; i < arguments; i++) {
+            boolean required = i % 2 == 0;
+            promptArguments.add(new PromptArgument("arg" + i, "Argument " + i, required,
+                    required ? null : "default" + i, null));
+            if (required) {
+                providedArguments.put("arg" + i, "value " + i);
+            }
+        }
+        prompt = new McpPrompt("server-1", "Benchmark Server", "summarize", "Summarizes a topic",
+                promptArguments);
+
+        List<McpSchema.PromptMessage> messages = new ArrayList<>();
+        for (int i = 0; i < arguments; i++) {
+            McpSchema.Role role = i % 2 == 0 ? McpSchema.Role.USER : McpSchema.Role.ASSISTANT;
+            messages.add(new McpSchema.PromptMessage(role,
+                    new McpSchema.TextContent("Message " + i + " of the resolved prompt. ".repeat(8))));
+        }
+        result = new McpSchema.GetPromptResult("Summarizes a topic", messages);
+    }
+
+    @Benchmark
+    public McpPrompt validateArguments() {
+        PromptResolutionService.validateArguments(prompt, providedArguments);
+        return prompt;
+    }
+
+    @Benchmark
+    public String extractContent() {
+        return PromptResolutionService.extractContentFromResult(result);
+    }
+}
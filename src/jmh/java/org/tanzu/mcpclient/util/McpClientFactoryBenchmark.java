@@ -0,0 +1,57 @@
+package org.tanzu.mcpclient.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+import javax.net.ssl.SSLContext;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and closes MCP clients through the factory, covering the shared HttpClient lookup, transport
+ * and client construction. Streamable HTTP transports open no connection until the first request, so
+ * nothing here touches the network.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class McpClientFactoryBenchmark {
+
+    private static final String SERVER_URL = "https://mcp.example.com/mcp";
+
+    private McpClientFactory factory;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        factory = new McpClientFactory(SSLContext.getDefault(), McpClientFactory.Mode.SYNC, 4,
+                McpClientFactory.Transport.STREAMABLE, "/mcp", new GenAIService(new StandardEnvironment()),
+                new SimpleMeterRegistry(), new DefaultListableBeanFactory().getBeanProvider(ObservationRegistry.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.shutdown();
+    }
+
+    @Benchmark
+    public McpSyncClient createSyncClient() {
+        McpSyncClient client = factory.createMcpSyncClient(SERVER_URL);
+        client.close();
+        return client;
+    }
+
+    @Benchmark
+    public McpAsyncClient createAsyncClient() {
+        McpAsyncClient client = factory.createMcpAsyncClient(SERVER_URL);
+        client.close();
+        return client;
+    }
+}
@@ -0,0 +1,227 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application under test, run in its own JVM so that its CPU and memory are measured apart from
+ * the load generator. MCP servers are bound through {@code VCAP_SERVICES} exactly as on Cloud
+ * Foundry; the models and the optional database are configured with command line properties.
+ */
+final class AppProcess implements AutoCloseable {
+
+    private static final String MAIN_CLASS = "org.tanzu.mcpclient.CfMcpClientApplication";
+
+    private final Process process;
+    private final URI baseUri;
+    private final Path log;
+    private final long startedAt = System.nanoTime();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AppProcess(Process process, URI baseUri, Path log) {
+        this.process = process;
+        this.baseUri = baseUri;
+        this.log = log;
+    }
+
+    /**
+     * Starts the application from the load test's own classpath.
+     */
+    static AppProcess start(LoadTestConfig config, StubOpenAiServer llm, List<StubMcpServer> mcpServers)
+            throws IOException {
+        List<String> launcher = new ArrayList<>();
+        launcher.add(javaExecutable());
+        launcher.addAll(Arrays.asList(config.appJvmArgs().trim().split("\\s+")));
+        launcher.add("-cp");
+        launcher.add(System.getProperty("java.class.path"));
+        launcher.add(MAIN_CLASS);
+        return start(launcher, List.of(), config, llm, mcpServers, Path.of("target", "loadtest-app.log"));
+    }
+
+    /**
+     * Starts the application with the given launch command, such as {@code java -jar app.jar} or a native
+     * executable, followed by the test's configuration and the extra application arguments.
+     */
+    static AppProcess start(List<String> launcher, List<String> arguments, LoadTestConfig config,
+                            StubOpenAiServer llm, List<StubMcpServer> mcpServers, Path log) throws IOException {
+        int port = freePort();
+        List<String> command = new ArrayList<>(launcher);
+        command.add("--server.port=" + port);
+        command.add("--spring.ai.openai.base-url=" + llm.baseUrl());
+        command.add("--spring.ai.openai.api-key=stub");
+        command.add("--spring.ai.openai.chat.options.model=stub-chat");
+        command.add("--spring.ai.openai.embedding.options.model=stub-embedding");
+        command.add("--logging.level.io.modelcontextprotocol=WARN");
+        if (config.postgresUrl() != null) {
+            command.add("--spring.datasource.url=" + config.postgresUrl());
+            command.add("--spring.datasource.username=" + config.postgresUsername());
+            command.add("--spring.datasource.password=" + config.postgresPassword());
+        }
+        command.addAll(arguments);
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        builder.environment().put("VCAP_SERVICES", vcapServices(mcpServers));
+        builder.environment().remove("VCAP_APPLICATION");
+        return new AppProcess(builder.start(), URI.create("http://127.0.0.1:" + port), log);
+    }
+
+    static String javaExecutable() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Waits until the application reports healthy and has registered every MCP server.
+     */
+    void awaitReady(Duration timeout, int expectedServers) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            JsonNode metrics = get("/metrics");
+            if (metrics != null && metrics.path("agents").size() >= expectedServers) {
+                return;
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Application not ready within " + timeout + ", see " + log);
+    }
+
+    /**
+     * Waits until the given path answers with 200 and returns the time since the process was started.
+     */
+    Duration awaitOk(String path, Duration timeout) throws IOException, InterruptedException {
+        long deadline = startedAt + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            if (status(path) == 200) {
+                return Duration.ofNanos(System.nanoTime() - startedAt);
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Application not ready within " + timeout + ", see " + log);
+    }
+
+    /**
+     * Returns the resident set size of the process in bytes, read from {@code /proc}, or -1 where that is
+     * not available.
+     */
+    long residentSetSize() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux, or the process is gone
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the IDs of the prompts the application discovered.
+     */
+    List<String> promptIds() throws IOException, InterruptedException {
+        List<String> ids = new ArrayList<>();
+        JsonNode metrics = get("/metrics");
+        if (metrics != null) {
+            metrics.path("prompts").path("promptsByServer")
+                    .forEach(prompts -> prompts.forEach(prompt -> ids.add(prompt.path("id").asText())));
+        }
+        return ids;
+    }
+
+    /**
+     * Reads the process CPU usage, heap in use and live threads from the actuator.
+     */
+    LoadReport.ResourceSample sample() throws IOException, InterruptedException {
+        return new LoadReport.ResourceSample(
+                measurement("process.cpu.usage", null),
+                measurement("jvm.memory.used", "area:heap"),
+                measurement("jvm.threads.live", null));
+    }
+
+    private double measurement(String metric, String tag) throws IOException, InterruptedException {
+        JsonNode response = get("/actuator/metrics/" + metric + (tag != null ? "?tag=" + tag : ""));
+        return response != null ? response.path("measurements").path(0).path("value").asDouble(Double.NaN) : Double.NaN;
+    }
+
+    private int status(String path) throws InterruptedException {
+        try {
+            return httpClient.send(
+                    HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            // Not listening yet
+            return -1;
+        }
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+        try {
+            HttpResponse<byte[]> response = httpClient.send(
+                    HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200 ? objectMapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            // Not listening yet
+            return null;
+        }
+    }
+
+    private static String vcapServices(List<StubMcpServer> mcpServers) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode vcap = objectMapper.createObjectNode();
+        ArrayNode services = vcap.putArray("user-provided");
+        for (StubMcpServer server : mcpServers) {
+            ObjectNode service = services.addObject()
+                    .put("name", server.name())
+                    .put("label", "user-provided");
+            service.putArray("tags");
+            service.putObject("credentials")
+                    .put("mcpServiceURL", server.url())
+                    .put("mcpTransport", "streamable");
+        }
+        return vcap.toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
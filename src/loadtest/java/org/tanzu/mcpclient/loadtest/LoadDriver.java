@@ -0,0 +1,209 @@
+package org.tanzu.mcpclient.loadtest;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Runs {@code loadtest.concurrency} virtual users against the application, each in its own session and
+ * therefore its own conversation, until the warmup and measurement periods have passed. Every user picks
+ * its next scenario from {@code loadtest.mix} with a random generator seeded from {@code loadtest.seed}
+ * and its user number, so a run issues the same sequence of requests each time. Only requests that start
+ * after the warmup are recorded.
+ */
+final class LoadDriver {
+
+    static final String CHAT = "chat";
+    static final String PROMPT = "prompt";
+    static final String UPLOAD = "upload";
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final List<String> promptIds;
+    private final byte[] pdf;
+
+    LoadDriver(LoadTestConfig config, URI baseUri, List<String> promptIds) throws IOException {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.promptIds = promptIds;
+        this.pdf = pdf();
+        for (String scenario : config.mix().keySet()) {
+            if (!List.of(CHAT, PROMPT, UPLOAD).contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario in loadtest.mix: " + scenario);
+            }
+        }
+    }
+
+    void run(LoadReport report, long measureFromNanos, long endNanos) {
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < config.concurrency(); user++) {
+                int userNumber = user;
+                users.submit(() -> user(userNumber, report, measureFromNanos, endNanos));
+            }
+        }
+    }
+
+    private void user(int userNumber, LoadReport report, long measureFromNanos, long endNanos) {
+        Random random = new Random(config.seed() + userNumber);
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        int request = 0;
+        while (System.nanoTime() < endNanos) {
+            String scenario = pick(random);
+            long start = System.nanoTime();
+            long firstToken = 0;
+            boolean success;
+            try {
+                switch (scenario) {
+                    case CHAT -> {
+                        firstToken = chat(client, userNumber, request);
+                        success = firstToken >= 0;
+                    }
+                    case PROMPT -> success = resolvePrompt(client, random);
+                    default -> success = upload(client, userNumber, request);
+                }
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (start >= measureFromNanos) {
+                report.record(scenario, System.nanoTime() - start, firstToken > 0 ? firstToken - start : 0, success);
+            }
+            request++;
+        }
+    }
+
+    private String pick(Random random) {
+        int total = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int choice = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : config.mix().entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                return promptIds.isEmpty() && PROMPT.equals(entry.getKey()) ? CHAT : entry.getKey();
+            }
+        }
+        return CHAT;
+    }
+
+    /**
+     * Streams a chat answer and returns when its first token arrived, or -1 if the stream failed.
+     */
+    private long chat(HttpClient client, int userNumber, int request) throws IOException, InterruptedException {
+        String question = "User " + userNumber + " question " + request + ": what is the status of the platform?";
+        HttpRequest httpRequest = HttpRequest.newBuilder(
+                        baseUri.resolve("/chat?chat=" + URLEncoder.encode(question, StandardCharsets.UTF_8)))
+                .header("Accept", "text/event-stream")
+                .timeout(config.requestTimeout())
+                .build();
+        HttpResponse<Stream<String>> response = client.send(httpRequest, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            return -1;
+        }
+
+        long firstToken = 0;
+        String event = "message";
+        try (Stream<String> lines = response.body()) {
+            for (Iterator<String> it = lines.iterator(); it.hasNext(); ) {
+                String line = it.next();
+                if (line.startsWith("event:")) {
+                    event = line.substring("event:".length()).trim();
+                    if ("close".equals(event)) {
+                        return firstToken > 0 ? firstToken : System.nanoTime();
+                    }
+                } else if (line.startsWith("data:") && "message".equals(event) && firstToken == 0) {
+                    firstToken = System.nanoTime();
+                } else if (line.isEmpty()) {
+                    event = "message";
+                }
+            }
+        }
+        // The stream ended without the close event
+        return -1;
+    }
+
+    private boolean resolvePrompt(HttpClient client, Random random) throws IOException, InterruptedException {
+        String promptId = promptIds.get(random.nextInt(promptIds.size()));
+        String body = "{\"promptId\":\"" + promptId + "\",\"arguments\":{\"topic\":\"load testing\"}}";
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/prompts/resolve"))
+                .header("Content-Type", "application/json")
+                .timeout(config.requestTimeout())
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private boolean upload(HttpClient client, int userNumber, int request) throws IOException, InterruptedException {
+        String boundary = "loadtest-" + userNumber + "-" + request;
+        ByteArrayOutputStream body = new ByteArrayOutputStream(pdf.length + 256);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"loadtest-" + userNumber + "-" + request + ".pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(pdf);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest httpRequest = HttpRequest.newBuilder(baseUri.resolve("/upload"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .timeout(config.requestTimeout())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        return client.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    /**
+     * Generates the uploaded document: three pages of text, the same on every run.
+     */
+    private static byte[] pdf() throws IOException {
+        Random random = new Random(7);
+        String[] words = {"service", "binding", "platform", "agent", "vector", "tenant", "memory", "model",
+                "prompt", "embedding", "latency", "deployment"};
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 0; page < 3; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 11);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 740);
+                    for (int line = 0; line < 48; line++) {
+                        StringBuilder text = new StringBuilder();
+                        for (int word = 0; word < 12; word++) {
+                            text.append(words[random.nextInt(words.length)]).append(' ');
+                        }
+                        content.showText(text.toString());
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
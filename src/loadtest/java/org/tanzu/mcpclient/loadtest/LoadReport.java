@@ -0,0 +1,130 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the results of the measured part of a run: latency and, for chat, time to first token per
+ * scenario in HDR histograms, plus periodic resource samples of the application.
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, ScenarioResults> scenarios = new ConcurrentHashMap<>();
+    private final List<ResourceSample> resources = new CopyOnWriteArrayList<>();
+
+    void record(String scenario, long latencyNanos, long firstTokenNanos, boolean success) {
+        ScenarioResults results = scenarios.computeIfAbsent(scenario, name -> new ScenarioResults());
+        if (!success) {
+            results.errors.increment();
+            return;
+        }
+        results.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_MICROS));
+        if (firstTokenNanos > 0) {
+            results.firstToken.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(firstTokenNanos), HIGHEST_MICROS));
+        }
+    }
+
+    void record(ResourceSample sample) {
+        resources.add(sample);
+    }
+
+    Summary summarize(LoadTestConfig config, Duration measured) {
+        double seconds = measured.toNanos() / 1e9;
+        Map<String, ScenarioSummary> summaries = new LinkedHashMap<>();
+        scenarios.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    ScenarioResults results = entry.getValue();
+                    long count = results.latency.getTotalCount();
+                    summaries.put(entry.getKey(), new ScenarioSummary(
+                            count,
+                            results.errors.sum(),
+                            count / seconds,
+                            Percentiles.of(results.latency),
+                            results.firstToken.getTotalCount() > 0 ? Percentiles.of(results.firstToken) : null));
+                });
+
+        ResourceSummary resourceSummary = new ResourceSummary(
+                resources.stream().mapToDouble(ResourceSample::cpuUsage).filter(v -> !Double.isNaN(v)).average().orElse(Double.NaN),
+                resources.stream().mapToDouble(ResourceSample::cpuUsage).filter(v -> !Double.isNaN(v)).max().orElse(Double.NaN),
+                resources.stream().mapToDouble(ResourceSample::heapUsedBytes).filter(v -> !Double.isNaN(v)).max().orElse(Double.NaN) / (1024 * 1024),
+                resources.stream().mapToDouble(ResourceSample::liveThreads).filter(v -> !Double.isNaN(v)).max().orElse(Double.NaN),
+                resources.size());
+
+        return new Summary(Instant.now().toString(), config, measured.toMillis(), summaries, resourceSummary);
+    }
+
+    static void write(Summary summary, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writeValue(file.toFile(), summary);
+    }
+
+    static String render(Summary summary) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-8s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "ok", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "ttft p50", "ttft p99"));
+        summary.scenarios().forEach((name, scenario) -> text.append(String.format(
+                "%-8s %8d %7d %9.1f %9.1f %9.1f %9.1f %9s %9s%n",
+                name, scenario.count(), scenario.errors(), scenario.throughput(),
+                scenario.latency().p50(), scenario.latency().p99(), scenario.latency().max(),
+                scenario.firstToken() != null ? String.format("%.1f", scenario.firstToken().p50()) : "-",
+                scenario.firstToken() != null ? String.format("%.1f", scenario.firstToken().p99()) : "-")));
+        ResourceSummary resources = summary.resources();
+        text.append(String.format("cpu avg %.1f%%, cpu max %.1f%%, heap max %.0f MiB, threads max %.0f (%d samples)%n",
+                resources.cpuAverage() * 100, resources.cpuMax() * 100, resources.heapMaxMib(),
+                resources.threadsMax(), resources.samples()));
+        return text.toString();
+    }
+
+    private static final class ScenarioResults {
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final Histogram firstToken = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    record ResourceSample(double cpuUsage, double heapUsedBytes, double liveThreads) {
+    }
+
+    /**
+     * Latency percentiles in milliseconds.
+     */
+    record Percentiles(double p50, double p90, double p99, double max) {
+        static Percentiles of(Histogram histogram) {
+            return new Percentiles(
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    record ScenarioSummary(long count, long errors, double throughput, Percentiles latency, Percentiles firstToken) {
+    }
+
+    record ResourceSummary(double cpuAverage, double cpuMax, double heapMaxMib, double threadsMax, int samples) {
+    }
+
+    record Summary(String finishedAt, LoadTestConfig config, long measuredMillis,
+                   Map<String, ScenarioSummary> scenarios, ResourceSummary resources) {
+    }
+}
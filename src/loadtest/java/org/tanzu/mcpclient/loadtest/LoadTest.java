@@ -0,0 +1,81 @@
+package org.tanzu.mcpclient.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Self-contained load test: starts a stub OpenAI endpoint and stub MCP servers, boots the application
+ * against them in a separate JVM, drives {@code /chat}, {@code /prompts/resolve} and {@code /upload} at
+ * the configured concurrency and reports throughput, latency percentiles, time to first token and the
+ * application's resource usage. The report is printed and written as JSON to {@code loadtest.report}.
+ * Settings are {@code loadtest.*} system properties, or {@code name=value} arguments without the prefix.
+ *
+ * <p>Without {@code loadtest.postgres.url} the application runs without a database, as it does when no
+ * database is bound; point it at a local Postgres with the pgvector extension to include the vector
+ * store and JDBC memory in the test.</p>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected name=value but got: " + arg);
+            }
+            System.setProperty("loadtest." + arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        List<StubMcpServer> mcpServers = new ArrayList<>();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        try (StubOpenAiServer llm = new StubOpenAiServer(config)) {
+            for (int i = 0; i < config.mcpServers(); i++) {
+                mcpServers.add(new StubMcpServer(i, config));
+            }
+
+            try (AppProcess app = AppProcess.start(config, llm, mcpServers)) {
+                System.out.println("Starting application at " + app.baseUri());
+                app.awaitReady(Duration.ofMinutes(2), config.mcpServers());
+                List<String> promptIds = app.promptIds();
+                System.out.printf("Application ready with %d MCP servers and %d prompts%n",
+                        config.mcpServers(), promptIds.size());
+
+                LoadReport report = new LoadReport();
+                LoadDriver driver = new LoadDriver(config, app.baseUri(), promptIds);
+                long measureFrom = System.nanoTime() + config.warmup().toNanos();
+                long end = measureFrom + config.duration().toNanos();
+                sampler.scheduleAtFixedRate(() -> {
+                    if (System.nanoTime() >= measureFrom) {
+                        try {
+                            report.record(app.sample());
+                        } catch (Exception e) {
+                            // Skip the sample; the next one will be taken on schedule
+                        }
+                    }
+                }, 1, 1, TimeUnit.SECONDS);
+
+                System.out.printf("Running %d users: %s warmup, %s measured%n",
+                        config.concurrency(), config.warmup(), config.duration());
+                driver.run(report, measureFrom, end);
+                sampler.shutdownNow();
+
+                Duration measured = Duration.ofNanos(Math.max(System.nanoTime(), end) - measureFrom);
+                LoadReport.Summary summary = report.summarize(config, measured);
+                System.out.print(LoadReport.render(summary));
+                Path reportFile = Path.of(config.reportFile());
+                LoadReport.write(summary, reportFile);
+                System.out.println("Report written to " + reportFile.toAbsolutePath());
+            }
+        } finally {
+            sampler.shutdownNow();
+            mcpServers.forEach(StubMcpServer::close);
+        }
+    }
+}
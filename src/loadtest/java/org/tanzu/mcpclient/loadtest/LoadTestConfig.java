@@ -0,0 +1,104 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code loadtest.*} system properties. Durations accept the
+ * same formats as Spring Boot properties, such as {@code 300ms} or {@code PT1M}.
+ */
+record LoadTestConfig(
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Duration requestTimeout,
+        long seed,
+        Map<String, Integer> mix,
+        Duration firstTokenLatency,
+        Duration tokenInterval,
+        int completionTokens,
+        double toolCallProbability,
+        Duration embeddingLatency,
+        int embeddingDimensions,
+        int mcpServers,
+        int toolsPerServer,
+        int promptsPerServer,
+        Duration toolLatency,
+        double toolFailureRate,
+        String postgresUrl,
+        String postgresUsername,
+        @JsonIgnore String postgresPassword,
+        String appJvmArgs,
+        String reportFile,
+        int startupRuns,
+        String startupVariants,
+        String startupReportFile,
+        int vectorRows,
+        int vectorQueries,
+        int vectorTopK
+) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                integer("concurrency", 16),
+                duration("warmup", "10s"),
+                duration("duration", "60s"),
+                duration("request-timeout", "60s"),
+                Long.parseLong(property("seed", "42")),
+                mix(property("mix", "chat=80,prompt=15,upload=5")),
+                duration("llm.first-token-latency", "300ms"),
+                duration("llm.token-interval", "20ms"),
+                integer("llm.completion-tokens", 100),
+                Double.parseDouble(property("llm.tool-call-probability", "0.3")),
+                duration("llm.embedding-latency", "50ms"),
+                integer("llm.embedding-dimensions", 1536),
+                integer("mcp.servers", 3),
+                integer("mcp.tools", 5),
+                integer("mcp.prompts", 3),
+                duration("mcp.tool-latency", "100ms"),
+                Double.parseDouble(property("mcp.failure-rate", "0")),
+                property("postgres.url", null),
+                property("postgres.username", "postgres"),
+                property("postgres.password", "postgres"),
+                property("app.jvm-args", "-Xms512m -Xmx1g"),
+                property("report", "target/loadtest-report.json"),
+                integer("startup.runs", 5),
+                property("startup.variants", "jar,cds,aot,cds-aot,native"),
+                property("startup.report", "target/startup-report.json"),
+                integer("vector.rows", 10000),
+                integer("vector.queries", 200),
+                integer("vector.top-k", 10)
+        );
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private static int integer(String name, int defaultValue) {
+        return Integer.parseInt(property(name, String.valueOf(defaultValue)));
+    }
+
+    private static Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(property(name, defaultValue));
+    }
+
+    /**
+     * Parses the scenario weights, given as {@code scenario=weight} pairs separated by commas.
+     */
+    private static Map<String, Integer> mix(String value) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
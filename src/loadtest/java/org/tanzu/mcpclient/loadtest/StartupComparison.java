@@ -0,0 +1,196 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Compares how quickly the packaged application takes traffic, and how much memory it holds once it
+ * does, across the fast-start builds: the plain jar, the jar with a CDS archive, with AOT-generated
+ * bean definitions, with both, and the native executable. Each variant is started
+ * {@code loadtest.startup.runs} times against the same stub OpenAI endpoint and stub MCP servers as the
+ * load test. Variants whose artifacts were not built are skipped:
+ *
+ * <ul>
+ *   <li>{@code jar}: {@code mvn package}</li>
+ *   <li>{@code cds}: {@code mvn -Pcds package}, which writes {@code target/cds}</li>
+ *   <li>{@code aot}: {@code mvn -Paot package}</li>
+ *   <li>{@code cds-aot}: {@code mvn -Paot,cds package -Dcds.jvm.args=-Dspring.aot.enabled=true}</li>
+ *   <li>{@code native}: {@code mvn -Paot,native native:compile}</li>
+ * </ul>
+ *
+ * <p>"Live" is the time from process start until {@code /actuator/health/liveness} answers, "ready" until
+ * {@code /actuator/health/readiness} does, which includes MCP discovery. RSS is read from {@code /proc}
+ * once the application is ready. AOT builds fix the database choice at build time, so every variant runs
+ * with the {@code postgres} profile when {@code loadtest.postgres.url} is set and {@code in-memory}
+ * otherwise; build the AOT artifacts with the matching {@code aot.profile}.</p>
+ */
+public final class StartupComparison {
+
+    private static final Path TARGET = Path.of("target");
+    private static final String AOT_INITIALIZER =
+            "BOOT-INF/classes/org/tanzu/mcpclient/CfMcpClientApplication__ApplicationContextInitializer.class";
+
+    private StartupComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected name=value but got: " + arg);
+            }
+            System.setProperty("loadtest." + arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        String profile = config.postgresUrl() != null ? "postgres" : "in-memory";
+        List<StubMcpServer> mcpServers = new ArrayList<>();
+        Map<String, VariantSummary> summaries = new LinkedHashMap<>();
+        try (StubOpenAiServer llm = new StubOpenAiServer(config)) {
+            for (int i = 0; i < config.mcpServers(); i++) {
+                mcpServers.add(new StubMcpServer(i, config));
+            }
+
+            for (String name : config.startupVariants().split(",")) {
+                List<String> launcher = launcher(name.trim(), config);
+                if (launcher == null) {
+                    System.out.printf("Skipping %s: not built%n", name.trim());
+                    continue;
+                }
+                List<Run> runs = new ArrayList<>();
+                for (int run = 0; run < config.startupRuns(); run++) {
+                    Path log = TARGET.resolve("startup-" + name.trim() + ".log");
+                    try (AppProcess app = AppProcess.start(launcher, List.of("--spring.profiles.active=" + profile),
+                            config, llm, mcpServers, log)) {
+                        Duration live = app.awaitOk("/actuator/health/liveness", Duration.ofMinutes(2));
+                        Duration ready = app.awaitOk("/actuator/health/readiness", Duration.ofMinutes(2));
+                        runs.add(new Run(live.toMillis(), ready.toMillis(), app.residentSetSize()));
+                    }
+                }
+                summaries.put(name.trim(), VariantSummary.of(runs));
+                System.out.printf("%s: %s%n", name.trim(), summaries.get(name.trim()));
+            }
+        } finally {
+            mcpServers.forEach(StubMcpServer::close);
+        }
+
+        System.out.print(render(summaries));
+        Path reportFile = Path.of(config.startupReportFile());
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        new ObjectMapper().findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writeValue(reportFile.toFile(), new Report(Instant.now().toString(), config, profile, summaries));
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    /**
+     * Returns the command that starts the variant, or null if its artifacts are missing.
+     */
+    private static List<String> launcher(String variant, LoadTestConfig config) throws IOException {
+        Path jar = applicationJar();
+        Path cdsJar = jar != null ? TARGET.resolve("cds").resolve(jar.getFileName()) : null;
+        Path cdsArchive = TARGET.resolve("cds").resolve("application.jsa");
+        boolean cds = cdsJar != null && Files.exists(cdsJar) && Files.exists(cdsArchive);
+        boolean aot = jar != null && hasAotInitializer(jar);
+
+        List<String> command = new ArrayList<>();
+        command.add(AppProcess.javaExecutable());
+        command.addAll(Arrays.asList(config.appJvmArgs().trim().split("\\s+")));
+        switch (variant) {
+            case "jar" -> {
+                if (jar == null) {
+                    return null;
+                }
+                command.addAll(List.of("-jar", jar.toString()));
+            }
+            case "cds" -> {
+                if (!cds) {
+                    return null;
+                }
+                command.addAll(List.of("-XX:SharedArchiveFile=" + cdsArchive, "-jar", cdsJar.toString()));
+            }
+            case "aot" -> {
+                if (!aot) {
+                    return null;
+                }
+                command.addAll(List.of("-Dspring.aot.enabled=true", "-jar", jar.toString()));
+            }
+            case "cds-aot" -> {
+                if (!cds || !aot) {
+                    return null;
+                }
+                command.addAll(List.of("-XX:SharedArchiveFile=" + cdsArchive, "-Dspring.aot.enabled=true",
+                        "-jar", cdsJar.toString()));
+            }
+            case "native" -> {
+                Path executable = TARGET.resolve("cf-mcp-client");
+                return Files.isExecutable(executable) ? List.of(executable.toString()) : null;
+            }
+            default -> throw new IllegalArgumentException("Unknown startup variant: " + variant);
+        }
+        return command;
+    }
+
+    private static Path applicationJar() throws IOException {
+        if (!Files.isDirectory(TARGET)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(TARGET)) {
+            return files.filter(file -> file.getFileName().toString().matches("cf-mcp-client-.*\\.jar"))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private static boolean hasAotInitializer(Path jar) throws IOException {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            return jarFile.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    private static String render(Map<String, VariantSummary> summaries) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-8s %5s %12s %12s %12s %12s %10s%n",
+                "variant", "runs", "live p50 ms", "live min ms", "ready p50 ms", "ready min ms", "rss MiB"));
+        summaries.forEach((name, summary) -> text.append(String.format("%-8s %5d %12d %12d %12d %12d %10s%n",
+                name, summary.runs(), summary.liveMedianMillis(), summary.liveMinMillis(),
+                summary.readyMedianMillis(), summary.readyMinMillis(),
+                summary.rssMedianMib() >= 0 ? String.format("%.0f", summary.rssMedianMib()) : "-")));
+        return text.toString();
+    }
+
+    private record Run(long liveMillis, long readyMillis, long rssBytes) {
+    }
+
+    record VariantSummary(int runs, long liveMedianMillis, long liveMinMillis, long readyMedianMillis,
+                          long readyMinMillis, double rssMedianMib) {
+
+        static VariantSummary of(List<Run> runs) {
+            long[] live = runs.stream().mapToLong(Run::liveMillis).sorted().toArray();
+            long[] ready = runs.stream().mapToLong(Run::readyMillis).sorted().toArray();
+            long[] rss = runs.stream().mapToLong(Run::rssBytes).sorted().toArray();
+            return new VariantSummary(runs.size(), median(live), live[0], median(ready), ready[0],
+                    rss[0] >= 0 ? median(rss) / (1024.0 * 1024) : -1);
+        }
+
+        private static long median(long[] sorted) {
+            return sorted[sorted.length / 2];
+        }
+    }
+
+    record Report(String timestamp, LoadTestConfig config, String profile, Map<String, VariantSummary> variants) {
+    }
+}
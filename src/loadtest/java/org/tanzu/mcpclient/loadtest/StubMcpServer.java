@@ -0,0 +1,157 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MCP server speaking Streamable HTTP with plain JSON responses. It offers {@code loadtest.mcp.tools}
+ * tools and {@code loadtest.mcp.prompts} prompts; tool calls take {@code loadtest.mcp.tool-latency}
+ * and fail with probability {@code loadtest.mcp.failure-rate}. There is no notification stream, so
+ * GET is answered with 405 as the specification allows.
+ */
+final class StubMcpServer implements AutoCloseable {
+
+    private final int index;
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+
+    StubMcpServer(int index, LoadTestConfig config) throws IOException {
+        this.index = index;
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/mcp", exchange -> StubOpenAiServer.handle(exchange, this::mcp));
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/mcp";
+    }
+
+    String name() {
+        return "stub-mcp-" + index;
+    }
+
+    private void mcp(HttpExchange exchange) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "POST" -> post(exchange);
+            case "DELETE" -> exchange.sendResponseHeaders(200, -1);
+            default -> exchange.sendResponseHeaders(405, -1);
+        }
+    }
+
+    private void post(HttpExchange exchange) throws IOException {
+        JsonNode message = objectMapper.readTree(exchange.getRequestBody());
+        if (!message.has("id")) {
+            // Notifications and responses get no reply
+            exchange.sendResponseHeaders(202, -1);
+            return;
+        }
+
+        String method = message.path("method").asText();
+        JsonNode params = message.path("params");
+        ObjectNode response = objectMapper.createObjectNode().put("jsonrpc", "2.0");
+        response.set("id", message.get("id"));
+        switch (method) {
+            case "initialize" -> {
+                exchange.getResponseHeaders().set("Mcp-Session-Id", UUID.randomUUID().toString());
+                response.set("result", initialize(params));
+            }
+            case "ping" -> response.putObject("result");
+            case "tools/list" -> response.set("result", listTools());
+            case "tools/call" -> response.set("result", callTool(params));
+            case "prompts/list" -> response.set("result", listPrompts());
+            case "prompts/get" -> response.set("result", getPrompt(params));
+            default -> response.putObject("error").put("code", -32601).put("message", "Method not found: " + method);
+        }
+
+        byte[] bytes = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private ObjectNode initialize(JsonNode params) {
+        ObjectNode result = objectMapper.createObjectNode()
+                .put("protocolVersion", params.path("protocolVersion").asText("2024-11-05"));
+        ObjectNode capabilities = result.putObject("capabilities");
+        capabilities.putObject("tools").put("listChanged", false);
+        capabilities.putObject("prompts").put("listChanged", false);
+        result.putObject("serverInfo").put("name", name()).put("version", "1.0.0");
+        return result;
+    }
+
+    private ObjectNode listTools() {
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode tools = result.putArray("tools");
+        for (int i = 0; i < config.toolsPerServer(); i++) {
+            ObjectNode tool = tools.addObject()
+                    .put("name", "stub_" + index + "_tool_" + i)
+                    .put("description", "Looks up load test data item " + i + " on " + name());
+            ObjectNode schema = tool.putObject("inputSchema").put("type", "object");
+            schema.putObject("properties").putObject("input").put("type", "string");
+        }
+        return result;
+    }
+
+    private ObjectNode callTool(JsonNode params) {
+        StubOpenAiServer.sleep(config.toolLatency());
+        boolean failed = ThreadLocalRandom.current().nextDouble() < config.toolFailureRate();
+        ObjectNode result = objectMapper.createObjectNode().put("isError", failed);
+        result.putArray("content").addObject()
+                .put("type", "text")
+                .put("text", failed
+                        ? "Stub failure in " + params.path("name").asText()
+                        : "Result of " + params.path("name").asText() + " for " + params.path("arguments"));
+        return result;
+    }
+
+    private ObjectNode listPrompts() {
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode prompts = result.putArray("prompts");
+        for (int i = 0; i < config.promptsPerServer(); i++) {
+            ObjectNode prompt = prompts.addObject()
+                    .put("name", "prompt_" + i)
+                    .put("description", "Load test prompt " + i + " of " + name());
+            prompt.putArray("arguments").addObject()
+                    .put("name", "topic")
+                    .put("description", "Topic to write about")
+                    .put("required", true);
+        }
+        return result;
+    }
+
+    private ObjectNode getPrompt(JsonNode params) {
+        ObjectNode result = objectMapper.createObjectNode()
+                .put("description", "Load test prompt " + params.path("name").asText());
+        result.putArray("messages").addObject()
+                .put("role", "user")
+                .putObject("content")
+                .put("type", "text")
+                .put("text", "Write about " + params.path("arguments").path("topic").asText("anything") + ".");
+        return result;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
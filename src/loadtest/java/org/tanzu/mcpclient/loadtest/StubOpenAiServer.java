@@ -0,0 +1,244 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenAI-compatible chat completions and embeddings endpoint. Streamed completions send their first
+ * token after {@code loadtest.llm.first-token-latency} and then one token per
+ * {@code loadtest.llm.token-interval}. When the request offers tools and the last message is from the
+ * user, the stub calls one of them with probability {@code loadtest.llm.tool-call-probability}, so MCP
+ * tool calls are part of the load. Embeddings are deterministic per input text.
+ */
+final class StubOpenAiServer implements AutoCloseable {
+
+    private static final String[] WORDS = {"The ", "platform ", "reports ", "healthy ", "agents ", "and ",
+            "steady ", "latency ", "across ", "all ", "bound ", "services. "};
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong ids = new AtomicLong();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+
+    StubOpenAiServer(LoadTestConfig config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", exchange -> handle(exchange, this::chatCompletions));
+        server.createContext("/v1/embeddings", exchange -> handle(exchange, this::embeddings));
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void chatCompletions(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String id = "chatcmpl-" + ids.incrementAndGet();
+        String model = request.path("model").asText("stub-chat");
+        JsonNode messages = request.path("messages");
+        JsonNode tools = request.path("tools");
+        String lastRole = messages.isEmpty() ? "user" : messages.get(messages.size() - 1).path("role").asText();
+        boolean callTool = tools.isArray() && !tools.isEmpty() && "user".equals(lastRole)
+                && ThreadLocalRandom.current().nextDouble() < config.toolCallProbability();
+        int promptTokens = Math.max(1, messages.toString().length() / 4);
+
+        if (!request.path("stream").asBoolean(false)) {
+            sleep(config.firstTokenLatency().plus(config.tokenInterval().multipliedBy(config.completionTokens())));
+            ObjectNode message = objectMapper.createObjectNode().put("role", "assistant").put("content", text());
+            ObjectNode response = completion(id, model, "chat.completion");
+            response.putArray("choices").addObject()
+                    .put("index", 0)
+                    .put("finish_reason", "stop")
+                    .set("message", message);
+            response.set("usage", usage(promptTokens, config.completionTokens()));
+            sendJson(exchange, response);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            sleep(config.firstTokenLatency());
+            int completionTokens;
+            if (callTool) {
+                JsonNode function = tools.get(ThreadLocalRandom.current().nextInt(tools.size())).path("function");
+                ObjectNode delta = objectMapper.createObjectNode().put("role", "assistant");
+                ObjectNode toolCall = delta.putArray("tool_calls").addObject()
+                        .put("index", 0)
+                        .put("id", "call_" + id)
+                        .put("type", "function");
+                toolCall.putObject("function")
+                        .put("name", function.path("name").asText())
+                        .put("arguments", "{\"input\":\"load test\"}");
+                writeChunk(out, chunk(id, model, delta, null));
+                writeChunk(out, chunk(id, model, objectMapper.createObjectNode(), "tool_calls"));
+                completionTokens = 20;
+            } else {
+                for (int i = 0; i < config.completionTokens(); i++) {
+                    if (i > 0) {
+                        sleep(config.tokenInterval());
+                    }
+                    ObjectNode delta = objectMapper.createObjectNode().put("content", WORDS[i % WORDS.length]);
+                    if (i == 0) {
+                        delta.put("role", "assistant");
+                    }
+                    writeChunk(out, chunk(id, model, delta, null));
+                }
+                writeChunk(out, chunk(id, model, objectMapper.createObjectNode(), "stop"));
+                completionTokens = config.completionTokens();
+            }
+            if (request.path("stream_options").path("include_usage").asBoolean(false)) {
+                ObjectNode usageChunk = completion(id, model, "chat.completion.chunk");
+                usageChunk.putArray("choices");
+                usageChunk.set("usage", usage(promptTokens, completionTokens));
+                writeChunk(out, usageChunk);
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void embeddings(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        List<String> inputs = new ArrayList<>();
+        if (request.path("input").isArray()) {
+            request.path("input").forEach(input -> inputs.add(input.asText()));
+        } else {
+            inputs.add(request.path("input").asText());
+        }
+        sleep(config.embeddingLatency());
+
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("object", "list")
+                .put("model", request.path("model").asText("stub-embedding"));
+        ArrayNode data = response.putArray("data");
+        int tokens = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            ObjectNode embedding = data.addObject().put("object", "embedding").put("index", i);
+            ArrayNode vector = embedding.putArray("embedding");
+            for (float value : vector(inputs.get(i))) {
+                vector.add(value);
+            }
+            tokens += Math.max(1, inputs.get(i).length() / 4);
+        }
+        response.putObject("usage").put("prompt_tokens", tokens).put("total_tokens", tokens);
+        sendJson(exchange, response);
+    }
+
+    /**
+     * Returns a unit vector derived from the text, so equal texts always embed the same.
+     */
+    private float[] vector(String text) {
+        Random random = new Random(text.hashCode());
+        float[] vector = new float[config.embeddingDimensions()];
+        double norm = 0;
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private ObjectNode completion(String id, String model, String object) {
+        return objectMapper.createObjectNode()
+                .put("id", id)
+                .put("object", object)
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+    }
+
+    private ObjectNode chunk(String id, String model, ObjectNode delta, String finishReason) {
+        ObjectNode chunk = completion(id, model, "chat.completion.chunk");
+        ObjectNode choice = chunk.putArray("choices").addObject().put("index", 0);
+        choice.set("delta", delta);
+        if (finishReason != null) {
+            choice.put("finish_reason", finishReason);
+        } else {
+            choice.putNull("finish_reason");
+        }
+        return chunk;
+    }
+
+    private ObjectNode usage(int promptTokens, int completionTokens) {
+        return objectMapper.createObjectNode()
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+    }
+
+    private String text() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < config.completionTokens(); i++) {
+            text.append(WORDS[i % WORDS.length]);
+        }
+        return text.toString();
+    }
+
+    private void writeChunk(OutputStream out, JsonNode chunk) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void sendJson(HttpExchange exchange, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    static void handle(HttpExchange exchange, ExchangeHandler handler) {
+        try (exchange) {
+            handler.handle(exchange);
+        } catch (IOException e) {
+            // The client went away; nothing to report back
+        }
+    }
+
+    static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    interface ExchangeHandler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
@@ -0,0 +1,191 @@
+package org.tanzu.mcpclient.loadtest;
+
+import com.pgvector.PGvector;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tanzu.mcpclient.vectorstore.VectorIndexSettings;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.tanzu.mcpclient.vectorstore.VectorIndexSettings.Method.HNSW;
+import static org.tanzu.mcpclient.vectorstore.VectorIndexSettings.Method.IVFFLAT;
+import static org.tanzu.mcpclient.vectorstore.VectorIndexSettings.Precision.BINARY;
+import static org.tanzu.mcpclient.vectorstore.VectorIndexSettings.Precision.FULL;
+import static org.tanzu.mcpclient.vectorstore.VectorIndexSettings.Precision.HALF;
+
+/**
+ * Compares vector index strategies against a scratch table of synthetic embeddings in the pgvector
+ * database at {@code loadtest.postgres.url}. For every strategy the benchmark reports index build time,
+ * index size, recall@k against an exact scan and p50/p99 query latency, then drops the scratch table.
+ * The table holds {@code loadtest.vector.rows} vectors of {@code loadtest.llm.embedding-dimensions}
+ * dimensions and is queried {@code loadtest.vector.queries} times for the {@code loadtest.vector.top-k}
+ * nearest neighbours.
+ */
+public final class VectorIndexBenchmark {
+
+    private static final String SCHEMA = "public";
+    private static final String TABLE = "vector_index_benchmark";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int rows;
+    private final int queries;
+    private final int topK;
+    private final int dimensions;
+
+    private VectorIndexBenchmark(DataSource dataSource, LoadTestConfig config) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.rows = config.vectorRows();
+        this.queries = config.vectorQueries();
+        this.topK = config.vectorTopK();
+        this.dimensions = config.embeddingDimensions();
+    }
+
+    public static void main(String[] args) {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected name=value but got: " + arg);
+            }
+            System.setProperty("loadtest." + arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        if (config.postgresUrl() == null) {
+            throw new IllegalArgumentException("The vector index benchmark needs loadtest.postgres.url");
+        }
+        new VectorIndexBenchmark(new DriverManagerDataSource(config.postgresUrl(), config.postgresUsername(),
+                config.postgresPassword()), config).run();
+    }
+
+    private void run() {
+        Random random = new Random(42);
+        try {
+            System.out.printf("Vector index benchmark: %d rows, %d queries, k=%d, %d dimensions%n",
+                    rows, queries, topK, dimensions);
+            loadRows(random);
+
+            List<float[]> queryVectors = new ArrayList<>(queries);
+            for (int i = 0; i < queries; i++) {
+                queryVectors.add(randomVector(random));
+            }
+            List<Set<Long>> groundTruth = queryVectors.stream().map(this::exactNeighbours).toList();
+
+            System.out.printf("%-8s %-7s %-22s %10s %10s %9s %9s %9s%n",
+                    "method", "prec", "params", "build ms", "index MB", "recall@" + topK, "p50 ms", "p99 ms");
+            for (VectorIndexSettings settings : strategies()) {
+                System.out.println(measure(settings, queryVectors, groundTruth));
+            }
+        } finally {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + SCHEMA + "." + TABLE);
+        }
+    }
+
+    private List<VectorIndexSettings> strategies() {
+        int lists = Math.max(1, (int) Math.sqrt(rows));
+        return List.of(
+                new VectorIndexSettings(HNSW, FULL, 16, 64, 40, lists, 1, 4),
+                new VectorIndexSettings(HNSW, FULL, 16, 64, 100, lists, 1, 4),
+                new VectorIndexSettings(HNSW, FULL, 32, 128, 100, lists, 1, 4),
+                new VectorIndexSettings(HNSW, HALF, 16, 64, 40, lists, 1, 4),
+                new VectorIndexSettings(HNSW, BINARY, 16, 64, 40, lists, 1, 4),
+                new VectorIndexSettings(IVFFLAT, FULL, 16, 64, 40, lists, 1, 4),
+                new VectorIndexSettings(IVFFLAT, FULL, 16, 64, 40, lists, 10, 4),
+                new VectorIndexSettings(IVFFLAT, HALF, 16, 64, 40, lists, 10, 4)
+        );
+    }
+
+    private void loadRows(Random random) {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + SCHEMA + "." + TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + SCHEMA + "." + TABLE +
+                " (id BIGINT PRIMARY KEY, content TEXT, metadata JSON, embedding vector(" + dimensions + "))");
+
+        List<Object[]> batch = new ArrayList<>();
+        for (long id = 0; id < rows; id++) {
+            batch.add(new Object[]{id, new PGvector(randomVector(random))});
+            if (batch.size() == 1000 || id == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO " + SCHEMA + "." + TABLE + " (id, embedding) VALUES (?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE " + SCHEMA + "." + TABLE);
+    }
+
+    private Set<Long> exactNeighbours(float[] query) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM " + SCHEMA + "." + TABLE + " ORDER BY embedding <=> ?::vector LIMIT ?",
+                Long.class, new PGvector(query), topK));
+    }
+
+    private String measure(VectorIndexSettings settings, List<float[]> queryVectors, List<Set<Long>> groundTruth) {
+        String indexName = settings.indexName(TABLE);
+
+        long buildStart = System.nanoTime();
+        jdbcTemplate.execute(settings.createIndexSql(SCHEMA, TABLE, dimensions));
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        Long indexBytes = jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class,
+                SCHEMA + "." + indexName);
+
+        // Warm up the index before measuring
+        queryVectors.stream().limit(Math.min(20, queryVectors.size())).forEach(query -> search(settings, query));
+
+        double recallSum = 0;
+        long[] latencies = new long[queryVectors.size()];
+        for (int i = 0; i < queryVectors.size(); i++) {
+            long start = System.nanoTime();
+            List<Long> result = search(settings, queryVectors.get(i));
+            latencies[i] = System.nanoTime() - start;
+
+            Set<Long> expected = groundTruth.get(i);
+            recallSum += result.stream().filter(expected::contains).count() / (double) Math.max(expected.size(), 1);
+        }
+        Arrays.sort(latencies);
+
+        jdbcTemplate.execute("DROP INDEX IF EXISTS " + SCHEMA + "." + indexName);
+
+        String params = settings.method() == HNSW
+                ? "m=" + settings.m() + " efc=" + settings.efConstruction() + " efs=" + settings.efSearch()
+                : "lists=" + settings.lists() + " probes=" + settings.probes();
+        return String.format("%-8s %-7s %-22s %10d %10.1f %9.3f %9.2f %9.2f",
+                settings.method(), settings.precision(), params, buildMillis,
+                indexBytes != null ? indexBytes / (1024.0 * 1024.0) : 0.0,
+                recallSum / queryVectors.size(),
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private List<Long> search(VectorIndexSettings settings, float[] query) {
+        PGvector vector = new PGvector(query);
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(settings.searchSettingSql());
+            return jdbcTemplate.query(settings.searchSql(SCHEMA + "." + TABLE, dimensions, ""),
+                    (rs, rowNum) -> rs.getLong("id"),
+                    vector, vector, settings.candidateLimit(topK), 2.0, topK);
+        });
+    }
+
+    private float[] randomVector(Random random) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000.0;
+    }
+}
@@ -1,4 +1,4 @@
-import { Component, DestroyRef, Inject, inject, signal, effect } from '@angular/core';
+import { Component, DestroyRef, Inject, inject, signal, effect, NgZone } from '@angular/core';
 import { MatToolbar } from '@angular/material/toolbar';
 import { ChatPanelComponent } from '../chat-panel/chat-panel.component';
 import { MemoryPanelComponent } from '../memory-panel/memory-panel.component';
@@ -7,8 +7,6 @@ import { AgentsPanelComponent } from '../agents-panel/agents-panel.component';
 import { ChatboxComponent } from '../chatbox/chatbox.component';
 import { HttpClient } from '@angular/common/http';
 import { DOCUMENT } from '@angular/common';
-import { interval } from 'rxjs';
-import { takeUntilDestroyed } from '@angular/core/rxjs-interop';
 
 @Component({
   selector: 'app-root',
@@ -43,9 +41,10 @@ export class AppComponent {
   private readonly destroyRef = inject(DestroyRef);
   private readonly httpClient = inject(HttpClient);
   private readonly document = inject(DOCUMENT);
+  private readonly ngZone = inject(NgZone);
 
   constructor() {
-    this.initMetricsPolling();
+    this.initMetricsStream();
 
     // Use effect for side effects based on signal changes
     effect(() => {
@@ -61,17 +60,34 @@ export class AppComponent {
     this._currentDocumentIds.set([...documentIds]);
   }
 
-  // Initialize metrics polling with improved error handling
-  private initMetricsPolling(): void {
-    // Fetch initial metrics
-    this.fetchMetrics();
+  // Subscribe to metrics pushed by the server: a full snapshot, then only the fields that changed
+  private initMetricsStream(): void {
+    if (typeof EventSource === 'undefined') {
+      this.fetchMetrics();
+      return;
+    }
 
-    // Set up interval to fetch metrics every 5 seconds
-    interval(5000)
-      .pipe(takeUntilDestroyed(this.destroyRef))
-      .subscribe(() => {
-        this.fetchMetrics();
-      });
+    const { protocol, host } = this.getApiBaseUrl();
+    const eventSource = new EventSource(`${protocol}//${host}/metrics/stream`, {
+      withCredentials: true
+    });
+
+    eventSource.addEventListener('snapshot', (event) => {
+      const data = JSON.parse((event as MessageEvent).data) as PlatformMetrics;
+      this.ngZone.run(() => this._metrics.set(data));
+    });
+
+    eventSource.addEventListener('delta', (event) => {
+      const delta = JSON.parse((event as MessageEvent).data) as Partial<PlatformMetrics>;
+      this.ngZone.run(() => this._metrics.update(current => ({ ...current, ...delta })));
+    });
+
+    // The browser reconnects on its own and the server starts again with a snapshot
+    eventSource.onerror = (error) => {
+      console.error('Error streaming metrics:', error);
+    };
+
+    this.destroyRef.onDestroy(() => eventSource.close());
   }
 
   private fetchMetrics(): void {
@@ -138,6 +154,20 @@ export interface EnhancedPromptMetrics {
   promptsByServer: { [serverId: string]: McpPrompt[] };
 }
 
+export interface StageMetrics {
+  count: number;
+  mean: number;
+  max: number;
+}
+
+export interface UsageMetrics {
+  promptTokens: number;
+  completionTokens: number;
+  embeddingTokens: number;
+  retrievedChunks: number;
+  toolCalls: number;
+}
+
 export interface PlatformMetrics {
   conversationId: string;
   chatModel: string;
@@ -145,4 +175,6 @@ export interface PlatformMetrics {
   vectorStoreName: string;
   agents: Agent[];
   prompts: EnhancedPromptMetrics;
+  performance?: { [stage: string]: StageMetrics };
+  usage?: { conversation: UsageMetrics; total: UsageMetrics };
 }
@@ -2,8 +2,12 @@ package org.tanzu.mcpclient;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(CfMcpClientRuntimeHints.class)
 public class CfMcpClientApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,35 @@
+package org.tanzu.mcpclient;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.tanzu.mcpclient.document.DocumentController;
+import org.tanzu.mcpclient.metrics.MetricsService;
+
+/**
+ * Hints for the native image that ahead-of-time processing cannot infer from the bean definitions.
+ * The MCP schema, the OpenAI API and the PDF reader bring their own hints with Spring AI.
+ */
+class CfMcpClientRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Serialized by our own ObjectMapper calls or returned as ResponseEntity<?>, so not found from handler signatures
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                MetricsService.PlatformMetrics.class,
+                MetricsService.ConversationMetrics.class,
+                DocumentController.UploadResponse.class,
+                DocumentController.DeleteResponse.class,
+                DocumentController.ErrorResponse.class);
+
+        hints.resources().registerPattern("prompts/*.st");
+
+        // PgVectorStore binds embeddings as PGvector objects, which the driver instantiates by reflection
+        hints.reflection().registerType(TypeReference.of("com.pgvector.PGvector"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
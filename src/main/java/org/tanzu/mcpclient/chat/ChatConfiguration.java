@@ -1,21 +1,27 @@
 package org.tanzu.mcpclient.chat;
 
+import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.EventListener;
 import org.tanzu.mcpclient.metrics.Agent;
 import org.tanzu.mcpclient.util.GenAIService;
 import org.tanzu.mcpclient.util.McpClientFactory;
+import org.tanzu.mcpclient.util.McpServer;
+import org.tanzu.mcpclient.util.McpServerRegistry;
+import org.tanzu.mcpclient.util.StartupTimeline;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Configuration
 public class ChatConfiguration {
@@ -26,74 +32,74 @@ public class ChatConfiguration {
     private final List<String> agentServices;
     private final List<String> allMcpServiceURLs;
     private final List<Agent> agentsWithHealth;
-    private final List<String> healthyMcpServiceURLs;
     private final ApplicationEventPublisher eventPublisher;
     private final McpClientFactory mcpClientFactory;
+    private final McpServerRegistry serverRegistry;
+    private final StartupTimeline startupTimeline;
 
-    // Map to store server names by URL for use by other services
-    private final Map<String, String> serverNamesByUrl = new ConcurrentHashMap<>();
-
-    public ChatConfiguration(GenAIService genAIService, ApplicationEventPublisher eventPublisher, McpClientFactory mcpClientFactory) {
+    public ChatConfiguration(GenAIService genAIService, ApplicationEventPublisher eventPublisher,
+                             McpClientFactory mcpClientFactory, McpServerRegistry serverRegistry,
+                             StartupTimeline startupTimeline) {
         this.chatModel = genAIService.getChatModelName();
         this.agentServices = genAIService.getMcpServiceNames();
         this.allMcpServiceURLs = genAIService.getMcpServiceUrls();
         this.eventPublisher = eventPublisher;
         this.mcpClientFactory = mcpClientFactory;
+        this.serverRegistry = serverRegistry;
+        this.startupTimeline = startupTimeline;
         this.agentsWithHealth = new ArrayList<>();
-        this.healthyMcpServiceURLs = new ArrayList<>();
 
         if (!allMcpServiceURLs.isEmpty()) {
             logger.info("Found MCP Services: {}", allMcpServiceURLs);
         }
     }
 
+    /**
+     * Probes the MCP servers once the application is ready. Chat works without tools until the probes,
+     * and the prompt discovery that follows them, have finished, so they run as a background startup
+     * phase and hold back only the readiness state. If they fail, the application is ready without tools.
+     */
     @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        startupTimeline.initializeOptional("mcp.discovery", this::publishConfigurationEvent);
+    }
+
     public void publishConfigurationEvent() {
-        testMcpServerHealth();
+        startupTimeline.time("mcp.health", this::testMcpServerHealth);
 
         logger.debug("Publishing ChatConfigurationEvent: chatModel={}, agentsWithHealth={}",
                 chatModel, agentsWithHealth);
         eventPublisher.publishEvent(new ChatConfigurationEvent(this, chatModel, agentsWithHealth));
     }
 
-    @Bean
-    public List<String> mcpServiceURLs() {
-        return healthyMcpServiceURLs; // Only return healthy MCP service URLs
-    }
-
-    @Bean
-    public Map<String, String> serverNamesByUrl() {
-        return serverNamesByUrl;
-    }
-
     /**
-     * Test the health of all configured MCP servers by attempting to initialize them.
+     * Test the health of all configured MCP servers by attempting to initialize them,
+     * then publish the results to the server registry.
      */
     private void testMcpServerHealth() {
         agentsWithHealth.clear();
-        healthyMcpServiceURLs.clear();
-        serverNamesByUrl.clear();
 
         if (agentServices.isEmpty() || allMcpServiceURLs.isEmpty()) {
             logger.debug("No MCP services configured for health checking");
+            serverRegistry.replaceAll(List.of());
             return;
         }
 
-        for (int i = 0; i < agentServices.size() && i < allMcpServiceURLs.size(); i++) {
-            String serviceName = agentServices.get(i);
-            String serviceUrl = allMcpServiceURLs.get(i);
-
-            Agent agent = testMcpServerHealthAndGetTools(serviceName, serviceUrl);
-            agentsWithHealth.add(agent);
-
-            // Only add healthy servers to the list used by ChatService
-            if (agent.healthy()) {
-                healthyMcpServiceURLs.add(serviceUrl);
-            }
-        }
-
+        int serverCount = Math.min(agentServices.size(), allMcpServiceURLs.size());
+        // All checks run concurrently, on the async transport or on blocking threads; block once for the combined result
+        List<McpServer> servers = new ArrayList<>(Flux.range(0, serverCount)
+                .flatMapSequential(i -> mcpClientFactory.isAsync()
+                        ? testMcpServerHealthAsync(agentServices.get(i), allMcpServiceURLs.get(i))
+                        : Mono.fromCallable(() -> testMcpServerHealthAndGetTools(agentServices.get(i), allMcpServiceURLs.get(i)))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                .collectList()
+                .block());
+        servers.forEach(server -> agentsWithHealth.add(Agent.from(server)));
+        serverRegistry.replaceAll(servers);
+
+        List<String> healthyMcpServiceURLs = serverRegistry.healthyServers().stream().map(McpServer::url).toList();
         int healthyCount = healthyMcpServiceURLs.size();
-        int totalCount = agentsWithHealth.size();
+        int totalCount = servers.size();
 
         logger.info("MCP Server health check completed. Healthy: {}, Unhealthy: {}",
                 healthyCount, totalCount - healthyCount);
@@ -110,10 +116,11 @@ public class ChatConfiguration {
     /**
      * Test the health of a single MCP server by attempting to initialize it and get its tools.
      */
-    private Agent testMcpServerHealthAndGetTools(String serviceName, String serviceUrl) {
+    private McpServer testMcpServerHealthAndGetTools(String serviceName, String serviceUrl) {
         logger.debug("Testing health of MCP server: {} at {}", serviceName, serviceUrl);
 
-        List<Agent.Tool> tools = new ArrayList<>();
+        String serverId = McpServerRegistry.serverIdFor(serviceUrl);
+        List<McpSchema.Tool> tools = List.of();
         String serverName = serviceName; // Default to service name
 
         try {
@@ -130,21 +137,16 @@ public class ChatConfiguration {
                 logger.debug("No server name available for MCP server at {}, using service name '{}'", serviceUrl, serviceName);
             }
 
-            // Store the server name for use by other services
-            serverNamesByUrl.put(serviceUrl, serverName);
-
             // If we get here, the server is healthy - now get the tools
             logger.debug("MCP server {} is healthy, fetching tools...", serviceName);
 
             try {
                 var listToolsResult = client.listTools();
                 if (listToolsResult != null && listToolsResult.tools() != null) {
-                    tools = listToolsResult.tools().stream()
-                            .map(tool -> new Agent.Tool(tool.name(), tool.description()))
-                            .toList();
+                    tools = listToolsResult.tools();
                     logger.debug("Found {} tools for MCP server {}: {}",
                             tools.size(), serviceName,
-                            tools.stream().map(Agent.Tool::name).toList());
+                            tools.stream().map(McpSchema.Tool::name).toList());
                 }
             } catch (Exception e) {
                 logger.warn("Failed to get tools for MCP server {} (server is healthy but tools unavailable): {}",
@@ -154,11 +156,45 @@ public class ChatConfiguration {
             // Clean up the test client
             client.closeGracefully();
 
-            return new Agent(serviceName, serverName, true, tools);
+            return new McpServer(serverId, serviceName, serviceUrl, serverName, true,
+                    initResult != null ? initResult.capabilities() : null, tools, List.of());
 
         } catch (Exception e) {
             logger.warn("MCP server {} at {} is unhealthy: {}", serviceName, serviceUrl, e.getMessage());
-            return new Agent(serviceName, serverName, false, List.of());
+            return new McpServer(serverId, serviceName, serviceUrl, serverName, false, null, List.of(), List.of());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Async variant of {@link #testMcpServerHealthAndGetTools(String, String)} that holds no thread while waiting.
+     */
+    private Mono<McpServer> testMcpServerHealthAsync(String serviceName, String serviceUrl) {
+        logger.debug("Testing health of MCP server: {} at {}", serviceName, serviceUrl);
+
+        String serverId = McpServerRegistry.serverIdFor(serviceUrl);
+        McpAsyncClient client = mcpClientFactory.createAsyncHealthCheckClient(serviceUrl);
+
+        return client.initialize()
+                .flatMap(initResult -> {
+                    String serverName = initResult.serverInfo() != null && initResult.serverInfo().name() != null
+                            ? initResult.serverInfo().name()
+                            : serviceName;
+
+                    return client.listTools()
+                            .map(result -> result.tools() != null ? result.tools() : List.<McpSchema.Tool>of())
+                            .onErrorResume(e -> {
+                                logger.warn("Failed to get tools for MCP server {} (server is healthy but tools unavailable): {}",
+                                        serviceName, e.getMessage());
+                                return Mono.just(List.of());
+                            })
+                            .map(tools -> new McpServer(serverId, serviceName, serviceUrl, serverName, true,
+                                    initResult.capabilities(), tools, List.of()));
+                })
+                .onErrorResume(e -> {
+                    logger.warn("MCP server {} at {} is unhealthy: {}", serviceName, serviceUrl, e.getMessage());
+                    return Mono.just(new McpServer(serverId, serviceName, serviceUrl, serviceName, false,
+                            null, List.of(), List.of()));
+                })
+                .doFinally(signal -> client.closeGracefully().subscribe());
+    }
+}
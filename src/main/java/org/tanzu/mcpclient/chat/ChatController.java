@@ -1,57 +1,97 @@
 package org.tanzu.mcpclient.chat;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.tanzu.mcpclient.document.DocumentService;
+import org.tanzu.mcpclient.metrics.ConversationUsageTracker;
+import org.tanzu.mcpclient.web.ConversationIdResolver;
+import org.tanzu.mcpclient.web.TenantResolver;
 import reactor.core.publisher.Flux;
 
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 public class ChatController {
 
     private final ChatService chatService;
+    private final DocumentService documentService;
+    private final TenantResolver tenantResolver;
+    private final ConversationIdResolver conversationIdResolver;
     private final ExecutorService executor = Executors.newCachedThreadPool();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObservationRegistry observationRegistry;
 
-    public ChatController(ChatService chatService) {
+    public ChatController(ChatService chatService, DocumentService documentService, TenantResolver tenantResolver,
+                          ConversationIdResolver conversationIdResolver,
+                          ObjectProvider<ObservationRegistry> observationRegistry) {
         this.chatService = chatService;
+        this.documentService = documentService;
+        this.tenantResolver = tenantResolver;
+        this.conversationIdResolver = conversationIdResolver;
+        this.observationRegistry = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
     }
 
     @GetMapping(value = "/chat", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter chatStream(@RequestParam("chat") String chat,
                                  @RequestParam(value = "documentId", required = false) Optional<String> documentId,
                                  @RequestParam(value = "documentIds", required = false) Optional<List<String>> documentIds,
-                                 HttpServletRequest request) {
-
-        String conversationId = request.getSession().getId();
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+                                 HttpServletRequest request, HttpServletResponse response) {
 
         // Handle both single documentId (backward compatibility) and multiple documentIds
         List<String> finalDocumentIds = determineDocumentIds(documentId, documentIds);
+        if (!finalDocumentIds.stream().allMatch(DocumentService::isDocumentId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid document ID");
+        }
+
+        String conversationId = conversationIdResolver.resolve(request, response);
+        String tenantId = tenantResolver.resolveTenantId(request, response);
+        if (!finalDocumentIds.isEmpty()) {
+            documentService.touch(tenantId);
+        }
+        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+
+        // Spans the whole turn, including SSE emission; started here so it is a child of the HTTP request
+        Observation observation = Observation.createNotStarted("chat.sse", observationRegistry)
+                .contextualName("chat stream")
+                .highCardinalityKeyValue(ConversationUsageTracker.CONVERSATION_ID_KEY, conversationId)
+                .start();
+        AtomicInteger chunks = new AtomicInteger();
 
         executor.execute(() -> {
-            try {
-                Flux<String> responseStream = chatService.chatStream(chat, conversationId, finalDocumentIds);
+            try (Observation.Scope scope = observation.openScope()) {
+                Flux<String> responseStream = chatService.chatStream(chat, conversationId, tenantId, finalDocumentIds);
 
                 responseStream
                         .filter(chunk -> chunk != null && !chunk.isEmpty())
+                        .doOnNext(chunk -> chunks.incrementAndGet())
+                        .doOnError(observation::error)
+                        .doFinally(signal -> {
+                            observation.highCardinalityKeyValue("chunks", String.valueOf(chunks.get()));
+                            observation.stop();
+                        })
+                        .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation))
                         .subscribe(
                                 chunk -> {
                                     try {
-                                        // Send as JSON to preserve exact content
-                                        Map<String, String> payload = Map.of("content", chunk);
-                                        String jsonData = objectMapper.writeValueAsString(payload);
-
                                         emitter.send(SseEmitter.event()
-                                                .data(jsonData)
+                                                .data(toEventData(chunk))
                                                 .name("message"));
                                     } catch (IOException e) {
                                         emitter.completeWithError(e);
@@ -71,6 +111,8 @@ public class ChatController {
                         );
 
             } catch (Exception e) {
+                observation.error(e);
+                observation.stop();
                 emitter.completeWithError(e);
             }
         });
@@ -78,6 +120,14 @@ public class ChatController {
         return emitter;
     }
 
+    /**
+     * Serializes a response chunk as the data of an SSE message event. The chunk is sent as JSON to
+     * preserve its exact content, including newlines.
+     */
+    String toEventData(String chunk) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(Map.of("content", chunk));
+    }
+
     /**
      * Determines the final list of document IDs to use for the chat request.
      * Prioritizes documentIds parameter over documentId for backward compatibility.
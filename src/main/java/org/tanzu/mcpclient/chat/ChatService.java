@@ -1,6 +1,8 @@
 package org.tanzu.mcpclient.chat;
 
+import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -8,19 +10,30 @@ import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.client.advisor.api.Advisor;
 import org.springframework.ai.chat.client.advisor.api.BaseChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
-import org.springframework.ai.mcp.SyncMcpToolCallbackProvider;
-import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.mcp.AsyncMcpToolCallback;
+import org.springframework.ai.mcp.SyncMcpToolCallback;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.tanzu.mcpclient.document.DocumentService;
+import org.tanzu.mcpclient.metrics.ChatPipelineMetrics;
+import org.tanzu.mcpclient.tool.ToolOutputGovernor;
+import org.tanzu.mcpclient.tool.ToolResultCache;
 import org.tanzu.mcpclient.util.McpClientFactory;
+import org.tanzu.mcpclient.util.McpServer;
+import org.tanzu.mcpclient.util.McpServerRegistry;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
@@ -29,9 +42,14 @@ import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
 public class ChatService {
 
     private final ChatClient chatClient;
-    private final VectorStore vectorStore;
-    private final List<String> mcpServiceURLs;
+    private final BaseChatMemoryAdvisor memoryAdvisor;
+    private final VectorStore retrievalVectorStore;
+    private final McpServerRegistry serverRegistry;
     private final McpClientFactory mcpClientFactory;
+    private final ToolResultCache toolResultCache;
+    private final ToolOutputGovernor toolOutputGovernor;
+    private final ChatPipelineMetrics pipelineMetrics;
+    private final SemanticResponseCache semanticCache;
 
     @Value("classpath:/prompts/system-prompt.st")
     private Resource systemChatPrompt;
@@ -39,88 +57,195 @@ public class ChatService {
     private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
 
     public ChatService(ChatClient.Builder chatClientBuilder, BaseChatMemoryAdvisor memoryAdvisor,
-                       List<String> mcpServiceURLs, VectorStore vectorStore, McpClientFactory mcpClientFactory) {
+                       McpServerRegistry serverRegistry, VectorStore vectorStore, McpClientFactory mcpClientFactory,
+                       ToolResultCache toolResultCache, ToolOutputGovernor toolOutputGovernor,
+                       ChatPipelineMetrics pipelineMetrics, ObjectProvider<SemanticResponseCache> semanticCache) {
         chatClientBuilder = chatClientBuilder.defaultAdvisors(memoryAdvisor, new SimpleLoggerAdvisor());
         this.chatClient = chatClientBuilder.build();
+        this.memoryAdvisor = memoryAdvisor;
 
-        this.mcpServiceURLs = mcpServiceURLs;
-        this.vectorStore = vectorStore;
+        this.serverRegistry = serverRegistry;
+        this.retrievalVectorStore = pipelineMetrics.timedVectorStore(vectorStore);
         this.mcpClientFactory = mcpClientFactory;
+        this.toolResultCache = toolResultCache;
+        this.toolOutputGovernor = toolOutputGovernor;
+        this.pipelineMetrics = pipelineMetrics;
+        this.semanticCache = semanticCache.getIfAvailable();
     }
 
     /**
-     * Updated method to handle multiple document IDs
+     * Updated method to handle multiple document IDs. Document retrieval is restricted to the tenant's documents.
+     * With the semantic cache enabled, a cached answer is streamed without connecting to MCP servers,
+     * retrieving documents or calling the model.
      */
-    public Flux<String> chatStream(String chat, String conversationId, List<String> documentIds) {
-        try (Stream<McpSyncClient> mcpSyncClients = createAndInitializeMcpClients()) {
-            ToolCallbackProvider[] toolCallbackProviders = mcpSyncClients
-                    .map(SyncMcpToolCallbackProvider::new)
-                    .toArray(ToolCallbackProvider[]::new);
-
-            logger.info("CHAT STREAM REQUEST: conversationID = {}, documentIds = {}", conversationId, documentIds);
-            return buildAndExecuteStreamChatRequest(chat, conversationId, documentIds, toolCallbackProviders);
+    public Flux<String> chatStream(String chat, String conversationId, String tenantId, List<String> documentIds) {
+        logger.info("CHAT STREAM REQUEST: conversationID = {}, documentIds = {}", conversationId, documentIds);
+        SemanticResponseCache.Lookup lookup = semanticCache != null
+                ? semanticCache.lookup(chat, conversationId, tenantId, documentIds)
+                : null;
+        if (lookup != null && lookup.isHit()) {
+            return replay(chat, conversationId, lookup.cached().answer());
         }
+
+        Flux<String> response = mcpClientFactory.isAsync()
+                ? chatStreamAsync(chat, conversationId, tenantId, documentIds)
+                : chatStreamSync(chat, conversationId, tenantId, documentIds);
+        return lookup != null ? semanticCache.store(lookup, response) : response;
+    }
+
+    private Flux<String> chatStreamSync(String chat, String conversationId, String tenantId, List<String> documentIds) {
+        List<McpServer> servers = serverRegistry.healthyServers();
+        List<McpSyncClient> mcpSyncClients = createAndInitializeMcpClients(servers);
+        List<ToolCallback> toolCallbacks = IntStream.range(0, servers.size())
+                .boxed()
+                .flatMap(i -> toolCallbacks(servers.get(i), mcpSyncClients.get(i)).stream())
+                .toList();
+
+        // Close the clients when the response ends so their SSE streams do not stay open on the shared HttpClient
+        return buildAndExecuteStreamChatRequest(chat, conversationId, tenantId, documentIds, toolCallbacks)
+                .doFinally(signal -> mcpSyncClients.forEach(McpSyncClient::closeGracefully));
+    }
+
+    /**
+     * Async client mode: servers are initialized and their tools listed concurrently without
+     * blocking, and the clients are closed once the response stream terminates.
+     */
+    private Flux<String> chatStreamAsync(String chat, String conversationId, String tenantId, List<String> documentIds) {
+        List<McpServer> servers = serverRegistry.healthyServers();
+        List<McpAsyncClient> mcpAsyncClients = servers.stream()
+                .map(McpServer::url)
+                .map(mcpClientFactory::createMcpAsyncClient)
+                .toList();
+
+        return Flux.range(0, servers.size())
+                .flatMapSequential(i -> toolCallbacks(servers.get(i), mcpAsyncClients.get(i)))
+                .collectList()
+                .flatMapMany(toolCallbacks ->
+                        buildAndExecuteStreamChatRequest(chat, conversationId, tenantId, documentIds, toolCallbacks))
+                .doFinally(signal -> mcpAsyncClients.forEach(client -> client.closeGracefully().subscribe()));
+    }
+
+    /**
+     * Streams a cached answer through the memory advisor, so the conversation continues from it as if it
+     * had been generated.
+     */
+    private Flux<String> replay(String chat, String conversationId, String answer) {
+        return ChatClient.builder(new ReplayChatModel(answer))
+                .defaultAdvisors(memoryAdvisor)
+                .build()
+                .prompt()
+                .user(chat)
+                .advisors(a -> a.param(CONVERSATION_ID, conversationId))
+                .stream()
+                .content()
+                .filter(StringUtils::hasLength);
     }
 
     /**
      * Legacy method for backward compatibility - converts single documentId to List
      */
-    public Flux<String> chatStream(String chat, String conversationId, java.util.Optional<String> documentId) {
+    public Flux<String> chatStream(String chat, String conversationId, String tenantId, java.util.Optional<String> documentId) {
         List<String> documentIds = documentId.map(List::of).orElse(List.of());
-        return chatStream(chat, conversationId, documentIds);
+        return chatStream(chat, conversationId, tenantId, documentIds);
     }
 
-    private Stream<McpSyncClient> createAndInitializeMcpClients() {
-        return mcpServiceURLs.stream()
+    private List<McpSyncClient> createAndInitializeMcpClients(List<McpServer> servers) {
+        List<McpSyncClient> mcpSyncClients = servers.stream()
+                .map(McpServer::url)
                 .map(mcpClientFactory::createMcpSyncClient)
-                .peek(McpSyncClient::initialize);
+                .toList();
+        try {
+            for (int i = 0; i < servers.size(); i++) {
+                McpSyncClient client = mcpSyncClients.get(i);
+                pipelineMetrics.record(ChatPipelineMetrics.MCP_INITIALIZE, client::initialize,
+                        "server", servers.get(i).serverId());
+            }
+        } catch (RuntimeException e) {
+            mcpSyncClients.forEach(McpSyncClient::closeGracefully);
+            throw e;
+        }
+        return mcpSyncClients;
+    }
+
+    /**
+     * Creates a callback for each of the server's tools, wrapped with the result cache where configured
+     * and with the output governor.
+     */
+    private List<ToolCallback> toolCallbacks(McpServer server, McpSyncClient client) {
+        return pipelineMetrics.record(ChatPipelineMetrics.MCP_TOOLS_LIST, client::listTools, "server", server.serverId())
+                .tools().stream()
+                .map(tool -> decorate(server, tool, new SyncMcpToolCallback(client, tool)))
+                .toList();
     }
 
-    private Flux<String> buildAndExecuteStreamChatRequest(String chat, String conversationId, List<String> documentIds,
-                                                          ToolCallbackProvider[] toolCallbackProviders) {
+    private Flux<ToolCallback> toolCallbacks(McpServer server, McpAsyncClient client) {
+        return pipelineMetrics.record(ChatPipelineMetrics.MCP_INITIALIZE, client.initialize(), "server", server.serverId())
+                .then(pipelineMetrics.record(ChatPipelineMetrics.MCP_TOOLS_LIST, client.listTools(), "server", server.serverId()))
+                .flatMapIterable(McpSchema.ListToolsResult::tools)
+                .map(tool -> decorate(server, tool, new AsyncMcpToolCallback(client, tool)));
+    }
+
+    private ToolCallback decorate(McpServer server, McpSchema.Tool tool, ToolCallback callback) {
+        return toolOutputGovernor.govern(server.serverId(), toolResultCache.decorate(server, tool, callback));
+    }
+
+    private Flux<String> buildAndExecuteStreamChatRequest(String chat, String conversationId, String tenantId,
+                                                          List<String> documentIds,
+                                                          List<ToolCallback> toolCallbacks) {
+
+        if (!toolCallbacks.isEmpty()) {
+            // Lets the model page through tool results the governor truncated
+            toolCallbacks = Stream.concat(toolCallbacks.stream(), Stream.of(toolOutputGovernor.readToolOutputCallback()))
+                    .toList();
+        }
 
         ChatClient.ChatClientRequestSpec spec = chatClient.
                 prompt().
                 user(chat).
                 system(systemChatPrompt).
-                toolCallbacks(toolCallbackProviders);
+                toolCallbacks(toolCallbacks);
 
         if (documentIds != null && !documentIds.isEmpty()) {
-            spec = addDocumentSearchCapabilities(spec, documentIds);
+            spec = addDocumentSearchCapabilities(spec, tenantId, documentIds);
         }
 
         spec = spec.advisors(a -> a.param(CONVERSATION_ID, conversationId));
 
-        return spec.stream().content()
-                .filter(Objects::nonNull);
+        return pipelineMetrics.recordStream(spec.stream().chatResponse())
+                .map(response -> response.getResult() != null && response.getResult().getOutput() != null
+                        ? Objects.requireNonNullElse(response.getResult().getOutput().getText(), "")
+                        : "")
+                .filter(StringUtils::hasLength);
     }
 
     /**
-     * Updated method to handle multiple document IDs with OR filter expressions
+     * Restricts retrieval to the tenant's chunks of the selected documents. The filter is set on the search
+     * request as an expression; the advisor's filter parameter would be parsed from text.
      */
     private ChatClient.ChatClientRequestSpec addDocumentSearchCapabilities(
             ChatClient.ChatClientRequestSpec spec,
+            String tenantId,
             List<String> documentIds) {
 
-        Advisor questionAnswerAdvisor = new QuestionAnswerAdvisor(this.vectorStore);
-
-        // Build OR filter expression for multiple documents
-        String filterExpression = buildDocumentFilterExpression(documentIds);
+        Filter.Expression filterExpression = buildDocumentFilterExpression(tenantId, documentIds);
 
         logger.debug("Using document filter expression: {}", filterExpression);
 
-        return spec.advisors(questionAnswerAdvisor)
-                .advisors(advisorSpec ->
-                        advisorSpec.param(QuestionAnswerAdvisor.FILTER_EXPRESSION, filterExpression));
+        Advisor questionAnswerAdvisor = QuestionAnswerAdvisor.builder(this.retrievalVectorStore)
+                .searchRequest(SearchRequest.builder().filterExpression(filterExpression).build())
+                .build();
+        return spec.advisors(questionAnswerAdvisor);
     }
 
     /**
-     * Builds a filter expression for multiple document IDs using OR logic
-     * Format: "documentId == 'doc1' OR documentId == 'doc2' OR documentId == 'doc3'"
+     * Builds the tenant-scoped filter for the given documents: {@code tenantId == t1 AND documentId IN [doc1, doc2]}.
+     * Returns null if no documents are given.
+     *
+     * @throws IllegalArgumentException if a document ID is not a UUID
      */
-    private String buildDocumentFilterExpression(List<String> documentIds) {
+    static Filter.Expression buildDocumentFilterExpression(String tenantId, List<String> documentIds) {
         if (documentIds == null || documentIds.isEmpty()) {
-            return "";
+            return null;
         }
 
         // Filter out null or empty document IDs
@@ -129,17 +254,18 @@ public class ChatService {
                 .toList();
 
         if (validDocumentIds.isEmpty()) {
-            return "";
+            return null;
         }
-
-        // For single document, use simple equality
-        if (validDocumentIds.size() == 1) {
-            return DocumentService.DOCUMENT_ID + " == '" + validDocumentIds.get(0) + "'";
+        for (String documentId : validDocumentIds) {
+            if (!DocumentService.isDocumentId(documentId)) {
+                throw new IllegalArgumentException("Invalid document ID: " + documentId);
+            }
         }
 
-        // For multiple documents, use OR expressions
-        return validDocumentIds.stream()
-                .map(docId -> DocumentService.DOCUMENT_ID + " == '" + docId + "'")
-                .collect(Collectors.joining(" OR "));
+        FilterExpressionBuilder filter = new FilterExpressionBuilder();
+        FilterExpressionBuilder.Op documentFilter = validDocumentIds.size() == 1
+                ? filter.eq(DocumentService.DOCUMENT_ID, validDocumentIds.get(0))
+                : filter.in(DocumentService.DOCUMENT_ID, validDocumentIds.toArray());
+        return filter.and(filter.eq(DocumentService.TENANT_ID, tenantId), documentFilter).build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package org.tanzu.mcpclient.chat;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Response cache store for when no database is bound. Holds at most {@code maxScopes} scopes, each with
+ * its {@value #MAX_ANSWERS_PER_SCOPE} most recent answers, and compares embeddings exactly.
+ */
+class InMemoryResponseCacheStore implements ResponseCacheStore {
+
+    private static final int MAX_ANSWERS_PER_SCOPE = 32;
+
+    private final Cache<String, ScopeAnswers> scopes;
+
+    InMemoryResponseCacheStore(long maxScopes, Duration ttl) {
+        this.scopes = Caffeine.newBuilder()
+                .maximumSize(maxScopes)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    @Override
+    public CachedResponse find(Scope scope, float[] embedding, double minSimilarity, Instant notBefore) {
+        ScopeAnswers answers = scopes.getIfPresent(scope.key());
+        return answers != null ? answers.find(embedding, minSimilarity, notBefore) : null;
+    }
+
+    @Override
+    public void save(Scope scope, String question, float[] embedding, String answer, Duration generationTime) {
+        scopes.get(scope.key(), key -> new ScopeAnswers(scope))
+                .add(new Answer(question, embedding, answer, generationTime, Instant.now()));
+    }
+
+    @Override
+    public void invalidate(String tenantId, String documentId) {
+        scopes.asMap().values().removeIf(answers -> answers.scope.tenantId().equals(tenantId)
+                && (documentId == null || answers.scope.documentIds().contains(documentId)));
+    }
+
+    @Override
+    public void deleteExpired(Instant notBefore) {
+        scopes.asMap().values().removeIf(answers -> answers.removeOlderThan(notBefore));
+    }
+
+    static double cosineSimilarity(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0;
+        }
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / Math.sqrt(normA * normB);
+    }
+
+    private record Answer(String question, float[] embedding, String answer, Duration generationTime,
+                          Instant createdAt) {
+    }
+
+    private static final class ScopeAnswers {
+
+        private final Scope scope;
+        private final Deque<Answer> answers = new ArrayDeque<>();
+
+        private ScopeAnswers(Scope scope) {
+            this.scope = scope;
+        }
+
+        synchronized CachedResponse find(float[] embedding, double minSimilarity, Instant notBefore) {
+            Answer best = null;
+            double bestSimilarity = minSimilarity;
+            for (Answer answer : answers) {
+                if (answer.createdAt().isBefore(notBefore)) {
+                    continue;
+                }
+                double similarity = cosineSimilarity(embedding, answer.embedding());
+                if (similarity >= bestSimilarity) {
+                    best = answer;
+                    bestSimilarity = similarity;
+                }
+            }
+            return best != null
+                    ? new CachedResponse(best.question(), best.answer(), bestSimilarity, best.generationTime())
+                    : null;
+        }
+
+        synchronized void add(Answer answer) {
+            answers.addFirst(answer);
+            if (answers.size() > MAX_ANSWERS_PER_SCOPE) {
+                answers.removeLast();
+            }
+        }
+
+        /**
+         * Removes expired answers and returns whether none are left.
+         */
+        synchronized boolean removeOlderThan(Instant notBefore) {
+            answers.removeIf(answer -> answer.createdAt().isBefore(notBefore));
+            return answers.isEmpty();
+        }
+    }
+}
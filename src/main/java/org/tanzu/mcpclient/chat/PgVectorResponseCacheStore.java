@@ -0,0 +1,106 @@
+package org.tanzu.mcpclient.chat;
+
+import com.pgvector.PGvector;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.util.StartupTimeline;
+import org.tanzu.mcpclient.vectorstore.DataSourceConfiguration;
+import org.tanzu.mcpclient.vectorstore.DatabaseAvailableCondition;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response cache store in the {@code response_cache} table, shared by every instance. A lookup compares
+ * the question exactly against the answers of one scope, which are few, through the index on
+ * {@code (scope, created_at)}; no approximate vector index is needed.
+ */
+@Component
+@Conditional(DatabaseAvailableCondition.class)
+@ConditionalOnProperty(name = SemanticResponseCache.ENABLED_PROPERTY, havingValue = "true")
+class PgVectorResponseCacheStore implements ResponseCacheStore, InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmbeddingModel embeddingModel;
+    private final StartupTimeline startupTimeline;
+
+    PgVectorResponseCacheStore(@Qualifier(DataSourceConfiguration.VECTOR) DataSource dataSource,
+                               EmbeddingModel embeddingModel, StartupTimeline startupTimeline) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.embeddingModel = embeddingModel;
+        this.startupTimeline = startupTimeline;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        startupTimeline.initialize("schema.response-cache", () -> {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS response_cache (" +
+                    "id UUID PRIMARY KEY, " +
+                    "scope TEXT NOT NULL, " +
+                    "tenant_id TEXT NOT NULL, " +
+                    "document_ids TEXT[] NOT NULL, " +
+                    "question TEXT NOT NULL, " +
+                    "answer TEXT NOT NULL, " +
+                    "generation_ms BIGINT NOT NULL, " +
+                    "embedding vector(" + embeddingModel.dimensions() + ") NOT NULL, " +
+                    "created_at TIMESTAMPTZ NOT NULL DEFAULT now())");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS response_cache_scope_idx ON response_cache (scope, created_at)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS response_cache_tenant_idx ON response_cache (tenant_id)");
+        });
+    }
+
+    @Override
+    public CachedResponse find(Scope scope, float[] embedding, double minSimilarity, Instant notBefore) {
+        PGvector vector = new PGvector(embedding);
+        List<CachedResponse> responses = jdbcTemplate.query(
+                "SELECT question, answer, generation_ms, 1 - (embedding <=> ?) AS similarity FROM response_cache " +
+                        "WHERE scope = ? AND created_at >= ? ORDER BY embedding <=> ? LIMIT 1",
+                (rs, rowNum) -> new CachedResponse(rs.getString("question"), rs.getString("answer"),
+                        rs.getDouble("similarity"), Duration.ofMillis(rs.getLong("generation_ms"))),
+                vector, scope.key(), Timestamp.from(notBefore), vector);
+        return responses.isEmpty() || responses.getFirst().similarity() < minSimilarity ? null : responses.getFirst();
+    }
+
+    @Override
+    public void save(Scope scope, String question, float[] embedding, String answer, Duration generationTime) {
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement("INSERT INTO response_cache " +
+                    "(id, scope, tenant_id, document_ids, question, answer, generation_ms, embedding) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+            statement.setObject(1, UUID.randomUUID());
+            statement.setString(2, scope.key());
+            statement.setString(3, scope.tenantId());
+            statement.setArray(4, connection.createArrayOf("text", scope.documentIds().toArray()));
+            statement.setString(5, question);
+            statement.setString(6, answer);
+            statement.setLong(7, generationTime.toMillis());
+            statement.setObject(8, new PGvector(embedding));
+            return statement;
+        });
+    }
+
+    @Override
+    public void invalidate(String tenantId, String documentId) {
+        if (documentId == null) {
+            jdbcTemplate.update("DELETE FROM response_cache WHERE tenant_id = ?", tenantId);
+        } else {
+            jdbcTemplate.update("DELETE FROM response_cache WHERE tenant_id = ? AND ? = ANY(document_ids)",
+                    tenantId, documentId);
+        }
+    }
+
+    @Override
+    public void deleteExpired(Instant notBefore) {
+        jdbcTemplate.update("DELETE FROM response_cache WHERE created_at < ?", Timestamp.from(notBefore));
+    }
+}
@@ -0,0 +1,48 @@
+package org.tanzu.mcpclient.chat;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Chat model that answers every prompt with a fixed text, streamed word by word. Used to run a cached
+ * answer through the memory advisor, so the conversation records it like a generated one. The stream
+ * ends with an empty chunk carrying the finish reason, as a model stream does.
+ */
+class ReplayChatModel implements ChatModel {
+
+    private static final ChatGenerationMetadata STOP = ChatGenerationMetadata.builder().finishReason("STOP").build();
+
+    private final String answer;
+
+    ReplayChatModel(String answer) {
+        this.answer = answer;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return response(answer);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        // Split after whitespace so the words keep their spacing
+        return Flux.fromArray(answer.split("(?<=\\s)"))
+                .map(ReplayChatModel::chunk)
+                .concatWith(Flux.just(new ChatResponse(List.of(new Generation(new AssistantMessage(""), STOP)))));
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text), STOP)));
+    }
+
+    private static ChatResponse chunk(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
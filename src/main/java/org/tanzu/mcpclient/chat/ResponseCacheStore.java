@@ -0,0 +1,38 @@
+package org.tanzu.mcpclient.chat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Storage for {@link SemanticResponseCache}: answers with the embedding of the question they answered,
+ * grouped by the scope they were generated in.
+ */
+interface ResponseCacheStore {
+
+    /**
+     * Returns the answer whose question is most similar to the embedding among the scope's answers stored
+     * at or after {@code notBefore}, or null if none reaches {@code minSimilarity}.
+     */
+    CachedResponse find(Scope scope, float[] embedding, double minSimilarity, Instant notBefore);
+
+    void save(Scope scope, String question, float[] embedding, String answer, Duration generationTime);
+
+    /**
+     * Removes the tenant's answers that were generated against the document, or all of the tenant's
+     * answers if {@code documentId} is null.
+     */
+    void invalidate(String tenantId, String documentId);
+
+    void deleteExpired(Instant notBefore);
+
+    /**
+     * What an answer depends on besides the question. The key is a digest of all of it. The tenant is
+     * empty when no documents were selected.
+     */
+    record Scope(String key, String tenantId, List<String> documentIds) {
+    }
+
+    record CachedResponse(String question, String answer, double similarity, Duration generationTime) {
+    }
+}
@@ -0,0 +1,263 @@
+package org.tanzu.mcpclient.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.document.DocumentChangedEvent;
+import org.tanzu.mcpclient.memory.ConversationHistory;
+import org.tanzu.mcpclient.metrics.ChatPipelineMetrics;
+import org.tanzu.mcpclient.util.GenAIService;
+import org.tanzu.mcpclient.util.McpServer;
+import org.tanzu.mcpclient.util.McpServerRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opt-in cache of chat answers, looked up by the meaning of the question rather than its exact text.
+ *
+ * <p>The question is embedded and compared with earlier questions asked in the same scope: the same
+ * selected documents, the same chat model and the same tools on the healthy MCP servers. Documents belong to
+ * a tenant, so answers about documents are only served to that tenant. Answers to questions asked without
+ * documents are shared across all tenants: enable the cache only if the MCP tools return the same data to
+ * every user. An answer is served if its question reaches {@code app.chat.semantic-cache.similarity-threshold}
+ * (cosine) and it is younger than {@code app.chat.semantic-cache.ttl}. Deleting a document removes every
+ * answer generated against it.</p>
+ *
+ * <p>Only questions asked while the conversation's chat memory is empty are looked up or stored, because
+ * the meaning of a follow-up depends on the turns before it. The memory is checked rather than anything
+ * kept by this instance, so a conversation continued after a restart or on another instance is still
+ * recognised as a follow-up, and a conversation whose memory has expired starts afresh as the model
+ * sees it.</p>
+ *
+ * <p>Answers are kept in the {@code response_cache} table when a database is bound and in memory otherwise.
+ * Lookups are counted as {@code chat.semantic.cache.requests} by result, and every hit records the time the
+ * original answer took minus the lookup time as {@code chat.semantic.cache.time.saved}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = SemanticResponseCache.ENABLED_PROPERTY, havingValue = "true")
+public class SemanticResponseCache {
+
+    static final String ENABLED_PROPERTY = "app.chat.semantic-cache.enabled";
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticResponseCache.class);
+
+    private final ResponseCacheStore store;
+    private final EmbeddingModel embeddingModel;
+    private final GenAIService genAIService;
+    private final McpServerRegistry serverRegistry;
+    private final ChatPipelineMetrics pipelineMetrics;
+    private final ConversationHistory conversationHistory;
+    private final double similarityThreshold;
+    private final Duration ttl;
+    private final int maxAnswerChars;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter skipped;
+    private final Timer timeSaved;
+
+    private volatile ToolsetVersion toolsetVersion;
+
+    public SemanticResponseCache(ObjectProvider<PgVectorResponseCacheStore> pgVectorStore,
+                                 EmbeddingModel embeddingModel, GenAIService genAIService,
+                                 McpServerRegistry serverRegistry, ChatPipelineMetrics pipelineMetrics,
+                                 ConversationHistory conversationHistory, MeterRegistry meterRegistry,
+                                 @Value("${app.chat.semantic-cache.similarity-threshold:0.95}") double similarityThreshold,
+                                 @Value("${app.chat.semantic-cache.ttl:1h}") Duration ttl,
+                                 @Value("${app.chat.semantic-cache.max-scopes:10000}") long maxScopes,
+                                 @Value("${app.chat.semantic-cache.max-answer-chars:16384}") int maxAnswerChars) {
+        ResponseCacheStore databaseStore = pgVectorStore.getIfAvailable();
+        this.store = databaseStore != null ? databaseStore : new InMemoryResponseCacheStore(maxScopes, ttl);
+        this.embeddingModel = embeddingModel;
+        this.genAIService = genAIService;
+        this.serverRegistry = serverRegistry;
+        this.pipelineMetrics = pipelineMetrics;
+        this.conversationHistory = conversationHistory;
+        this.similarityThreshold = similarityThreshold;
+        this.ttl = ttl;
+        this.maxAnswerChars = maxAnswerChars;
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.skipped = requestCounter(meterRegistry, "skipped");
+        this.timeSaved = Timer.builder("chat.semantic.cache.time.saved")
+                .description("Time the cached answer took to generate, less the time to find it")
+                .register(meterRegistry);
+        logger.info("Semantic response cache enabled in {} (threshold {}, ttl {})",
+                store.getClass().getSimpleName(), similarityThreshold, ttl);
+    }
+
+    /**
+     * Looks the question up. Returns null if the question is not eligible for the cache, otherwise a lookup
+     * carrying the cached answer if there is one.
+     */
+    Lookup lookup(String question, String conversationId, String tenantId, List<String> documentIds) {
+        long start = System.nanoTime();
+        if (!genAIService.isEmbeddingModelAvailable()) {
+            skipped.increment();
+            return null;
+        }
+        try {
+            if (!conversationHistory.isEmpty(conversationId)) {
+                skipped.increment();
+                return null;
+            }
+            ResponseCacheStore.Scope scope = scope(tenantId, documentIds);
+            return pipelineMetrics.record(ChatPipelineMetrics.SEMANTIC_CACHE, () -> {
+                float[] embedding = embeddingModel.embed(question);
+                ResponseCacheStore.CachedResponse cached = store.find(scope, embedding, similarityThreshold,
+                        Instant.now().minus(ttl));
+                if (cached == null) {
+                    misses.increment();
+                } else {
+                    hits.increment();
+                    Duration saved = cached.generationTime().minusNanos(System.nanoTime() - start);
+                    if (!saved.isNegative()) {
+                        timeSaved.record(saved);
+                    }
+                    logger.debug("Answering from cache (similarity {}): {}", cached.similarity(), cached.question());
+                }
+                return new Lookup(scope, question, embedding, cached, start);
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Semantic cache lookup failed: {}", e.getMessage());
+            skipped.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Passes the generated answer through and stores it once it completed, unless it is longer than
+     * {@code app.chat.semantic-cache.max-answer-chars}.
+     */
+    Flux<String> store(Lookup lookup, Flux<String> answer) {
+        StringBuilder text = new StringBuilder();
+        AtomicBoolean tooLong = new AtomicBoolean();
+        return answer
+                .doOnNext(chunk -> {
+                    if (text.length() + chunk.length() > maxAnswerChars) {
+                        tooLong.set(true);
+                    } else if (!tooLong.get()) {
+                        text.append(chunk);
+                    }
+                })
+                .doOnComplete(() -> {
+                    if (tooLong.get() || text.isEmpty()) {
+                        return;
+                    }
+                    Duration generationTime = Duration.ofNanos(System.nanoTime() - lookup.startNanos());
+                    // The stream completes on a model client thread, which must not block on the database
+                    Schedulers.boundedElastic().schedule(() -> {
+                        try {
+                            store.save(lookup.scope(), lookup.question(), lookup.embedding(), text.toString(),
+                                    generationTime);
+                        } catch (RuntimeException e) {
+                            logger.warn("Failed to store answer in semantic cache: {}", e.getMessage());
+                        }
+                    });
+                });
+    }
+
+    @EventListener
+    public void handleDocumentChangedEvent(DocumentChangedEvent event) {
+        try {
+            store.invalidate(event.getTenantId(), event.getDocumentId());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to invalidate semantic cache for tenant {}: {}", event.getTenantId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.chat.semantic-cache.cleanup-interval:5m}")
+    public void deleteExpired() {
+        try {
+            store.deleteExpired(Instant.now().minus(ttl));
+        } catch (RuntimeException e) {
+            logger.debug("Failed to delete expired semantic cache entries: {}", e.getMessage());
+        }
+    }
+
+    private ResponseCacheStore.Scope scope(String tenantId, List<String> documentIds) {
+        List<String> documents = documentIds == null ? List.of() : documentIds.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .distinct()
+                .sorted()
+                .toList();
+        String owner = documents.isEmpty() ? "" : tenantId;
+        String key = digest(owner + "\n" + String.join(",", documents) + "\n"
+                + genAIService.getChatModelName() + "\n" + toolsetVersion());
+        return new ResponseCacheStore.Scope(key, owner, documents);
+    }
+
+    /**
+     * Digest of the tools offered by the healthy servers, recomputed only when the registry changes.
+     */
+    private String toolsetVersion() {
+        McpServerRegistry.Snapshot snapshot = serverRegistry.snapshot();
+        ToolsetVersion current = this.toolsetVersion;
+        if (current != null && current.snapshot() == snapshot) {
+            return current.version();
+        }
+        StringBuilder tools = new StringBuilder();
+        snapshot.healthyServers().stream()
+                .sorted(Comparator.comparing(McpServer::serverId))
+                .forEach(server -> {
+                    tools.append(server.serverId()).append('\n');
+                    for (McpSchema.Tool tool : server.tools()) {
+                        tools.append(tool.name()).append('\n')
+                                .append(tool.description()).append('\n')
+                                .append(tool.inputSchema()).append('\n');
+                    }
+                });
+        String version = digest(tools.toString());
+        this.toolsetVersion = new ToolsetVersion(snapshot, version);
+        return version;
+    }
+
+    private static String digest(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chat.semantic.cache.requests")
+                .description("Semantic cache lookups by result; skipped questions were not eligible")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record ToolsetVersion(McpServerRegistry.Snapshot snapshot, String version) {
+    }
+
+    /**
+     * A question that was looked up, with the cached answer if one was found.
+     */
+    record Lookup(ResponseCacheStore.Scope scope, String question, float[] embedding,
+                  ResponseCacheStore.CachedResponse cached, long startNanos) {
+
+        boolean isHit() {
+            return cached != null;
+        }
+    }
+}
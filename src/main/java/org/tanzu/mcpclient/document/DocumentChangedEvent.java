@@ -0,0 +1,28 @@
+package org.tanzu.mcpclient.document;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published when a tenant's documents are deleted, so anything derived from them can be discarded.
+ */
+public class DocumentChangedEvent extends ApplicationEvent {
+    private final String tenantId;
+    private final String documentId;
+
+    public DocumentChangedEvent(Object source, String tenantId, String documentId) {
+        super(source);
+        this.tenantId = tenantId;
+        this.documentId = documentId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Returns the changed document, or null if all of the tenant's documents changed.
+     */
+    public String getDocumentId() {
+        return documentId;
+    }
+}
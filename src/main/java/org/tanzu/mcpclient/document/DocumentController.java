@@ -1,10 +1,13 @@
 package org.tanzu.mcpclient.document;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.tanzu.mcpclient.web.TenantResolver;
 
 import java.util.List;
 import java.util.UUID;
@@ -12,24 +15,29 @@ import java.util.UUID;
 @RestController
 public class DocumentController {
     private final DocumentService documentService;
+    private final TenantResolver tenantResolver;
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentController.class);
 
-    public DocumentController(DocumentService documentService) {
+    public DocumentController(DocumentService documentService, TenantResolver tenantResolver) {
         this.documentService = documentService;
+        this.tenantResolver = tenantResolver;
     }
 
     @PostMapping("/upload")
-    public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file, HttpServletRequest request,
+                                        HttpServletResponse servletResponse) {
         try {
+            String tenantId = tenantResolver.resolveTenantId(request, servletResponse);
+
             // Generate a unique file name to prevent conflicts
             String fileId = UUID.randomUUID().toString();
 
             logger.info("Uploading file {} with id {}", file.getOriginalFilename(), fileId);
-            DocumentService.DocumentInfo documentInfo = documentService.storeFile(file, fileId);
+            DocumentService.DocumentInfo documentInfo = documentService.storeFile(tenantId, file, fileId);
 
-            // Return the uploaded document info along with all documents
-            UploadResponse response = new UploadResponse(documentInfo, documentService.getDocuments());
+            // Return the uploaded document info along with all of the tenant's documents
+            UploadResponse response = new UploadResponse(documentInfo, documentService.getDocuments(tenantId));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error uploading file {}: {}", file.getOriginalFilename(), e.getMessage(), e);
@@ -39,9 +47,10 @@ public class DocumentController {
     }
 
     @GetMapping("/documents")
-    public ResponseEntity<List<DocumentService.DocumentInfo>> getDocuments() {
+    public ResponseEntity<List<DocumentService.DocumentInfo>> getDocuments(HttpServletRequest request,
+                                                                         HttpServletResponse servletResponse) {
         try {
-            return ResponseEntity.ok(documentService.getDocuments());
+            return ResponseEntity.ok(documentService.getDocuments(tenantResolver.resolveTenantIdForRead(request, servletResponse)));
         } catch (Exception e) {
             logger.error("Error retrieving documents: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -49,17 +58,19 @@ public class DocumentController {
     }
 
     @DeleteMapping("/documents/{documentId}")
-    public ResponseEntity<?> deleteDocument(@PathVariable String documentId) {
+    public ResponseEntity<?> deleteDocument(@PathVariable String documentId, HttpServletRequest request,
+                                            HttpServletResponse servletResponse) {
         try {
+            String tenantId = tenantResolver.resolveTenantId(request, servletResponse);
             logger.info("Deleting document with id {}", documentId);
 
-            boolean deleted = documentService.deleteDocument(documentId);
+            boolean deleted = documentService.deleteDocument(tenantId, documentId);
 
             if (deleted) {
                 // Return updated document list after successful deletion
                 DeleteResponse response = new DeleteResponse(
                         "Document deleted successfully",
-                        documentService.getDocuments()
+                        documentService.getDocuments(tenantId)
                 );
                 return ResponseEntity.ok(response);
             } else {
@@ -73,10 +84,10 @@ public class DocumentController {
     }
 
     @DeleteMapping("/documents")
-    public ResponseEntity<?> deleteAllDocuments() {
+    public ResponseEntity<?> deleteAllDocuments(HttpServletRequest request, HttpServletResponse servletResponse) {
         try {
             logger.info("Deleting all documents");
-            documentService.deleteDocuments();
+            documentService.deleteDocuments(tenantResolver.resolveTenantId(request, servletResponse));
             return ResponseEntity.ok(new DeleteResponse("All documents deleted successfully", List.of()));
         } catch (Exception e) {
             logger.error("Error deleting all documents: {}", e.getMessage(), e);
@@ -1,110 +1,220 @@
 package org.tanzu.mcpclient.document;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
 import org.springframework.ai.reader.pdf.config.PdfDocumentReaderConfig;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stores uploaded documents in the vector store. Every document is owned by a tenant, and every
+ * operation is scoped to the calling tenant so that one tenant never sees or deletes another's chunks.
+ *
+ * <p>The documents of at most {@code app.documents.max-tenants} tenants are listed. A tenant whose
+ * documents are not used for {@code app.documents.idle-timeout} (by default the chat memory idle timeout,
+ * so they go when the conversation does), or that is evicted for size, has its chunks deleted from the
+ * vector store. Chunks older than {@code app.documents.retention} are deleted by a periodic sweep, which
+ * also catches chunks whose tenant was only listed by an instance that has since stopped.</p>
+ */
 @Service
 public class DocumentService {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentService.class);
+
     private final VectorStore vectorStore;
+    private final ObservationRegistry observationRegistry;
+    private final ApplicationEventPublisher eventPublisher;
     private final TokenTextSplitter tokenSplitter = new TokenTextSplitter();
-    private final List<DocumentInfo> documentList = new ArrayList<>();
+    private final Cache<String, List<DocumentInfo>> documentsByTenant;
+    private final Duration retention;
 
     public final static String DOCUMENT_ID = "documentId";
-
-    public DocumentService(VectorStore vectorStore) {
+    public final static String TENANT_ID = "tenantId";
+    public final static String UPLOADED_AT = "uploadedAt";
+
+    public DocumentService(VectorStore vectorStore, ObjectProvider<ObservationRegistry> observationRegistry,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${app.documents.max-tenants:10000}") long maxTenants,
+                           @Value("${app.documents.idle-timeout:${app.memory.idle-timeout:24h}}") Duration idleTimeout,
+                           @Value("${app.documents.retention:30d}") Duration retention) {
         this.vectorStore = vectorStore;
+        this.observationRegistry = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
+        this.eventPublisher = eventPublisher;
+        this.retention = retention;
+        this.documentsByTenant = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterAccess(idleTimeout)
+                .scheduler(Scheduler.systemScheduler())
+                // Runs after the entry is removed and off the caller's thread, so deleting chunks never blocks a request
+                .removalListener((String tenantId, List<DocumentInfo> documents, RemovalCause cause) -> {
+                    if (cause.wasEvicted() && tenantId != null && documents != null) {
+                        logger.debug("Deleting {} documents of tenant {} ({})", documents.size(), tenantId, cause);
+                        deleteChunks(tenantId, documents);
+                    }
+                })
+                .build();
     }
 
-    public List<DocumentInfo> getDocuments() {
-        return new ArrayList<>(documentList); // Return defensive copy
+    public List<DocumentInfo> getDocuments(String tenantId) {
+        return new ArrayList<>(documentsOf(tenantId)); // Return defensive copy
     }
 
-    public DocumentInfo storeFile(MultipartFile file, String fileId) {
-        writeToVectorStore(file, fileId);
+    public DocumentInfo storeFile(String tenantId, MultipartFile file, String fileId) {
+        // Covers PDF parsing, chunking and the embedding calls made while writing the chunks
+        Observation.createNotStarted("document.ingest", observationRegistry)
+                .contextualName("document ingest")
+                .highCardinalityKeyValue("document.id", fileId)
+                .observe(() -> writeToVectorStore(tenantId, file, fileId));
 
         String fileName = Optional.ofNullable(file.getOriginalFilename())
                 .orElse("Unknown");
         DocumentInfo documentInfo = new DocumentInfo(fileId, fileName, file.getSize(), Instant.now().toString());
 
         // No longer delete all documents - just add the new one
-        documentList.add(documentInfo);
+        documentsByTenant.get(tenantId, id -> new CopyOnWriteArrayList<>()).add(documentInfo);
         return documentInfo;
     }
 
     /**
      * Delete a specific document by its ID
+     * @param tenantId The tenant that owns the document
      * @param documentId The ID of the document to delete
      * @return true if document was found and deleted, false if not found
      */
-    public boolean deleteDocument(String documentId) {
-        // Validate that document exists
-        Optional<DocumentInfo> existingDocument = documentList.stream()
-                .filter(doc -> doc.id().equals(documentId))
-                .findFirst();
-
-        if (existingDocument.isEmpty()) {
+    public boolean deleteDocument(String tenantId, String documentId) {
+        // Validate that document exists for this tenant
+        if (!documentExists(tenantId, documentId)) {
             return false; // Document not found
         }
 
         // Remove from vector store
-        Filter.Expression filterExpression = new Filter.Expression(Filter.ExpressionType.EQ,
-                new Filter.Key(DOCUMENT_ID),
-                new Filter.Value(documentId)
-        );
-        vectorStore.delete(filterExpression);
+        vectorStore.delete(tenantDocumentFilter(tenantId, documentId));
 
         // Remove from document list
-        documentList.removeIf(doc -> doc.id().equals(documentId));
+        documentsOf(tenantId).removeIf(doc -> doc.id().equals(documentId));
 
+        eventPublisher.publishEvent(new DocumentChangedEvent(this, tenantId, documentId));
         return true;
     }
 
+    /**
+     * Marks the tenant's documents as used, so they do not expire while a conversation retrieves from them.
+     */
+    public void touch(String tenantId) {
+        documentsByTenant.getIfPresent(tenantId);
+    }
+
     /**
      * Check if a document exists by its ID
+     * @param tenantId The tenant that owns the document
      * @param documentId The ID of the document to check
      * @return true if document exists, false otherwise
      */
-    public boolean documentExists(String documentId) {
-        return documentList.stream()
+    public boolean documentExists(String tenantId, String documentId) {
+        return documentsOf(tenantId).stream()
                 .anyMatch(doc -> doc.id().equals(documentId));
     }
 
-    private void writeToVectorStore(MultipartFile file, String fileId) {
+    private void writeToVectorStore(String tenantId, MultipartFile file, String fileId) {
         Resource resource = file.getResource();
         PagePdfDocumentReader pdfReader = new PagePdfDocumentReader(resource, PdfDocumentReaderConfig.defaultConfig());
 
         List<Document> documents = tokenSplitter.split(pdfReader.read());
+        long uploadedAt = System.currentTimeMillis();
         for (Document document : documents) {
             document.getMetadata().put(DOCUMENT_ID, fileId);
+            document.getMetadata().put(TENANT_ID, tenantId);
+            document.getMetadata().put(UPLOADED_AT, uploadedAt);
         }
         vectorStore.write(documents);
     }
 
-    public void deleteDocuments() {
-        for (DocumentInfo documentInfo : documentList) {
-            Filter.Expression filterExpression = new Filter.Expression(Filter.ExpressionType.EQ,
-                    new Filter.Key(DOCUMENT_ID),
-                    new Filter.Value(documentInfo.id)
-            );
+    public void deleteDocuments(String tenantId) {
+        List<DocumentInfo> documents = documentsByTenant.asMap().remove(tenantId);
+        if (documents != null) {
+            deleteChunks(tenantId, documents);
+        }
+    }
 
-            vectorStore.delete(filterExpression);
+    /**
+     * Deletes chunks uploaded longer than {@code app.documents.retention} ago, whether or not this
+     * instance lists their documents.
+     */
+    @Scheduled(fixedDelayString = "${app.documents.cleanup-interval:1h}")
+    public void deleteExpired() {
+        Instant oldest = Instant.now().minus(retention);
+        documentsByTenant.asMap().forEach((tenantId, documents) -> documents.stream()
+                .filter(doc -> Instant.parse(doc.uploadDate()).isBefore(oldest))
+                .forEach(doc -> {
+                    documents.remove(doc);
+                    eventPublisher.publishEvent(new DocumentChangedEvent(this, tenantId, doc.id()));
+                }));
+        try {
+            vectorStore.delete(new Filter.Expression(Filter.ExpressionType.LT, new Filter.Key(UPLOADED_AT),
+                    new Filter.Value(oldest.toEpochMilli())));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to delete expired document chunks: {}", e.getMessage());
         }
+    }
+
+    /**
+     * Returns whether the ID has the form given to uploaded documents. Only such IDs may be put in a
+     * vector store filter, whose values are rendered into SQL.
+     */
+    public static boolean isDocumentId(String id) {
+        try {
+            UUID.fromString(id);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 
-        documentList.clear();
+    private List<DocumentInfo> documentsOf(String tenantId) {
+        List<DocumentInfo> documents = documentsByTenant.getIfPresent(tenantId);
+        return documents != null ? documents : List.of();
+    }
+
+    private void deleteChunks(String tenantId, List<DocumentInfo> documents) {
+        try {
+            for (DocumentInfo documentInfo : documents) {
+                vectorStore.delete(tenantDocumentFilter(tenantId, documentInfo.id()));
+            }
+        } finally {
+            eventPublisher.publishEvent(new DocumentChangedEvent(this, tenantId, null));
+        }
+    }
+
+    private Filter.Expression tenantDocumentFilter(String tenantId, String documentId) {
+        return new Filter.Expression(Filter.ExpressionType.AND,
+                new Filter.Expression(Filter.ExpressionType.EQ, new Filter.Key(TENANT_ID), new Filter.Value(tenantId)),
+                new Filter.Expression(Filter.ExpressionType.EQ, new Filter.Key(DOCUMENT_ID), new Filter.Value(documentId))
+        );
     }
 
     public record DocumentInfo(String id, String name, long size, String uploadDate) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package org.tanzu.mcpclient.memory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Chat memory that holds at most {@code maxConversations} conversations on the heap, replacing the
+ * unbounded in-memory repository. The least valuable conversations are evicted when the limit is reached
+ * (Caffeine's W-TinyLFU policy), and conversations idle for {@code idleTimeout} are removed by a sweeper
+ * thread rather than on the next access.
+ *
+ * <p>With a {@link ConversationSpillFile}, conversations evicted for size are written to it and restored
+ * on their next turn, so a burst of new visitors pushes cold conversations off the heap instead of
+ * discarding them. Occupancy and evictions are published as the {@code chat-memory} cache meters, spill
+ * activity as {@code chat.memory.spill.*}.</p>
+ */
+public class BoundedChatMemoryRepository implements ChatMemoryRepository, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedChatMemoryRepository.class);
+
+    private final Cache<String, List<Message>> conversations;
+    private final ConversationSpillFile spillFile;
+    private final Counter spillWrites;
+    private final Counter spillRestores;
+    private final Counter spillRejects;
+
+    BoundedChatMemoryRepository(MeterRegistry meterRegistry, long maxConversations, Duration idleTimeout,
+                                ConversationSpillFile spillFile) {
+        this.spillFile = spillFile;
+        this.conversations = Caffeine.newBuilder()
+                .maximumSize(maxConversations)
+                .expireAfterAccess(idleTimeout)
+                .scheduler(Scheduler.systemScheduler())
+                // Runs while the entry is removed, so a concurrent read finds it either cached or spilled
+                .evictionListener((String conversationId, List<Message> messages, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && conversationId != null && messages != null) {
+                        spill(conversationId, messages);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, conversations, "chat-memory");
+
+        this.spillWrites = spillCounter(meterRegistry, "write");
+        this.spillRestores = spillCounter(meterRegistry, "restore");
+        this.spillRejects = spillCounter(meterRegistry, "reject");
+        if (spillFile != null) {
+            Gauge.builder("chat.memory.spill.conversations", spillFile, ConversationSpillFile::conversations)
+                    .description("Conversations held in the chat memory spill file")
+                    .register(meterRegistry);
+            Gauge.builder("chat.memory.spill.bytes", spillFile, ConversationSpillFile::bytes)
+                    .description("Bytes of conversations held in the chat memory spill file")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        Set<String> ids = new LinkedHashSet<>(conversations.asMap().keySet());
+        if (spillFile != null) {
+            ids.addAll(spillFile.conversationIds());
+        }
+        return List.copyOf(ids);
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        List<Message> messages = spillFile != null
+                ? conversations.get(conversationId, this::restore)
+                : conversations.getIfPresent(conversationId);
+        return messages != null ? messages : List.of();
+    }
+
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        if (spillFile != null) {
+            spillFile.remove(conversationId);
+        }
+        conversations.put(conversationId, List.copyOf(messages));
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        conversations.invalidate(conversationId);
+        if (spillFile != null) {
+            spillFile.remove(conversationId);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (spillFile != null) {
+            spillFile.close();
+        }
+    }
+
+    private void spill(String conversationId, List<Message> messages) {
+        if (spillFile == null) {
+            return;
+        }
+        try {
+            if (spillFile.write(conversationId, MessageCodec.encode(messages))) {
+                spillWrites.increment();
+            } else {
+                spillRejects.increment();
+            }
+        } catch (RuntimeException e) {
+            spillRejects.increment();
+            logger.warn("Failed to spill conversation {}: {}", conversationId, e.getMessage());
+        }
+    }
+
+    private List<Message> restore(String conversationId) {
+        byte[] data = spillFile.take(conversationId);
+        if (data == null) {
+            return null;
+        }
+        spillRestores.increment();
+        return List.copyOf(MessageCodec.decode(data));
+    }
+
+    private static Counter spillCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("chat.memory.spill.operations")
+                .description("Conversations written to, restored from or rejected by the chat memory spill file")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,14 @@
+package org.tanzu.mcpclient.memory;
+
+/**
+ * Read-only view of the chat memory the model is given, whichever store backs it.
+ */
+@FunctionalInterface
+public interface ConversationHistory {
+
+    /**
+     * Whether the memory holds no messages for the conversation, so its next question reaches the model
+     * without any earlier turns.
+     */
+    boolean isEmpty(String conversationId);
+}
@@ -0,0 +1,306 @@
+package org.tanzu.mcpclient.memory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgvector.PGvector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.pgvector.PgVectorFilterExpressionConverter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Vector store dedicated to conversation memory, kept apart from the document {@code vector_store} table.
+ *
+ * <p>Memory rows live in a table that is range-partitioned by day on {@code created_at}. Retention is
+ * enforced by dropping whole partitions, so pruning expired sessions never rewrites or vacuums live data
+ * and the document index is unaffected by chat volume.</p>
+ *
+ * <p>Memory lookups are always scoped to a single conversation, so the conversation id is promoted to its
+ * own indexed column and similarity is computed exactly over that conversation's rows instead of through
+ * an approximate index shared by every session.</p>
+ */
+public class ConversationMemoryVectorStore implements VectorStore, InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationMemoryVectorStore.class);
+
+    public static final String CONVERSATION_ID = "conversationId";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int PARTITIONS_AHEAD = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmbeddingModel embeddingModel;
+    private final String schemaName;
+    private final String tableName;
+    private final int dimensions;
+    private final Duration retention;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PgVectorFilterExpressionConverter filterExpressionConverter = new PgVectorFilterExpressionConverter();
+
+    public ConversationMemoryVectorStore(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel,
+                                         String schemaName, String tableName, int dimensions, Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.embeddingModel = embeddingModel;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.dimensions = dimensions;
+        this.retention = retention;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        logger.info("Initializing conversation memory table {} (retention: {} days)",
+                qualifiedTableName(), retention.toDays());
+
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + schemaName);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + qualifiedTableName() + " (" +
+                "id UUID NOT NULL, " +
+                "conversation_id TEXT NOT NULL, " +
+                "content TEXT, " +
+                "metadata JSONB, " +
+                "embedding vector(" + dimensions + "), " +
+                "created_at TIMESTAMPTZ NOT NULL DEFAULT now(), " +
+                "PRIMARY KEY (id, created_at)" +
+                ") PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + tableName + "_conversation_idx ON " +
+                qualifiedTableName() + " (conversation_id, created_at)");
+
+        maintainPartitions();
+    }
+
+    /**
+     * Creates upcoming daily partitions and drops the ones that fell out of the retention window.
+     */
+    @Scheduled(cron = "${app.memory.maintenance-cron:0 5 * * * *}")
+    public void maintainPartitions() {
+        try {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            for (int i = 0; i <= PARTITIONS_AHEAD; i++) {
+                createPartition(today.plusDays(i));
+            }
+            dropExpiredPartitions(today);
+        } catch (Exception e) {
+            logger.warn("Conversation memory partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the partition for a UTC day. The bounds carry an explicit offset, since a bare date would be
+     * read in the session's time zone.
+     */
+    private void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + schemaName + "." + partitionName(day) +
+                " PARTITION OF " + qualifiedTableName() +
+                " FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('" + day.plusDays(1) + " 00:00:00+00')");
+    }
+
+    private void dropExpiredPartitions(LocalDate today) {
+        LocalDate oldestRetained = today.minusDays(retention.toDays());
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+                        "WHERE n.nspname = ? AND p.relname = ?",
+                String.class, schemaName, tableName);
+
+        for (String partition : partitions) {
+            LocalDate day = partitionDay(partition);
+            if (day != null && day.isBefore(oldestRetained)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + schemaName + "." + partition);
+                logger.info("Dropped expired conversation memory partition {}", partition);
+            }
+        }
+    }
+
+    @Override
+    public void add(@NonNull List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+
+        List<float[]> embeddings = embeddingModel.embed(documents.stream().map(Document::getText).toList());
+
+        List<Object[]> rows = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            Document document = documents.get(i);
+            Object conversationId = document.getMetadata().get(CONVERSATION_ID);
+            rows.add(new Object[]{
+                    toUuid(document.getId()),
+                    conversationId != null ? conversationId.toString() : "",
+                    document.getText(),
+                    toJson(document.getMetadata()),
+                    new PGvector(embeddings.get(i))
+            });
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO " + qualifiedTableName() +
+                " (id, conversation_id, content, metadata, embedding) VALUES (?, ?, ?, ?::jsonb, ?)", rows);
+    }
+
+    @Override
+    public void delete(@NonNull List<String> idList) {
+        jdbcTemplate.batchUpdate("DELETE FROM " + qualifiedTableName() + " WHERE id = ?",
+                idList.stream().map(id -> new Object[]{toUuid(id)}).toList());
+    }
+
+    @Override
+    public void delete(@NonNull Filter.Expression filterExpression) {
+        String conversationId = conversationIdOf(filterExpression);
+        if (conversationId != null) {
+            jdbcTemplate.update("DELETE FROM " + qualifiedTableName() + " WHERE conversation_id = ?", conversationId);
+        } else {
+            jdbcTemplate.update("DELETE FROM " + qualifiedTableName() + " WHERE " + jsonPathFilter(filterExpression));
+        }
+    }
+
+    @Override
+    public List<Document> similaritySearch(@NonNull SearchRequest request) {
+        PGvector queryEmbedding = new PGvector(embeddingModel.embed(request.getQuery()));
+        double maxDistance = 1 - request.getSimilarityThreshold();
+        Timestamp oldestRetained = Timestamp.from(Instant.now().minus(retention));
+
+        List<Object> params = new ArrayList<>();
+        params.add(queryEmbedding);
+        params.add(oldestRetained);
+
+        StringBuilder where = new StringBuilder("created_at >= ?");
+        if (request.hasFilterExpression()) {
+            String conversationId = conversationIdOf(request.getFilterExpression());
+            if (conversationId != null) {
+                where.append(" AND conversation_id = ?");
+                params.add(conversationId);
+            } else {
+                where.append(" AND ").append(jsonPathFilter(request.getFilterExpression()));
+            }
+        }
+        params.add(maxDistance);
+        params.add(request.getTopK());
+
+        String sql = "SELECT * FROM (SELECT id, content, metadata, embedding <=> ? AS distance FROM " +
+                qualifiedTableName() + " WHERE " + where + ") candidates " +
+                "WHERE distance < ? ORDER BY distance LIMIT ?";
+
+        return jdbcTemplate.query(sql, this::toDocument, params.toArray());
+    }
+
+    /**
+     * Whether the conversation has messages within the retention period, i.e. whether a search would
+     * give the model any history.
+     */
+    public boolean hasMessages(String conversationId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + qualifiedTableName() +
+                        " WHERE conversation_id = ? AND created_at >= ?)", Boolean.class,
+                conversationId, Timestamp.from(Instant.now().minus(retention))));
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return "ConversationMemoryVectorStore";
+    }
+
+    private Document toDocument(ResultSet rs, int rowNum) throws SQLException {
+        Map<String, Object> metadata = fromJson(rs.getString("metadata"));
+        double distance = rs.getDouble("distance");
+        metadata.put(DocumentMetadata.DISTANCE.value(), distance);
+
+        return Document.builder()
+                .id(rs.getString("id"))
+                .text(rs.getString("content"))
+                .metadata(metadata)
+                .score(1.0 - distance)
+                .build();
+    }
+
+    /**
+     * Returns the conversation id when the filter is a plain equality on it, so the indexed column can be used.
+     */
+    private String conversationIdOf(Filter.Expression expression) {
+        if (expression.type() == Filter.ExpressionType.EQ
+                && expression.left() instanceof Filter.Key key
+                && CONVERSATION_ID.equals(key.key())
+                && expression.right() instanceof Filter.Value value
+                && value.value() != null) {
+            return value.value().toString();
+        }
+        return null;
+    }
+
+    private String jsonPathFilter(Filter.Expression expression) {
+        return "metadata::jsonb @@ '" + filterExpressionConverter.convertExpression(expression) + "'::jsonpath";
+    }
+
+    private String qualifiedTableName() {
+        return schemaName + "." + tableName;
+    }
+
+    private String partitionName(LocalDate day) {
+        return tableName + "_p" + PARTITION_SUFFIX.format(day);
+    }
+
+    private LocalDate partitionDay(String partitionName) {
+        String prefix = tableName + "_p";
+        if (!partitionName.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(prefix.length()), PARTITION_SUFFIX);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private UUID toUuid(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(id.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize conversation memory metadata", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        if (json == null) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse conversation memory metadata", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.tanzu.mcpclient.memory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Off-heap store for serialized conversations, kept in two memory-mapped segment files of
+ * {@code segmentSize} bytes each. Records are appended to the active segment; when it is full, the older
+ * segment and every conversation still in it are dropped and a new segment becomes active, so the files
+ * never take more than twice the segment size. Only the index of conversation IDs lives on the heap.
+ * The files are temporary and deleted on close.
+ */
+final class ConversationSpillFile implements AutoCloseable {
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Map<String, Location> index = new HashMap<>();
+    private Segment active;
+    private Segment previous;
+    private long bytes;
+
+    ConversationSpillFile(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.active = Segment.create(directory, segmentSize);
+    }
+
+    /**
+     * Stores the conversation, replacing an earlier copy. Returns false if it is larger than a segment.
+     */
+    synchronized boolean write(String conversationId, byte[] data) {
+        if (data.length > segmentSize) {
+            return false;
+        }
+        if (active.position + data.length > segmentSize) {
+            rotate();
+        }
+        active.buffer.put(active.position, data);
+        release(index.put(conversationId, new Location(active, active.position, data.length)));
+        active.position += data.length;
+        bytes += data.length;
+        return true;
+    }
+
+    /**
+     * Removes the conversation and returns it, or null if it is not stored.
+     */
+    synchronized byte[] take(String conversationId) {
+        Location location = index.remove(conversationId);
+        if (location == null) {
+            return null;
+        }
+        byte[] data = new byte[location.length()];
+        location.segment().buffer.get(location.offset(), data);
+        release(location);
+        return data;
+    }
+
+    synchronized void remove(String conversationId) {
+        release(index.remove(conversationId));
+    }
+
+    synchronized List<String> conversationIds() {
+        return List.copyOf(index.keySet());
+    }
+
+    synchronized int conversations() {
+        return index.size();
+    }
+
+    /**
+     * Bytes held by stored conversations, excluding space taken by replaced or removed copies.
+     */
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    @Override
+    public synchronized void close() {
+        index.clear();
+        bytes = 0;
+        if (previous != null) {
+            previous.delete();
+        }
+        active.delete();
+    }
+
+    private void rotate() {
+        if (previous != null) {
+            index.values().removeIf(location -> {
+                if (location.segment() == previous) {
+                    bytes -= location.length();
+                    return true;
+                }
+                return false;
+            });
+            previous.delete();
+        }
+        previous = active;
+        active = Segment.create(directory, segmentSize);
+    }
+
+    private void release(Location location) {
+        if (location != null) {
+            bytes -= location.length();
+        }
+    }
+
+    private record Location(Segment segment, int offset, int length) {
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int position;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path directory, int size) {
+            try {
+                Files.createDirectories(directory);
+                Path path = Files.createTempFile(directory, "chat-memory-", ".spill");
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create chat memory spill file in " + directory, e);
+            }
+        }
+
+        void delete() {
+            // The mapping is released when the buffer is collected; the file is gone once it is deleted
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete chat memory spill file " + path, e);
+            }
+        }
+    }
+}
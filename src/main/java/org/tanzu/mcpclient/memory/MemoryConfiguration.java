@@ -1,5 +1,6 @@
 package org.tanzu.mcpclient.memory;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
@@ -9,11 +10,18 @@ import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.tanzu.mcpclient.metrics.ChatPipelineMetrics;
 import org.tanzu.mcpclient.util.GenAIService;
 import org.tanzu.mcpclient.vectorstore.VectorStoreConfiguration;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 @Configuration
 public class MemoryConfiguration {
 
@@ -25,10 +33,32 @@ public class MemoryConfiguration {
         this.genAIServiceUtil = genAIService;
     }
 
+    /**
+     * Bounded replacement for the unbounded in-memory repository that backs the message window memory.
+     * Conversations evicted for size spill to memory-mapped files when {@code app.memory.spill.enabled}.
+     */
+    @Bean
+    public ChatMemoryRepository chatMemoryRepository(MeterRegistry meterRegistry,
+                                                     @Value("${app.memory.max-conversations:10000}") long maxConversations,
+                                                     @Value("${app.memory.idle-timeout:24h}") Duration idleTimeout,
+                                                     @Value("${app.memory.spill.enabled:false}") boolean spillEnabled,
+                                                     @Value("${app.memory.spill.directory:${java.io.tmpdir}}") Path spillDirectory,
+                                                     @Value("${app.memory.spill.segment-size:64MB}") DataSize spillSegmentSize) {
+        ConversationSpillFile spillFile = null;
+        if (spillEnabled) {
+            logger.info("Spilling evicted conversations to {} in segments of {}", spillDirectory, spillSegmentSize);
+            spillFile = new ConversationSpillFile(spillDirectory, Math.toIntExact(spillSegmentSize.toBytes()));
+        }
+        return new BoundedChatMemoryRepository(meterRegistry, maxConversations, idleTimeout, spillFile);
+    }
+
     @Bean
-    public BaseChatMemoryAdvisor chatMemoryAdvisor(ChatMemoryRepository chatMemoryRepository, VectorStore vectorStore) {
+    public BaseChatMemoryAdvisor chatMemoryAdvisor(ChatMemoryRepository chatMemoryRepository, VectorStore vectorStore,
+                                                   ObjectProvider<ConversationMemoryVectorStore> conversationMemoryVectorStore,
+                                                   ChatPipelineMetrics pipelineMetrics) {
         BaseChatMemoryAdvisor memoryAdvisor;
-        if (vectorStore instanceof VectorStoreConfiguration.EmptyVectorStore || !genAIServiceUtil.isEmbeddingModelAvailable()) {
+        ConversationMemoryVectorStore memoryVectorStore = vectorMemory(vectorStore, conversationMemoryVectorStore);
+        if (memoryVectorStore == null) {
             ChatMemory chatMemory = MessageWindowChatMemory.builder()
                     .chatMemoryRepository(chatMemoryRepository)
                     .maxMessages(20)
@@ -36,9 +66,36 @@ public class MemoryConfiguration {
             memoryAdvisor = MessageChatMemoryAdvisor.builder(chatMemory).build();
         }
         else {
-            memoryAdvisor = VectorStoreChatMemoryAdvisor.builder(vectorStore).defaultTopK(10).build();
+            // Conversation memory is kept out of the document vector store
+            memoryAdvisor = VectorStoreChatMemoryAdvisor.builder(memoryVectorStore).defaultTopK(10).build();
+        }
+
+        return new TimedChatMemoryAdvisor(memoryAdvisor, pipelineMetrics);
+    }
+
+    /**
+     * Reads the same store as {@link #chatMemoryAdvisor}, so callers see the history the model is given.
+     */
+    @Bean
+    public ConversationHistory conversationHistory(ChatMemoryRepository chatMemoryRepository, VectorStore vectorStore,
+                                                   ObjectProvider<ConversationMemoryVectorStore> conversationMemoryVectorStore) {
+        ConversationMemoryVectorStore memoryVectorStore = vectorMemory(vectorStore, conversationMemoryVectorStore);
+        if (memoryVectorStore == null) {
+            return conversationId -> chatMemoryRepository.findByConversationId(conversationId).isEmpty();
         }
+        return conversationId -> !memoryVectorStore.hasMessages(conversationId);
+    }
 
-        return memoryAdvisor;
+    /**
+     * The vector store conversation memory is kept in, or null if memory is kept in the message window.
+     */
+    private ConversationMemoryVectorStore vectorMemory(VectorStore vectorStore,
+                                                       ObjectProvider<ConversationMemoryVectorStore> conversationMemoryVectorStore) {
+        ConversationMemoryVectorStore memoryVectorStore = conversationMemoryVectorStore.getIfAvailable();
+        if (vectorStore instanceof VectorStoreConfiguration.EmptyVectorStore || memoryVectorStore == null
+                || !genAIServiceUtil.isEmbeddingModelAvailable()) {
+            return null;
+        }
+        return memoryVectorStore;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package org.tanzu.mcpclient.memory;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a conversation's messages for {@link ConversationSpillFile}. It keeps the
+ * message type, text, tool calls and tool responses; message metadata and media are not kept.
+ */
+final class MessageCodec {
+
+    private MessageCodec() {
+    }
+
+    static byte[] encode(List<Message> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(messages.size());
+            for (Message message : messages) {
+                out.writeByte(message.getMessageType().ordinal());
+                switch (message) {
+                    case AssistantMessage assistant -> {
+                        writeString(out, assistant.getText());
+                        out.writeInt(assistant.getToolCalls().size());
+                        for (AssistantMessage.ToolCall toolCall : assistant.getToolCalls()) {
+                            writeString(out, toolCall.id());
+                            writeString(out, toolCall.type());
+                            writeString(out, toolCall.name());
+                            writeString(out, toolCall.arguments());
+                        }
+                    }
+                    case ToolResponseMessage tool -> {
+                        out.writeInt(tool.getResponses().size());
+                        for (ToolResponseMessage.ToolResponse response : tool.getResponses()) {
+                            writeString(out, response.id());
+                            writeString(out, response.name());
+                            writeString(out, response.responseData());
+                        }
+                    }
+                    default -> writeString(out, message.getText());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<Message> decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int count = in.readInt();
+            List<Message> messages = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                messages.add(switch (MessageType.values()[in.readByte()]) {
+                    case USER -> new UserMessage(readString(in));
+                    case SYSTEM -> new SystemMessage(readString(in));
+                    case ASSISTANT -> {
+                        String text = readString(in);
+                        int toolCallCount = in.readInt();
+                        List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>(toolCallCount);
+                        for (int j = 0; j < toolCallCount; j++) {
+                            toolCalls.add(new AssistantMessage.ToolCall(readString(in), readString(in),
+                                    readString(in), readString(in)));
+                        }
+                        yield new AssistantMessage(text, Map.of(), toolCalls);
+                    }
+                    case TOOL -> {
+                        int responseCount = in.readInt();
+                        List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(responseCount);
+                        for (int j = 0; j < responseCount; j++) {
+                            responses.add(new ToolResponseMessage.ToolResponse(readString(in), readString(in),
+                                    readString(in)));
+                        }
+                        yield new ToolResponseMessage(responses);
+                    }
+                });
+            }
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+package org.tanzu.mcpclient.memory;
+
+import org.springframework.ai.chat.client.ChatClientMessageAggregator;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.BaseChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.lang.NonNull;
+import org.tanzu.mcpclient.metrics.ChatPipelineMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Memory advisor that records how long the wrapped advisor takes to load the conversation history
+ * before the model call and to store the exchange after it.
+ *
+ * <p>Streamed responses are aggregated before {@link #after} runs, as the Spring AI memory advisors do
+ * themselves, so the whole answer is stored rather than the final chunk.</p>
+ */
+class TimedChatMemoryAdvisor implements BaseChatMemoryAdvisor {
+
+    private final BaseChatMemoryAdvisor delegate;
+    private final ChatPipelineMetrics metrics;
+
+    TimedChatMemoryAdvisor(BaseChatMemoryAdvisor delegate, ChatPipelineMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    @NonNull
+    public ChatClientRequest before(@NonNull ChatClientRequest request, @NonNull AdvisorChain advisorChain) {
+        return metrics.record(ChatPipelineMetrics.MEMORY_READ, () -> delegate.before(request, advisorChain));
+    }
+
+    @Override
+    @NonNull
+    public ChatClientResponse after(@NonNull ChatClientResponse response, @NonNull AdvisorChain advisorChain) {
+        return metrics.record(ChatPipelineMetrics.MEMORY_WRITE, () -> delegate.after(response, advisorChain));
+    }
+
+    @Override
+    @NonNull
+    public Flux<ChatClientResponse> adviseStream(@NonNull ChatClientRequest request,
+                                                 @NonNull StreamAdvisorChain streamAdvisorChain) {
+        return Mono.just(request)
+                .publishOn(getScheduler())
+                .map(r -> before(r, streamAdvisorChain))
+                .flatMapMany(streamAdvisorChain::nextStream)
+                .transform(flux -> new ChatClientMessageAggregator()
+                        .aggregateChatClientResponse(flux, response -> after(response, streamAdvisorChain)));
+    }
+
+    @Override
+    @NonNull
+    public Scheduler getScheduler() {
+        return delegate.getScheduler();
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate.getOrder();
+    }
+}
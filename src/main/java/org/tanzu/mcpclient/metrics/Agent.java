@@ -1,5 +1,7 @@
 package org.tanzu.mcpclient.metrics;
 
+import org.tanzu.mcpclient.util.McpServer;
+
 import java.util.List;
 
 public record Agent(
@@ -12,6 +14,14 @@ public record Agent(
     public record Tool(String name, String description) {
     }
 
+    /**
+     * Creates the agent view of a registered MCP server.
+     */
+    public static Agent from(McpServer server) {
+        return new Agent(server.serviceName(), server.serverName(), server.healthy(),
+                server.tools().stream().map(tool -> new Tool(tool.name(), tool.description())).toList());
+    }
+
     /**
      * Returns the display name for the agent (serverName if available, otherwise name).
      */
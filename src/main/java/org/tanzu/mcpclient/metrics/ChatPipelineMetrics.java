@@ -0,0 +1,237 @@
+package org.tanzu.mcpclient.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.tanzu.mcpclient.util.GenAIService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Observations for each stage of a chat turn. Each stage is both a timer, published with a percentile
+ * histogram so that Prometheus can compute latency quantiles across instances, and a trace span, so a
+ * slow turn can be broken down by stage.
+ *
+ * <p>Stages are MCP client initialization and tool listing (tagged by server), retrieval (tagged by
+ * embedding model), memory read and write, time to first token and total stream duration (tagged by
+ * chat model), and tokens per second. Every timer carries an {@code outcome} tag of {@code success},
+ * {@code error} or {@code cancelled}. Tool call latency is recorded separately by the tool calling
+ * manager as {@code mcp.tool.calls}. {@link #summary()} condenses all of them for {@code /metrics}.</p>
+ */
+@Component
+public class ChatPipelineMetrics {
+
+    public static final String MCP_INITIALIZE = "chat.mcp.initialize";
+    public static final String MCP_TOOLS_LIST = "chat.mcp.tools.list";
+    public static final String RETRIEVAL = "chat.retrieval";
+    public static final String SEMANTIC_CACHE = "chat.semantic.cache.lookup";
+    public static final String MEMORY_READ = "chat.memory.read";
+    public static final String MEMORY_WRITE = "chat.memory.write";
+    public static final String FIRST_TOKEN = "chat.stream.first.token";
+    public static final String STREAM_DURATION = "chat.stream.duration";
+    public static final String TOKENS_PER_SECOND = "chat.stream.tokens.per.second";
+    public static final String TOOL_CALLS = "mcp.tool.calls";
+
+    private static final List<String> STAGES = List.of(MCP_INITIALIZE, MCP_TOOLS_LIST, RETRIEVAL, SEMANTIC_CACHE,
+            MEMORY_READ, MEMORY_WRITE, FIRST_TOKEN, STREAM_DURATION, TOOL_CALLS);
+
+    private static final String OUTCOME = "outcome";
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final GenAIService genAIService;
+    private final ConversationUsageTracker usageTracker;
+
+    public ChatPipelineMetrics(MeterRegistry meterRegistry, ObjectProvider<ObservationRegistry> observationRegistry,
+                               GenAIService genAIService, ConversationUsageTracker usageTracker) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
+        this.genAIService = genAIService;
+        this.usageTracker = usageTracker;
+    }
+
+    /**
+     * Runs the stage within an observation named after it, tagged with the given tag pairs.
+     */
+    public <T> T record(String stage, Supplier<T> supplier, String... tags) {
+        Observation observation = observation(stage, tags).start();
+        try (Observation.Scope scope = observation.openScope()) {
+            T result = supplier.get();
+            observation.lowCardinalityKeyValue(OUTCOME, "success");
+            return result;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue(OUTCOME, "error");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Observes the Mono from subscription to its terminal signal. The observation is the parent of
+     * any observation the Mono creates.
+     */
+    public <T> Mono<T> record(String stage, Mono<T> mono, String... tags) {
+        return Mono.defer(() -> {
+            Observation observation = observation(stage, tags).start();
+            return mono.doOnError(observation::error)
+                    .doFinally(signal -> stop(observation, signal))
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Records time to first token, total duration and tokens per second of a streamed chat response.
+     * Tokens are taken from the reported usage when the model sends it, otherwise each non-empty
+     * chunk is counted as one token.
+     */
+    public Flux<ChatResponse> recordStream(Flux<ChatResponse> responses) {
+        String model = genAIService.getChatModelName();
+        return Flux.defer(() -> {
+            Observation observation = observation(STREAM_DURATION, "model", model).start();
+            long start = System.nanoTime();
+            AtomicLong firstTokenAt = new AtomicLong();
+            AtomicInteger chunks = new AtomicInteger();
+            AtomicInteger completionTokens = new AtomicInteger();
+
+            return responses
+                    .doOnNext(response -> {
+                        Usage usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+                        if (usage != null && usage.getCompletionTokens() != null && usage.getCompletionTokens() > 0) {
+                            completionTokens.set(usage.getCompletionTokens());
+                        }
+                        if (StringUtils.hasLength(textOf(response))) {
+                            chunks.incrementAndGet();
+                            if (firstTokenAt.compareAndSet(0, System.nanoTime())) {
+                                timer(FIRST_TOKEN, "success", "model", model)
+                                        .record(firstTokenAt.get() - start, TimeUnit.NANOSECONDS);
+                            }
+                        }
+                    })
+                    .doOnError(observation::error)
+                    .doFinally(signal -> {
+                        long end = System.nanoTime();
+                        stop(observation, signal);
+
+                        int tokens = completionTokens.get() > 0 ? completionTokens.get() : chunks.get();
+                        long generationNanos = firstTokenAt.get() > 0 ? end - firstTokenAt.get() : 0;
+                        if (tokens > 1 && generationNanos > 0) {
+                            DistributionSummary.builder(TOKENS_PER_SECOND)
+                                    .description("Output tokens per second after the first token")
+                                    .tag("model", model)
+                                    .publishPercentileHistogram()
+                                    .register(meterRegistry)
+                                    .record(tokens / (generationNanos / 1_000_000_000.0));
+                        }
+                    })
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Wraps the vector store so that its similarity searches are recorded as the retrieval stage and
+     * the retrieved chunks are counted against the conversation.
+     */
+    public VectorStore timedVectorStore(VectorStore vectorStore) {
+        return new TimedVectorStore(vectorStore, this, genAIService.getEmbeddingModelName());
+    }
+
+    /**
+     * Returns count, mean and max latency of every stage and the mean tokens per second, aggregated
+     * over all tags.
+     */
+    public Map<String, StageMetrics> summary() {
+        Map<String, StageMetrics> summary = new LinkedHashMap<>();
+        for (String stage : STAGES) {
+            long count = 0;
+            double totalMillis = 0;
+            double maxMillis = 0;
+            for (Timer timer : meterRegistry.find(stage).timers()) {
+                count += timer.count();
+                totalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+                maxMillis = Math.max(maxMillis, timer.max(TimeUnit.MILLISECONDS));
+            }
+            summary.put(stage, new StageMetrics(count, count > 0 ? totalMillis / count : 0, maxMillis));
+        }
+
+        long count = 0;
+        double total = 0;
+        double max = 0;
+        for (DistributionSummary tokensPerSecond : meterRegistry.find(TOKENS_PER_SECOND).summaries()) {
+            count += tokensPerSecond.count();
+            total += tokensPerSecond.totalAmount();
+            max = Math.max(max, tokensPerSecond.max());
+        }
+        summary.put(TOKENS_PER_SECOND, new StageMetrics(count, count > 0 ? total / count : 0, max));
+        return summary;
+    }
+
+    /**
+     * Counts chunks retrieved within the current observation against its conversation.
+     */
+    void recordRetrievedChunks(int chunks) {
+        usageTracker.recordRetrievedChunks(
+                ConversationUsageTracker.conversationIdOf(observationRegistry.getCurrentObservation()), chunks);
+    }
+
+    private Observation observation(String stage, String... tags) {
+        Observation observation = Observation.createNotStarted(stage, observationRegistry)
+                .contextualName(stage);
+        for (int i = 0; i + 1 < tags.length; i += 2) {
+            observation.lowCardinalityKeyValue(tags[i], tags[i + 1]);
+        }
+        return observation;
+    }
+
+    private static void stop(Observation observation, SignalType signal) {
+        observation.lowCardinalityKeyValue(OUTCOME, outcome(signal));
+        observation.stop();
+    }
+
+    private Timer timer(String stage, String outcome, String... tags) {
+        return Timer.builder(stage)
+                .tags(tags)
+                .tag(OUTCOME, outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "success";
+        };
+    }
+
+    private static String textOf(ChatResponse response) {
+        return response.getResult() != null && response.getResult().getOutput() != null
+                ? response.getResult().getOutput().getText()
+                : null;
+    }
+
+    /**
+     * Aggregated latency of one stage, or the rate statistics for tokens per second.
+     */
+    public record StageMetrics(long count, double mean, double max) {
+    }
+}
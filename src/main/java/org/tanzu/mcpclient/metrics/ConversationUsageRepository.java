@@ -0,0 +1,67 @@
+package org.tanzu.mcpclient.metrics;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.util.StartupTimeline;
+import org.tanzu.mcpclient.vectorstore.DatabaseAvailableCondition;
+
+import java.util.List;
+
+/**
+ * Persists conversation usage in Postgres. Each flush adds its increments to the stored totals with an
+ * upsert, so several application instances can flush the same conversation without losing counts.
+ * The table is created in the background during startup; a flush that runs before it exists fails
+ * and its increments are kept for the next one.
+ */
+@Component
+@Conditional(DatabaseAvailableCondition.class)
+public class ConversationUsageRepository implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StartupTimeline startupTimeline;
+
+    public ConversationUsageRepository(JdbcTemplate jdbcTemplate, StartupTimeline startupTimeline) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.startupTimeline = startupTimeline;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        startupTimeline.initialize("schema.usage", () -> jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS conversation_usage (" +
+                "conversation_id TEXT PRIMARY KEY, " +
+                "prompt_tokens BIGINT NOT NULL DEFAULT 0, " +
+                "completion_tokens BIGINT NOT NULL DEFAULT 0, " +
+                "embedding_tokens BIGINT NOT NULL DEFAULT 0, " +
+                "retrieved_chunks BIGINT NOT NULL DEFAULT 0, " +
+                "tool_calls BIGINT NOT NULL DEFAULT 0, " +
+                "updated_at TIMESTAMPTZ NOT NULL DEFAULT now())"));
+    }
+
+    public void addAll(List<UsageDelta> deltas) {
+        jdbcTemplate.batchUpdate("INSERT INTO conversation_usage AS u (conversation_id, prompt_tokens, " +
+                        "completion_tokens, embedding_tokens, retrieved_chunks, tool_calls) VALUES (?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (conversation_id) DO UPDATE SET " +
+                        "prompt_tokens = u.prompt_tokens + EXCLUDED.prompt_tokens, " +
+                        "completion_tokens = u.completion_tokens + EXCLUDED.completion_tokens, " +
+                        "embedding_tokens = u.embedding_tokens + EXCLUDED.embedding_tokens, " +
+                        "retrieved_chunks = u.retrieved_chunks + EXCLUDED.retrieved_chunks, " +
+                        "tool_calls = u.tool_calls + EXCLUDED.tool_calls, " +
+                        "updated_at = now()",
+                deltas.stream()
+                        .map(delta -> new Object[]{delta.conversationId(), delta.promptTokens(),
+                                delta.completionTokens(), delta.embeddingTokens(), delta.retrievedChunks(),
+                                delta.toolCalls()})
+                        .toList());
+    }
+
+    public record UsageDelta(
+            String conversationId,
+            long promptTokens,
+            long completionTokens,
+            long embeddingTokens,
+            long retrievedChunks,
+            long toolCalls
+    ) {}
+}
@@ -0,0 +1,261 @@
+package org.tanzu.mcpclient.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationView;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token, retrieval and tool call accounting per conversation and in aggregate.
+ *
+ * <p>Counts are kept in {@link LongAdder}s so that concurrent chat turns never contend on a lock.
+ * Per-conversation usage is held for at most {@code app.usage.max-conversations} recently active
+ * conversations, which bounds memory and keeps conversation IDs out of meter tags; the aggregate
+ * totals are published as {@code chat.usage.*} meters. When a database is bound, the increments
+ * accumulated since the last flush are added to the {@code conversation_usage} table every
+ * {@code app.usage.flush-interval}, including those of conversations evicted in between.</p>
+ */
+@Component
+public class ConversationUsageTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationUsageTracker.class);
+
+    /**
+     * High-cardinality key under which chat observations carry the conversation ID.
+     */
+    public static final String CONVERSATION_ID_KEY = "conversation.id";
+
+    private final Cache<String, ConversationUsage> conversations;
+    private final ConversationUsage totals = new ConversationUsage();
+    private final ConcurrentLinkedQueue<ConversationUsage> evictedUnflushed = new ConcurrentLinkedQueue<>();
+    private final ConversationUsageRepository repository;
+
+    public ConversationUsageTracker(MeterRegistry meterRegistry,
+                                    ObjectProvider<ConversationUsageRepository> repository,
+                                    @Value("${app.usage.max-conversations:10000}") long maxConversations,
+                                    @Value("${app.usage.idle-timeout:24h}") Duration idleTimeout) {
+        this.repository = repository.getIfAvailable();
+        this.conversations = Caffeine.newBuilder()
+                .maximumSize(maxConversations)
+                .expireAfterAccess(idleTimeout)
+                .removalListener((String conversationId, ConversationUsage usage, RemovalCause cause) -> {
+                    if (usage != null && cause != RemovalCause.REPLACED && usage.hasUnflushedChanges()) {
+                        evictedUnflushed.add(usage);
+                    }
+                })
+                .build();
+
+        registerTokenCounter(meterRegistry, "prompt", totals.promptTokens);
+        registerTokenCounter(meterRegistry, "completion", totals.completionTokens);
+        registerTokenCounter(meterRegistry, "embedding", totals.embeddingTokens);
+        FunctionCounter.builder("chat.usage.retrieved.chunks", totals.retrievedChunks, LongAdder::doubleValue)
+                .description("Document chunks retrieved into chat prompts")
+                .register(meterRegistry);
+        FunctionCounter.builder("chat.usage.tool.calls", totals.toolCalls, LongAdder::doubleValue)
+                .description("Tool calls made by chat turns")
+                .register(meterRegistry);
+        Gauge.builder("chat.usage.conversations", conversations, cache -> cache.estimatedSize())
+                .description("Conversations whose usage is currently tracked in memory")
+                .register(meterRegistry);
+    }
+
+    public void recordChatTokens(String conversationId, long promptTokens, long completionTokens) {
+        for (ConversationUsage usage : targets(conversationId)) {
+            usage.promptTokens.add(promptTokens);
+            usage.completionTokens.add(completionTokens);
+        }
+    }
+
+    public void recordEmbeddingTokens(String conversationId, long tokens) {
+        for (ConversationUsage usage : targets(conversationId)) {
+            usage.embeddingTokens.add(tokens);
+        }
+    }
+
+    public void recordRetrievedChunks(String conversationId, long chunks) {
+        for (ConversationUsage usage : targets(conversationId)) {
+            usage.retrievedChunks.add(chunks);
+        }
+    }
+
+    public void recordToolCall(String conversationId) {
+        for (ConversationUsage usage : targets(conversationId)) {
+            usage.toolCalls.increment();
+        }
+    }
+
+    /**
+     * Returns the usage of one conversation, or zeros if it is not tracked.
+     */
+    public UsageMetrics usage(String conversationId) {
+        ConversationUsage usage = conversationId != null ? conversations.getIfPresent(conversationId) : null;
+        return usage != null ? usage.toMetrics() : UsageMetrics.EMPTY;
+    }
+
+    public UsageMetrics totals() {
+        return totals.toMetrics();
+    }
+
+    /**
+     * Returns the conversation ID carried by the observation or the nearest ancestor that has one.
+     */
+    public static String conversationIdOf(ObservationView observation) {
+        ObservationView current = observation;
+        while (current != null) {
+            Observation.ContextView context = current.getContextView();
+            var keyValue = context.getHighCardinalityKeyValue(CONVERSATION_ID_KEY);
+            if (keyValue != null) {
+                return keyValue.getValue();
+            }
+            current = context.getParentObservation();
+        }
+        return null;
+    }
+
+    /**
+     * Adds the increments accumulated since the last flush to the database.
+     */
+    @Scheduled(fixedDelayString = "${app.usage.flush-interval:PT30S}")
+    public void flush() {
+        if (repository == null) {
+            return;
+        }
+        List<ConversationUsage> pending = new ArrayList<>();
+        ConversationUsage evicted;
+        while ((evicted = evictedUnflushed.poll()) != null) {
+            pending.add(evicted);
+        }
+        for (Map.Entry<String, ConversationUsage> entry : conversations.asMap().entrySet()) {
+            if (entry.getValue().hasUnflushedChanges()) {
+                pending.add(entry.getValue());
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<ConversationUsageRepository.UsageDelta> deltas = pending.stream()
+                .map(ConversationUsage::takeDelta)
+                .toList();
+        try {
+            repository.addAll(deltas);
+            logger.debug("Flushed usage of {} conversations", deltas.size());
+        } catch (Exception e) {
+            logger.warn("Failed to flush conversation usage: {}", e.getMessage());
+            // Keep the increments for the next attempt
+            for (int i = 0; i < pending.size(); i++) {
+                ConversationUsage usage = pending.get(i);
+                usage.restoreDelta(deltas.get(i));
+                if (conversations.asMap().get(usage.conversationId) != usage) {
+                    evictedUnflushed.add(usage);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private List<ConversationUsage> targets(String conversationId) {
+        if (conversationId == null) {
+            return List.of(totals);
+        }
+        return List.of(totals, conversations.get(conversationId, ConversationUsage::new));
+    }
+
+    private static void registerTokenCounter(MeterRegistry meterRegistry, String type, LongAdder adder) {
+        FunctionCounter.builder("chat.usage.tokens", adder, LongAdder::doubleValue)
+                .description("Prompt and completion tokens of the chat model, and tokens embedded for retrieval")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lock-free usage counters. The flushed totals are only touched by the flushing thread.
+     */
+    private static final class ConversationUsage {
+
+        private final String conversationId;
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final LongAdder embeddingTokens = new LongAdder();
+        private final LongAdder retrievedChunks = new LongAdder();
+        private final LongAdder toolCalls = new LongAdder();
+        private final long[] flushed = new long[5];
+
+        ConversationUsage() {
+            this(null);
+        }
+
+        ConversationUsage(String conversationId) {
+            this.conversationId = conversationId;
+        }
+
+        private long[] current() {
+            return new long[]{promptTokens.sum(), completionTokens.sum(), embeddingTokens.sum(),
+                    retrievedChunks.sum(), toolCalls.sum()};
+        }
+
+        boolean hasUnflushedChanges() {
+            long[] current = current();
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] != flushed[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        ConversationUsageRepository.UsageDelta takeDelta() {
+            long[] current = current();
+            ConversationUsageRepository.UsageDelta delta = new ConversationUsageRepository.UsageDelta(conversationId,
+                    current[0] - flushed[0], current[1] - flushed[1], current[2] - flushed[2],
+                    current[3] - flushed[3], current[4] - flushed[4]);
+            System.arraycopy(current, 0, flushed, 0, current.length);
+            return delta;
+        }
+
+        void restoreDelta(ConversationUsageRepository.UsageDelta delta) {
+            flushed[0] -= delta.promptTokens();
+            flushed[1] -= delta.completionTokens();
+            flushed[2] -= delta.embeddingTokens();
+            flushed[3] -= delta.retrievedChunks();
+            flushed[4] -= delta.toolCalls();
+        }
+
+        UsageMetrics toMetrics() {
+            long[] current = current();
+            return new UsageMetrics(current[0], current[1], current[2], current[3], current[4]);
+        }
+    }
+
+    public record UsageMetrics(
+            long promptTokens,
+            long completionTokens,
+            long embeddingTokens,
+            long retrievedChunks,
+            long toolCalls
+    ) {
+        static final UsageMetrics EMPTY = new UsageMetrics(0, 0, 0, 0, 0);
+    }
+}
@@ -1,21 +1,58 @@
 package org.tanzu.mcpclient.metrics;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.tanzu.mcpclient.web.ConversationIdResolver;
 
 @RestController
 public class MetricsController {
 
+    // Distinguishes snapshot versions of different instances and restarts
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
     private final MetricsService metricsService;
+    private final MetricsStream metricsStream;
+    private final ConversationIdResolver conversationIdResolver;
 
-    public MetricsController(MetricsService metricsService) {
+    public MetricsController(MetricsService metricsService, MetricsStream metricsStream,
+                             ConversationIdResolver conversationIdResolver) {
         this.metricsService = metricsService;
+        this.metricsStream = metricsStream;
+        this.conversationIdResolver = conversationIdResolver;
     }
 
+    /**
+     * Returns the metrics JSON with an ETag built from the snapshot version and the conversation fields,
+     * answering 304 when the client already has them.
+     */
     @GetMapping("/metrics")
-    public MetricsService.Metrics getMetrics(HttpServletRequest request) {
-        String conversationId = request.getSession().getId();
-        return metricsService.getMetrics(conversationId);
+    public ResponseEntity<byte[]> getMetrics(HttpServletRequest request, HttpServletResponse response,
+                                             @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        String conversationId = conversationIdResolver.resolveForRead(request, response);
+        MetricsService.Snapshot snapshot = metricsService.snapshot();
+        MetricsService.ConversationMetrics conversation = metricsService.conversationMetrics(conversationId);
+
+        String etag = "\"" + EPOCH + "-" + snapshot.version() + "-" + Integer.toHexString(conversation.hashCode()) + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(metricsService.render(snapshot, conversation));
+    }
+
+    @GetMapping(value = "/metrics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMetrics(HttpServletRequest request, HttpServletResponse response) {
+        return metricsStream.subscribe(conversationIdResolver.resolveForRead(request, response));
     }
-}
\ No newline at end of file
+}
@@ -1,91 +1,195 @@
 package org.tanzu.mcpclient.metrics;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.tanzu.mcpclient.chat.ChatConfigurationEvent;
 import org.tanzu.mcpclient.document.DocumentConfigurationEvent;
 import org.tanzu.mcpclient.prompt.McpPrompt;
 import org.tanzu.mcpclient.prompt.PromptConfigurationEvent;
+import org.tanzu.mcpclient.util.McpServerRegistry;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 /**
  * Service that collects and provides platform metrics including models, agents, and prompts.
  * This service listens to various configuration events and maintains current state
  * for monitoring and status display purposes.
+ *
+ * <p>The platform state is held in an immutable {@link Snapshot} that is replaced atomically, so HTTP
+ * threads read it without locking. Each snapshot carries a version and its JSON, serialized once when it
+ * is published. Configuration events publish a new snapshot immediately; agent health and the pipeline
+ * performance figures are compared against the current snapshot every {@code app.metrics.refresh-interval}
+ * and published only when they changed. Every new snapshot is announced with a {@link MetricsUpdatedEvent}.
+ * Only the conversation ID and usage are computed per request.</p>
  */
 @Service
 public class MetricsService {
 
     private static final Logger logger = LoggerFactory.getLogger(MetricsService.class);
 
-    private String chatModel = "";
-    private List<Agent> agentsWithHealth = List.of();
-    private String embeddingModel = "";
-    private String vectorStoreName = "";
+    private final McpServerRegistry serverRegistry;
+    private final ChatPipelineMetrics pipelineMetrics;
+    private final ConversationUsageTracker usageTracker;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private int totalPrompts = 0;
-    private int serversWithPrompts = 0;
-    private boolean promptsAvailable = false;
-    private Map<String, List<McpPrompt>> promptsByServer = Map.of();
+    private volatile Snapshot snapshot;
 
-    public MetricsService() {
+    public MetricsService(McpServerRegistry serverRegistry, ChatPipelineMetrics pipelineMetrics,
+                          ConversationUsageTracker usageTracker, ObjectMapper objectMapper,
+                          ApplicationEventPublisher eventPublisher) {
+        this.serverRegistry = serverRegistry;
+        this.pipelineMetrics = pipelineMetrics;
+        this.usageTracker = usageTracker;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        PlatformMetrics initial = new PlatformMetrics("", "", "", List.of(),
+                new PromptMetrics(0, 0, false, Map.of()), Map.of());
+        this.snapshot = new Snapshot(0, initial, serialize(initial));
     }
 
     @EventListener
     public void handleChatConfigurationEvent(ChatConfigurationEvent event) {
-        this.chatModel = event.getChatModel() != null ? event.getChatModel() : "";
-        this.agentsWithHealth = event.getAgentsWithHealth() != null ? event.getAgentsWithHealth() : List.of();
-        logger.debug("Updated chat metrics: model={}, agents={}", chatModel, agentsWithHealth.size());
+        String chatModel = event.getChatModel() != null ? event.getChatModel() : "";
+        publish(current -> current.withChatModel(chatModel));
+        logger.debug("Updated chat metrics: model={}", chatModel);
     }
 
     @EventListener
     public void handleDocumentConfigurationEvent(DocumentConfigurationEvent event) {
-        this.embeddingModel = event.getEmbeddingModel() != null ? event.getEmbeddingModel() : "";
-        this.vectorStoreName = event.getVectorStoreName() != null ? event.getVectorStoreName() : "";
+        String embeddingModel = event.getEmbeddingModel() != null ? event.getEmbeddingModel() : "";
+        String vectorStoreName = event.getVectorStoreName() != null ? event.getVectorStoreName() : "";
+        publish(current -> current.withDocumentStore(embeddingModel, vectorStoreName));
         logger.debug("Updated document metrics: embedding={}, vectorStore={}", embeddingModel, vectorStoreName);
     }
 
     @EventListener
     public void handlePromptConfigurationEvent(PromptConfigurationEvent event) {
-        this.totalPrompts = event.getTotalPrompts();
-        this.serversWithPrompts = event.getServersWithPrompts();
-        this.promptsAvailable = event.isAvailable();
-        this.promptsByServer = event.getPromptsByServer();
+        PromptMetrics prompts = new PromptMetrics(
+                event.getTotalPrompts(),
+                event.getServersWithPrompts(),
+                event.isAvailable(),
+                event.getPromptsByServer()
+        );
+        publish(current -> current.withPrompts(prompts).withAgents(agents()));
         logger.debug("Updated prompt metrics: total={}, servers={}, available={}",
-                totalPrompts, serversWithPrompts, promptsAvailable);
+                prompts.totalPrompts(), prompts.serversWithPrompts(), prompts.available());
     }
 
-    public Metrics getMetrics(String conversationId) {
-        logger.debug("Retrieving metrics for conversation: {}", conversationId);
+    /**
+     * Picks up changes that are not announced by events: agent health and tools, and the pipeline figures.
+     */
+    @Scheduled(fixedDelayString = "${app.metrics.refresh-interval:PT2S}")
+    public void refresh() {
+        publish(current -> current.withAgents(agents()).withPerformance(pipelineMetrics.summary()));
+    }
 
-        PromptMetrics promptMetrics = new PromptMetrics(
-                this.totalPrompts,
-                this.serversWithPrompts,
-                this.promptsAvailable,
-                this.promptsByServer
-        );
+    public Snapshot snapshot() {
+        return snapshot;
+    }
 
-        return new Metrics(
-                conversationId,
-                this.chatModel,
-                this.embeddingModel,
-                this.vectorStoreName,
-                this.agentsWithHealth.toArray(new Agent[0]),
-                promptMetrics
-        );
+    public ConversationMetrics conversationMetrics(String conversationId) {
+        return new ConversationMetrics(conversationId,
+                new UsageSummary(usageTracker.usage(conversationId), usageTracker.totals()));
     }
 
-    public record Metrics(
-            String conversationId,
+    /**
+     * Returns the metrics response for one conversation: the snapshot JSON with the conversation fields
+     * appended, so the platform state is not serialized again.
+     */
+    public byte[] render(Snapshot snapshot, ConversationMetrics conversation) {
+        byte[] platform = snapshot.json();
+        byte[] tail = serialize(conversation);
+        // Both are JSON objects; drop the closing brace of the first and the opening brace of the second
+        byte[] merged = Arrays.copyOf(platform, platform.length + tail.length - 1);
+        merged[platform.length - 1] = ',';
+        System.arraycopy(tail, 1, merged, platform.length, tail.length - 1);
+        return merged;
+    }
+
+    private void publish(UnaryOperator<PlatformMetrics> change) {
+        MetricsUpdatedEvent event = swap(change);
+        // Listeners push to clients, so they are notified outside the lock
+        if (event != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private synchronized MetricsUpdatedEvent swap(UnaryOperator<PlatformMetrics> change) {
+        Snapshot previous = this.snapshot;
+        PlatformMetrics metrics = change.apply(previous.metrics());
+        if (metrics.equals(previous.metrics())) {
+            return null;
+        }
+        Snapshot next = new Snapshot(previous.version() + 1, metrics, serialize(metrics));
+        this.snapshot = next;
+        return new MetricsUpdatedEvent(this, previous, next);
+    }
+
+    private List<Agent> agents() {
+        return serverRegistry.servers().stream().map(Agent::from).toList();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize metrics", e);
+        }
+    }
+
+    /**
+     * Immutable platform state with its version and pre-serialized JSON.
+     */
+    public record Snapshot(long version, PlatformMetrics metrics, byte[] json) {
+    }
+
+    public record PlatformMetrics(
             String chatModel,
             String embeddingModel,
             String vectorStoreName,
-            Agent[] agents,
-            PromptMetrics prompts
+            List<Agent> agents,
+            PromptMetrics prompts,
+            Map<String, ChatPipelineMetrics.StageMetrics> performance
+    ) {
+        PlatformMetrics withChatModel(String chatModel) {
+            return new PlatformMetrics(chatModel, embeddingModel, vectorStoreName, agents, prompts, performance);
+        }
+
+        PlatformMetrics withDocumentStore(String embeddingModel, String vectorStoreName) {
+            return new PlatformMetrics(chatModel, embeddingModel, vectorStoreName, agents, prompts, performance);
+        }
+
+        PlatformMetrics withAgents(List<Agent> agents) {
+            return new PlatformMetrics(chatModel, embeddingModel, vectorStoreName, agents, prompts, performance);
+        }
+
+        PlatformMetrics withPrompts(PromptMetrics prompts) {
+            return new PlatformMetrics(chatModel, embeddingModel, vectorStoreName, agents, prompts, performance);
+        }
+
+        PlatformMetrics withPerformance(Map<String, ChatPipelineMetrics.StageMetrics> performance) {
+            return new PlatformMetrics(chatModel, embeddingModel, vectorStoreName, agents, prompts, performance);
+        }
+    }
+
+    public record ConversationMetrics(
+            String conversationId,
+            UsageSummary usage
+    ) {}
+
+    public record UsageSummary(
+            ConversationUsageTracker.UsageMetrics conversation,
+            ConversationUsageTracker.UsageMetrics total
     ) {}
 
     public record PromptMetrics(
@@ -94,4 +198,4 @@ public class MetricsService {
             boolean available,
             Map<String, List<McpPrompt>> promptsByServer
     ) {}
-}
\ No newline at end of file
+}
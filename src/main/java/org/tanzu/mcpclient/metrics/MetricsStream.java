@@ -0,0 +1,135 @@
+package org.tanzu.mcpclient.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes metrics to subscribed browsers over SSE. A subscriber first receives a {@code snapshot} event
+ * with the full metrics and then a {@code delta} event for each new snapshot, holding only the top-level
+ * fields that changed. The delta is computed once per snapshot and shared by all subscribers; only the
+ * conversation usage is added per subscriber. Emitters time out after {@code app.metrics.stream-timeout},
+ * after which the browser reconnects and receives a fresh snapshot.
+ */
+@Component
+public class MetricsStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsStream.class);
+
+    private final MetricsService metricsService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public MetricsStream(MetricsService metricsService, ObjectMapper objectMapper,
+                         @Value("${app.metrics.stream-timeout:PT30M}") Duration timeout) {
+        this.metricsService = metricsService;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public SseEmitter subscribe(String conversationId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, conversationId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        MetricsService.Snapshot snapshot = metricsService.snapshot();
+        MetricsService.ConversationMetrics conversation = metricsService.conversationMetrics(conversationId);
+        synchronized (subscriber) {
+            subscribers.add(subscriber);
+            subscriber.version = snapshot.version();
+            subscriber.usage = conversation.usage();
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("snapshot")
+                        .data(metricsService.render(snapshot, conversation), MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                subscribers.remove(subscriber);
+                emitter.completeWithError(e);
+            }
+        }
+        logger.debug("Metrics stream opened, {} subscribers", subscribers.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void handleMetricsUpdatedEvent(MetricsUpdatedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        ObjectNode delta = delta(event.getPrevious(), event.getCurrent());
+        long version = event.getCurrent().version();
+        for (Subscriber subscriber : subscribers) {
+            send(subscriber, version, delta);
+        }
+    }
+
+    private void send(Subscriber subscriber, long version, ObjectNode delta) {
+        synchronized (subscriber) {
+            // Events are published outside the snapshot lock, so an older one can arrive late
+            if (version <= subscriber.version) {
+                return;
+            }
+            MetricsService.UsageSummary usage = metricsService.conversationMetrics(subscriber.conversationId).usage();
+            ObjectNode payload = delta;
+            if (!usage.equals(subscriber.usage)) {
+                payload = delta.deepCopy();
+                payload.set("usage", objectMapper.valueToTree(usage));
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name("delta")
+                        .data(objectMapper.writeValueAsBytes(payload), MediaType.APPLICATION_JSON));
+                subscriber.version = version;
+                subscriber.usage = usage;
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping metrics subscriber: {}", e.getMessage());
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private ObjectNode delta(MetricsService.Snapshot previous, MetricsService.Snapshot current) {
+        ObjectNode delta = objectMapper.createObjectNode();
+        try {
+            JsonNode before = objectMapper.readTree(previous.json());
+            JsonNode after = objectMapper.readTree(current.json());
+            for (Map.Entry<String, JsonNode> field : after.properties()) {
+                if (!field.getValue().equals(before.get(field.getKey()))) {
+                    delta.set(field.getKey(), field.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compute metrics delta", e);
+        }
+        return delta;
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String conversationId;
+        private long version;
+        private MetricsService.UsageSummary usage;
+
+        Subscriber(SseEmitter emitter, String conversationId) {
+            this.emitter = emitter;
+            this.conversationId = conversationId;
+        }
+    }
+}
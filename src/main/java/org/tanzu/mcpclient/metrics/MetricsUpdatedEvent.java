@@ -0,0 +1,25 @@
+package org.tanzu.mcpclient.metrics;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by {@link MetricsService} whenever it replaces the platform metrics snapshot.
+ */
+public class MetricsUpdatedEvent extends ApplicationEvent {
+    private final MetricsService.Snapshot previous;
+    private final MetricsService.Snapshot current;
+
+    public MetricsUpdatedEvent(Object source, MetricsService.Snapshot previous, MetricsService.Snapshot current) {
+        super(source);
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public MetricsService.Snapshot getPrevious() {
+        return previous;
+    }
+
+    public MetricsService.Snapshot getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,62 @@
+package org.tanzu.mcpclient.metrics;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * VectorStore that records each similarity search, which covers embedding the query and the search
+ * itself, as the retrieval stage of a chat turn.
+ */
+class TimedVectorStore implements VectorStore {
+
+    private final VectorStore delegate;
+    private final ChatPipelineMetrics metrics;
+    private final String embeddingModel;
+
+    TimedVectorStore(VectorStore delegate, ChatPipelineMetrics metrics, String embeddingModel) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.embeddingModel = embeddingModel;
+    }
+
+    @Override
+    public List<Document> similaritySearch(@NonNull SearchRequest request) {
+        return metrics.record(ChatPipelineMetrics.RETRIEVAL, () -> {
+            List<Document> documents = delegate.similaritySearch(request);
+            metrics.recordRetrievedChunks(documents != null ? documents.size() : 0);
+            return documents;
+        }, "model", embeddingModel);
+    }
+
+    @Override
+    public void add(@NonNull List<Document> documents) {
+        delegate.add(documents);
+    }
+
+    @Override
+    public void delete(@NonNull List<String> idList) {
+        delegate.delete(idList);
+    }
+
+    @Override
+    public void delete(@NonNull Filter.Expression filterExpression) {
+        delegate.delete(filterExpression);
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public <T> Optional<T> getNativeClient() {
+        return delegate.getNativeClient();
+    }
+}
@@ -0,0 +1,23 @@
+package org.tanzu.mcpclient.metrics;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Span export settings. Spans go to an OTLP collector when {@code management.otlp.tracing.endpoint} is
+ * set, and are written to the application log when {@code app.tracing.log-spans=true}, which is handy
+ * for a per-request latency breakdown without running a collector. A tenth of requests is sampled
+ * unless {@code TRACING_SAMPLING_PROBABILITY} is set; the {@code dev} profile samples all of them.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.log-spans", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,55 @@
+package org.tanzu.mcpclient.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.observation.ChatModelObservationContext;
+import org.springframework.ai.embedding.observation.EmbeddingModelObservationContext;
+import org.springframework.ai.tool.observation.ToolCallingObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the {@link ConversationUsageTracker} from the observations Spring AI makes of chat model,
+ * embedding model and tool calls. The conversation is taken from the enclosing chat observation.
+ */
+@Component
+public class UsageObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private final ConversationUsageTracker usageTracker;
+
+    public UsageObservationHandler(ConversationUsageTracker usageTracker) {
+        this.usageTracker = usageTracker;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ChatModelObservationContext
+                || context instanceof EmbeddingModelObservationContext
+                || context instanceof ToolCallingObservationContext;
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        String conversationId = ConversationUsageTracker.conversationIdOf(context.getParentObservation());
+
+        if (context instanceof ChatModelObservationContext chatContext && chatContext.getResponse() != null) {
+            Usage usage = chatContext.getResponse().getMetadata().getUsage();
+            if (usage != null) {
+                usageTracker.recordChatTokens(conversationId, valueOf(usage.getPromptTokens()),
+                        valueOf(usage.getCompletionTokens()));
+            }
+        } else if (context instanceof EmbeddingModelObservationContext embeddingContext
+                && embeddingContext.getResponse() != null) {
+            Usage usage = embeddingContext.getResponse().getMetadata().getUsage();
+            if (usage != null) {
+                usageTracker.recordEmbeddingTokens(conversationId, valueOf(usage.getTotalTokens()));
+            }
+        } else if (context instanceof ToolCallingObservationContext) {
+            usageTracker.recordToolCall(conversationId);
+        }
+    }
+
+    private static long valueOf(Integer tokens) {
+        return tokens != null ? tokens : 0;
+    }
+}
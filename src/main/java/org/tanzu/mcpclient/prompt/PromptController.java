@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 /**
  * REST controller for prompt-related operations.
@@ -22,29 +23,30 @@ public class PromptController {
     }
 
     /**
-     * Resolve a prompt with the provided arguments.
+     * Resolve a prompt with the provided arguments. The request thread is released while the
+     * prompt is resolved.
      *
      * @param request The prompt resolution request containing promptId and arguments
      * @return The resolved prompt content
      */
     @PostMapping("/resolve")
-    public ResponseEntity<ResolvedPrompt> resolvePrompt(@RequestBody PromptResolutionRequest request) {
+    public Mono<ResponseEntity<ResolvedPrompt>> resolvePrompt(@RequestBody PromptResolutionRequest request) {
         logger.info("Resolving prompt: {} with {} arguments",
                 request.promptId(),
                 request.arguments() != null ? request.arguments().size() : 0);
 
-        try {
-            ResolvedPrompt resolvedPrompt = promptResolutionService.resolvePrompt(request);
-            logger.debug("Successfully resolved prompt: {}", request.promptId());
-            return ResponseEntity.ok(resolvedPrompt);
-
-        } catch (PromptResolutionService.PromptResolutionException e) {
-            logger.error("Failed to resolve prompt {}: {}", request.promptId(), e.getMessage());
-            return ResponseEntity.badRequest().build();
-
-        } catch (Exception e) {
-            logger.error("Unexpected error resolving prompt {}: {}", request.promptId(), e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return promptResolutionService.resolvePromptReactive(request)
+                .map(resolvedPrompt -> {
+                    logger.debug("Successfully resolved prompt: {}", request.promptId());
+                    return ResponseEntity.ok(resolvedPrompt);
+                })
+                .onErrorResume(PromptResolutionService.PromptResolutionException.class, e -> {
+                    logger.error("Failed to resolve prompt {}: {}", request.promptId(), e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                })
+                .onErrorResume(e -> {
+                    logger.error("Unexpected error resolving prompt {}: {}", request.promptId(), e.getMessage(), e);
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package org.tanzu.mcpclient.prompt;
 
+import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.spec.McpError;
 import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
@@ -10,9 +12,18 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.tanzu.mcpclient.chat.ChatConfigurationEvent;
 import org.tanzu.mcpclient.util.McpClientFactory;
+import org.tanzu.mcpclient.util.McpServer;
+import org.tanzu.mcpclient.util.McpServerRegistry;
+import org.tanzu.mcpclient.util.StartupTimeline;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -23,27 +34,40 @@ import java.util.stream.Collectors;
  * <p>The service listens for ChatConfigurationEvent to ensure MCP servers are available
  * before attempting prompt discovery. It handles multi-server environments by namespacing
  * prompts with their server IDs to prevent conflicts.</p>
+ *
+ * <p>Servers are queried in parallel and the results are written to the {@link McpServerRegistry}
+ * in a single snapshot swap, so readers never see a partially built catalog. Servers that advertise
+ * {@code prompts.listChanged} keep a client open, and a {@code notifications/prompts/list_changed}
+ * from one of them refreshes only that server's entry. In async client mode discovery runs on
+ * {@link McpAsyncClient}s and holds no thread per server.</p>
  */
 @Service
 public class PromptDiscoveryService {
 
     private static final Logger logger = LoggerFactory.getLogger(PromptDiscoveryService.class);
 
-    private final List<String> mcpServiceURLs;
+    /**
+     * Upper bound on {@code prompts/list} pages fetched from one server, guarding against a cursor that never ends.
+     */
+    private static final int MAX_PAGES = 100;
+
+    private final McpServerRegistry serverRegistry;
     private final McpClientFactory mcpClientFactory;
-    private final Map<String, String> serverNamesByUrl;
-    private final Map<String, List<McpPrompt>> promptsByServer = new ConcurrentHashMap<>();
-    private final Map<String, McpPrompt> promptsById = new ConcurrentHashMap<>();
     private final ApplicationEventPublisher eventPublisher;
+    private final StartupTimeline startupTimeline;
+    private final Map<String, AutoCloseable> watchClients = new ConcurrentHashMap<>();
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService discoveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Scheduler discoveryScheduler = Schedulers.fromExecutorService(discoveryExecutor);
 
-    public PromptDiscoveryService(List<String> mcpServiceURLs,
+    public PromptDiscoveryService(McpServerRegistry serverRegistry,
                                   McpClientFactory mcpClientFactory,
-                                  Map<String, String> serverNamesByUrl,
-                                  ApplicationEventPublisher eventPublisher) { // Add this parameter
-        this.mcpServiceURLs = mcpServiceURLs;
+                                  ApplicationEventPublisher eventPublisher,
+                                  StartupTimeline startupTimeline) {
+        this.serverRegistry = serverRegistry;
         this.mcpClientFactory = mcpClientFactory;
-        this.serverNamesByUrl = serverNamesByUrl;
-        this.eventPublisher = eventPublisher; // Add this
+        this.eventPublisher = eventPublisher;
+        this.startupTimeline = startupTimeline;
     }
 
     /**
@@ -51,109 +75,146 @@ public class PromptDiscoveryService {
      */
     @EventListener
     public void onChatConfigurationReady(ChatConfigurationEvent event) {
-        if (!mcpServiceURLs.isEmpty()) {
-            logger.info("Starting prompt discovery for {} MCP servers", mcpServiceURLs.size());
-            discoverPrompts();
+        List<McpServer> servers = serverRegistry.healthyServers();
+        if (!servers.isEmpty()) {
+            logger.info("Starting prompt discovery for {} MCP servers", servers.size());
+            startupTimeline.time("mcp.prompts", () -> discoverPrompts(servers));
         } else {
             logger.debug("No MCP service URLs configured, skipping prompt discovery");
         }
     }
 
     /**
-     * Discovers prompts from all configured MCP servers and publishes configuration event.
+     * Discovers prompts from the given MCP servers in parallel, publishes them to the registry
+     * and publishes configuration event.
      */
-    private void discoverPrompts() {
-        promptsByServer.clear();
-        promptsById.clear();
-
-        int serversWithPrompts = 0;
-        int serversWithoutPrompts = 0;
-
-        for (String mcpUrl : mcpServiceURLs) {
-            try {
-                boolean hasPrompts = discoverPromptsFromServer(mcpUrl);
-                if (hasPrompts) {
-                    serversWithPrompts++;
-                } else {
-                    serversWithoutPrompts++;
-                }
-            } catch (Exception e) {
-                logger.warn("Failed to discover prompts from server {}: {}", mcpUrl, e.getMessage());
-                serversWithoutPrompts++;
-            }
-        }
-
+    private void discoverPrompts(List<McpServer> servers) {
+        Map<String, ServerPrompts> discovered = Flux.fromIterable(servers)
+                .flatMap(this::discover)
+                .collectMap(ServerPrompts::serverId)
+                .block();
+
+        McpServerRegistry.Snapshot snapshot = serverRegistry.updateAll(server -> {
+            ServerPrompts serverPrompts = discovered != null ? discovered.get(server.serverId()) : null;
+            return serverPrompts != null ? serverPrompts.applyTo(server) : server;
+        });
+
+        int serversWithPrompts = snapshot.promptsByServer().size();
         logger.info("Prompt discovery completed. Total prompts: {}, Servers with prompts: {}, Servers without prompts: {}",
-                promptsById.size(), serversWithPrompts, serversWithoutPrompts);
+                snapshot.promptsById().size(), serversWithPrompts, servers.size() - serversWithPrompts);
 
         // Publish event after discovery is complete
-        publishPromptConfigurationEvent(serversWithPrompts);
+        publishPromptConfigurationEvent(snapshot);
+    }
+
+    /**
+     * Re-discovers a single server after it reported that its prompt list changed. Notifications
+     * that arrive while a refresh for the same server is queued are coalesced into that refresh.
+     */
+    private void onPromptsListChanged(McpServer server) {
+        if (!pendingRefreshes.add(server.url())) {
+            return;
+        }
+        // Notifications are delivered on the transport thread; blocking MCP calls must not run there
+        Mono.defer(() -> {
+                    pendingRefreshes.remove(server.url());
+                    logger.info("Prompt list changed on MCP server {}, refreshing its prompts", server.url());
+                    return discover(server);
+                })
+                .subscribeOn(discoveryScheduler)
+                .subscribe(serverPrompts -> {
+                    McpServerRegistry.Snapshot updated = serverRegistry.update(server.serverId(), serverPrompts::applyTo);
+                    eventPublisher.publishEvent(new PromptListChangedEvent(this, serverPrompts.serverId()));
+                    publishPromptConfigurationEvent(updated);
+                });
+    }
+
+    /**
+     * Discovers prompts from a single server with the configured client mode.
+     */
+    private Mono<ServerPrompts> discover(McpServer server) {
+        if (mcpClientFactory.isAsync()) {
+            return discoverPromptsReactive(server);
+        }
+        return Mono.fromCallable(() -> discoverPromptsSafely(server)).subscribeOn(discoveryScheduler);
     }
 
     /**
      * Publishes PromptConfigurationEvent with current prompt state.
      */
-    private void publishPromptConfigurationEvent(int serversWithPrompts) {
+    private void publishPromptConfigurationEvent(McpServerRegistry.Snapshot snapshot) {
+        int totalPrompts = snapshot.promptsById().size();
+        int serversWithPrompts = snapshot.promptsByServer().size();
         logger.debug("Publishing PromptConfigurationEvent: totalPrompts={}, serversWithPrompts={}, available={}",
-                promptsById.size(), serversWithPrompts, hasPrompts());
+                totalPrompts, serversWithPrompts, totalPrompts > 0);
 
         eventPublisher.publishEvent(new PromptConfigurationEvent(
                 this,
-                promptsById.size(),
+                totalPrompts,
                 serversWithPrompts,
-                hasPrompts(),
-                getPromptsByServer()
+                totalPrompts > 0,
+                snapshot.promptsByServer()
         ));
     }
 
     /**
-     * Discovers prompts from a single MCP server.
+     * Discovers prompts from a single server, treating any failure as a server without prompts.
+     */
+    private ServerPrompts discoverPromptsSafely(McpServer server) {
+        try {
+            return discoverPromptsFromServer(server);
+        } catch (Exception e) {
+            logger.warn("Failed to discover prompts from server {}: {}", server.url(), e.getMessage());
+            return new ServerPrompts(server.serverId(), null, List.of());
+        }
+    }
+
+    /**
+     * Discovers prompts from a single MCP server, following pagination cursors. If the server
+     * advertises prompt list change notifications, its client is kept open to receive them.
      *
-     * @param mcpUrl The MCP server URL
-     * @return true if the server has prompts, false if it doesn't support prompts
+     * @param server The registered MCP server
+     * @return the server's prompts, empty if it doesn't support prompts
      */
-    private boolean discoverPromptsFromServer(String mcpUrl) {
-        String serverId = generateServerId(mcpUrl);
-        String initialServerName = getServerDisplayName(mcpUrl, serverId);
+    private ServerPrompts discoverPromptsFromServer(McpServer server) {
+        String mcpUrl = server.url();
+        String serverId = server.serverId();
+        String initialServerName = server.getDisplayName();
 
-        try (var mcpClient = createMcpClient(mcpUrl)) {
+        McpSyncClient mcpClient = createMcpClient(server);
+        boolean watching = false;
+        try {
             var initResult = mcpClient.initialize();
 
             // Get the final server name to use (effectively final for lambda expressions)
             final String finalServerName;
             if (initResult != null && initResult.serverInfo() != null && initResult.serverInfo().name() != null) {
                 finalServerName = initResult.serverInfo().name();
-                serverNamesByUrl.put(mcpUrl, finalServerName);
                 logger.debug("Updated server name '{}' for MCP server at {} during prompt discovery", finalServerName, mcpUrl);
             } else {
                 finalServerName = initialServerName;
             }
 
-            var listPromptsResult = mcpClient.listPrompts();
-            if (listPromptsResult != null && listPromptsResult.prompts() != null && !listPromptsResult.prompts().isEmpty()) {
-                List<McpPrompt> serverPrompts = listPromptsResult.prompts().stream()
-                        .map(prompt -> convertToMcpPrompt(serverId, finalServerName, prompt))
-                        .collect(Collectors.toList());
-
-                promptsByServer.put(serverId, serverPrompts);
+            List<McpPrompt> serverPrompts = listAllPrompts(mcpClient).stream()
+                    .map(prompt -> convertToMcpPrompt(serverId, finalServerName, prompt))
+                    .toList();
 
-                // Create unique IDs for global lookup
-                serverPrompts.forEach(prompt -> {
-                    String promptId = serverId + ":" + prompt.name();
-                    promptsById.put(promptId, prompt);
-                });
+            watching = supportsListChanged(initResult);
+            if (watching) {
+                watch(mcpUrl, mcpClient);
+            }
 
+            if (serverPrompts.isEmpty()) {
+                logger.debug("Server '{}' ({}) returned no prompts", finalServerName, mcpUrl);
+            } else {
                 logger.debug("Discovered {} prompts from server '{}' ({})",
                         serverPrompts.size(), finalServerName, mcpUrl);
-                return true;
-            } else {
-                logger.debug("Server '{}' ({}) returned no prompts", finalServerName, mcpUrl);
-                return false;
             }
+            return new ServerPrompts(serverId, finalServerName, serverPrompts);
         } catch (McpError e) {
-            if (e.getMessage() != null && e.getMessage().contains("Method not found: prompts/list")) {
+            if (isPromptsUnsupported(e)) {
                 logger.debug("Server '{}' ({}) does not support prompts (tools-only server)", initialServerName, mcpUrl);
-                return false;
+                return new ServerPrompts(serverId, null, List.of());
             } else {
                 // Re-throw other MCP errors
                 throw e;
@@ -162,39 +223,129 @@ public class PromptDiscoveryService {
             logger.error("Error discovering prompts from server '{}' ({}): {}",
                     initialServerName, mcpUrl, e.getMessage(), e);
             throw e;
+        } finally {
+            if (!watching) {
+                mcpClient.close();
+            }
         }
     }
 
     /**
-     * Gets the display name for a server, preferring the stored server name.
+     * Lists every prompt on the server, following {@code nextCursor} until the last page.
      */
-    private String getServerDisplayName(String mcpUrl, String serverId) {
-        String serverName = serverNamesByUrl.get(mcpUrl);
-        return serverName != null && !serverName.trim().isEmpty() ? serverName : serverId;
+    private List<McpSchema.Prompt> listAllPrompts(McpSyncClient mcpClient) {
+        List<McpSchema.Prompt> prompts = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            McpSchema.ListPromptsResult page = mcpClient.listPrompts(cursor);
+            if (page == null) {
+                break;
+            }
+            if (page.prompts() != null) {
+                prompts.addAll(page.prompts());
+            }
+            cursor = page.nextCursor();
+        } while (cursor != null && !cursor.isEmpty() && ++pages < MAX_PAGES);
+        return prompts;
     }
 
     /**
-     * Creates a temporary MCP client for prompt discovery.
+     * Reactive counterpart of {@link #discoverPromptsSafely(McpServer)} for async client mode.
      */
-    private McpSyncClient createMcpClient(String mcpUrl) {
-        return mcpClientFactory.createMcpSyncClient(mcpUrl);
+    private Mono<ServerPrompts> discoverPromptsReactive(McpServer server) {
+        String serverId = server.serverId();
+        McpAsyncClient mcpClient = mcpClientFactory.createMcpAsyncClient(server.url(), prompts -> {
+            onPromptsListChanged(server);
+            return Mono.empty();
+        });
+
+        return mcpClient.initialize()
+                .flatMap(initResult -> {
+                    String serverName = initResult.serverInfo() != null && initResult.serverInfo().name() != null
+                            ? initResult.serverInfo().name()
+                            : server.getDisplayName();
+
+                    return listAllPrompts(mcpClient).map(prompts -> {
+                        if (supportsListChanged(initResult)) {
+                            watch(server.url(), mcpClient::close);
+                        } else {
+                            mcpClient.closeGracefully().subscribe();
+                        }
+                        logger.debug("Discovered {} prompts from server '{}' ({})", prompts.size(), serverName, server.url());
+                        return new ServerPrompts(serverId, serverName, prompts.stream()
+                                .map(prompt -> convertToMcpPrompt(serverId, serverName, prompt))
+                                .toList());
+                    });
+                })
+                .onErrorResume(e -> {
+                    mcpClient.closeGracefully().subscribe();
+                    if (isPromptsUnsupported(e)) {
+                        logger.debug("Server '{}' ({}) does not support prompts (tools-only server)",
+                                server.getDisplayName(), server.url());
+                    } else {
+                        logger.warn("Failed to discover prompts from server {}: {}", server.url(), e.getMessage());
+                    }
+                    return Mono.just(new ServerPrompts(serverId, null, List.of()));
+                });
     }
 
     /**
-     * Generates a server ID from the MCP URL for namespacing.
+     * Reactive counterpart of {@link #listAllPrompts(McpSyncClient)}.
      */
-    private String generateServerId(String mcpUrl) {
+    private Mono<List<McpSchema.Prompt>> listAllPrompts(McpAsyncClient mcpClient) {
+        return mcpClient.listPrompts(null)
+                .expand(page -> page.nextCursor() != null && !page.nextCursor().isEmpty()
+                        ? mcpClient.listPrompts(page.nextCursor())
+                        : Mono.empty())
+                .take(MAX_PAGES)
+                .flatMapIterable(page -> page.prompts() != null ? page.prompts() : List.of())
+                .collectList();
+    }
+
+    private static boolean isPromptsUnsupported(Throwable e) {
+        return e instanceof McpError && e.getMessage() != null && e.getMessage().contains("Method not found: prompts/list");
+    }
+
+    /**
+     * Keeps a client open to receive list change notifications, closing the one it replaces.
+     */
+    private void watch(String mcpUrl, AutoCloseable mcpClient) {
+        AutoCloseable previous = watchClients.put(mcpUrl, mcpClient);
+        if (previous != null && previous != mcpClient) {
+            closeQuietly(previous);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable mcpClient) {
         try {
-            var uri = java.net.URI.create(mcpUrl);
-            String host = uri.getHost();
-            int port = uri.getPort();
-            return port != -1 ? host + ":" + port : host;
+            mcpClient.close();
         } catch (Exception e) {
-            // Fallback to URL hash if parsing fails
-            return "server-" + Math.abs(mcpUrl.hashCode());
+            logger.debug("Failed to close MCP client: {}", e.getMessage());
         }
     }
 
+    private boolean supportsListChanged(McpSchema.InitializeResult initResult) {
+        return initResult != null
+                && initResult.capabilities() != null
+                && initResult.capabilities().prompts() != null
+                && Boolean.TRUE.equals(initResult.capabilities().prompts().listChanged());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        discoveryExecutor.shutdownNow();
+        watchClients.values().forEach(PromptDiscoveryService::closeQuietly);
+        watchClients.clear();
+    }
+
+    /**
+     * Creates an MCP client for prompt discovery that reports prompt list changes for this server.
+     */
+    private McpSyncClient createMcpClient(McpServer server) {
+        return mcpClientFactory.createMcpSyncClient(server.url(), prompts -> onPromptsListChanged(server));
+    }
+
     /**
      * Converts an MCP schema prompt to our internal McpPrompt representation.
      */
@@ -231,34 +382,45 @@ public class PromptDiscoveryService {
      * Returns prompts grouped by server ID.
      */
     public Map<String, List<McpPrompt>> getPromptsByServer() {
-        return new HashMap<>(promptsByServer);
+        return serverRegistry.snapshot().promptsByServer();
     }
 
     /**
      * Finds a prompt by its unique ID (serverId:promptName).
      */
     public Optional<McpPrompt> findPromptById(String promptId) {
-        return Optional.ofNullable(promptsById.get(promptId));
+        return serverRegistry.findPrompt(promptId);
     }
 
     /**
      * Returns the count of discovered prompts.
      */
     public int getPromptCount() {
-        return promptsById.size();
+        return serverRegistry.snapshot().promptsById().size();
     }
 
     /**
      * Returns the count of servers that have prompts.
      */
     public int getServerCount() {
-        return promptsByServer.size();
+        return serverRegistry.snapshot().promptsByServer().size();
     }
 
     /**
      * Checks if any prompts are available.
      */
     public boolean hasPrompts() {
-        return !promptsById.isEmpty();
+        return !serverRegistry.snapshot().promptsById().isEmpty();
+    }
+
+    /**
+     * Prompts discovered from one server, with the server name it reported (null if unknown).
+     */
+    private record ServerPrompts(String serverId, String serverName, List<McpPrompt> prompts) {
+
+        McpServer applyTo(McpServer server) {
+            McpServer updated = serverName != null ? server.withServerName(serverName) : server;
+            return updated.withPrompts(prompts);
+        }
     }
-}
\ No newline at end of file
+}
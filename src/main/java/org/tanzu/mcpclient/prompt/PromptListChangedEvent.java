@@ -0,0 +1,18 @@
+package org.tanzu.mcpclient.prompt;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published after a single MCP server's prompts were re-discovered because the server
+ * reported that its prompt list changed.
+ */
+public class PromptListChangedEvent extends ApplicationEvent {
+    private final String serverId;
+
+    public PromptListChangedEvent(Object source, String serverId) {
+        super(source);
+        this.serverId = serverId;
+    }
+
+    public String getServerId() { return serverId; }
+}
@@ -1,13 +1,33 @@
 package org.tanzu.mcpclient.prompt;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.tanzu.mcpclient.util.McpClientFactory;
+import org.tanzu.mcpclient.util.McpServer;
+import org.tanzu.mcpclient.util.McpServerRegistry;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -17,6 +37,14 @@ import java.util.stream.Collectors;
  *
  * <p>The service maintains connections to MCP servers as needed and handles
  * prompt resolution requests with proper error handling and validation.</p>
+ *
+ * <p>Resolved prompts are cached by server, prompt name and canonicalized arguments for a bounded
+ * time. Concurrent identical resolutions share a single in-flight call, failed resolutions are not
+ * cached, and a server's entries are evicted when that server reports a prompt list change. Cache
+ * statistics are published to Micrometer as {@code cache.*} metrics tagged {@code cache=resolved-prompts}.</p>
+ *
+ * <p>{@link #resolvePromptReactive(PromptResolutionRequest)} returns without blocking the caller; in
+ * async client mode a cache miss is served by an {@link McpAsyncClient} and holds no thread either.</p>
  */
 @Service
 public class PromptResolutionService {
@@ -24,15 +52,44 @@ public class PromptResolutionService {
     private static final Logger logger = LoggerFactory.getLogger(PromptResolutionService.class);
 
     private final PromptDiscoveryService promptDiscoveryService;
-    private final List<String> mcpServiceURLs;
+    private final McpServerRegistry serverRegistry;
     private final McpClientFactory mcpClientFactory;
+    private final ExecutorService resolutionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncCache<ResolutionKey, ResolvedPrompt> resolvedPrompts;
+    private final ObjectMapper argumentMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
 
     public PromptResolutionService(PromptDiscoveryService promptDiscoveryService,
-                                   List<String> mcpServiceURLs,
-                                   McpClientFactory mcpClientFactory) {
+                                   McpServerRegistry serverRegistry,
+                                   McpClientFactory mcpClientFactory,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.prompts.cache.max-size:1000}") long cacheMaxSize,
+                                   @Value("${app.prompts.cache.ttl:10m}") Duration cacheTtl) {
         this.promptDiscoveryService = promptDiscoveryService;
-        this.mcpServiceURLs = mcpServiceURLs;
+        this.serverRegistry = serverRegistry;
         this.mcpClientFactory = mcpClientFactory;
+        this.resolvedPrompts = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .executor(resolutionExecutor)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, resolvedPrompts.synchronous(), "resolved-prompts");
+    }
+
+    /**
+     * Evicts cached resolutions of a server whose prompt list changed.
+     */
+    @EventListener
+    public void onPromptListChanged(PromptListChangedEvent event) {
+        resolvedPrompts.synchronous().asMap().keySet()
+                .removeIf(key -> key.serverId().equals(event.getServerId()));
+        logger.debug("Evicted cached prompt resolutions for server {}", event.getServerId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resolutionExecutor.shutdownNow();
     }
 
     /**
@@ -41,6 +98,32 @@ public class PromptResolutionService {
      * @throws PromptResolutionException if the prompt cannot be resolved
      */
     public ResolvedPrompt resolvePrompt(PromptResolutionRequest request) {
+        try {
+            return lookup(prepare(request)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PromptResolutionException resolutionException) {
+                throw resolutionException;
+            }
+            throw new PromptResolutionException("Failed to resolve prompt: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Resolves a prompt with the provided arguments without blocking the caller.
+     * Errors are signalled as {@link PromptResolutionException}.
+     */
+    public Mono<ResolvedPrompt> resolvePromptReactive(PromptResolutionRequest request) {
+        return Mono.fromCallable(() -> prepare(request))
+                // Cancelling one subscriber must not cancel a resolution other callers are waiting for
+                .flatMap(resolution -> Mono.fromFuture(() -> lookup(resolution), true))
+                .onErrorMap(e -> !(e instanceof PromptResolutionException),
+                        e -> new PromptResolutionException("Failed to resolve prompt: " + e.getMessage(), e));
+    }
+
+    /**
+     * Validates the request and determines which server resolves it with which arguments.
+     */
+    private Resolution prepare(PromptResolutionRequest request) {
         logger.debug("Resolving prompt: {}", request.promptId());
 
         // Find the prompt definition
@@ -55,19 +138,20 @@ public class PromptResolutionService {
         validateArguments(prompt, request.arguments());
 
         // Find the server URL for this prompt
-        String serverUrl = findServerUrl(prompt.serverId());
-        if (serverUrl == null) {
-            throw new PromptResolutionException("Server not found for prompt: " + prompt.serverId());
-        }
-
-        // Resolve the prompt with the MCP server
-        return resolvePromptWithServer(serverUrl, prompt, request.arguments());
+        String serverUrl = serverRegistry.findById(prompt.serverId())
+                .filter(McpServer::healthy)
+                .map(McpServer::url)
+                .orElseThrow(() -> new PromptResolutionException("Server not found for prompt: " + prompt.serverId()));
+
+        Map<String, Object> finalArgs = withDefaults(prompt, request.arguments());
+        ResolutionKey key = new ResolutionKey(prompt.serverId(), prompt.name(), canonicalize(finalArgs));
+        return new Resolution(key, serverUrl, prompt, finalArgs);
     }
 
     /**
      * Validates that all required arguments are provided and that values are reasonable.
      */
-    private void validateArguments(McpPrompt prompt, Map<String, Object> providedArgs) {
+    static void validateArguments(McpPrompt prompt, Map<String, Object> providedArgs) {
         if (prompt.arguments() == null) {
             return; // No arguments required
         }
@@ -111,47 +195,54 @@ public class PromptResolutionService {
     }
 
     /**
-     * Finds the server URL corresponding to a server ID.
+     * Resolves the prompt through the cache, calling the MCP server only on a miss. Callers that
+     * request the same resolution while it is in flight wait for that call instead of starting another.
      */
-    private String findServerUrl(String serverId) {
-        return mcpServiceURLs.stream()
-                .filter(url -> generateServerId(url).equals(serverId))
-                .findFirst()
-                .orElse(null);
+    private CompletableFuture<ResolvedPrompt> lookup(Resolution resolution) {
+        return resolvedPrompts.get(resolution.key(), (key, executor) -> fetch(resolution, executor));
+    }
+
+    private CompletableFuture<ResolvedPrompt> fetch(Resolution resolution, Executor executor) {
+        if (mcpClientFactory.isAsync()) {
+            return fetchPromptReactive(resolution.serverUrl(), resolution.prompt(), resolution.arguments()).toFuture();
+        }
+        return CompletableFuture.supplyAsync(
+                () -> fetchPrompt(resolution.serverUrl(), resolution.prompt(), resolution.arguments()), executor);
+    }
+
+    /**
+     * Returns the provided arguments with default values added for missing optional arguments.
+     */
+    private Map<String, Object> withDefaults(McpPrompt prompt, Map<String, Object> arguments) {
+        Map<String, Object> args = arguments != null ? arguments : Collections.emptyMap();
+
+        Map<String, Object> finalArgs = new HashMap<>(args);
+        if (prompt.arguments() != null) {
+            prompt.arguments().stream()
+                    .filter(arg -> !arg.required() && arg.hasDefaultValue() && !finalArgs.containsKey(arg.name()))
+                    .forEach(arg -> finalArgs.put(arg.name(), arg.defaultValue()));
+        }
+        return finalArgs;
     }
 
     /**
-     * Generates a server ID from URL (same logic as PromptDiscoveryService).
+     * Serializes arguments with map keys sorted at every level, so equal argument maps produce equal keys.
      */
-    private String generateServerId(String mcpUrl) {
+    private String canonicalize(Map<String, Object> arguments) {
         try {
-            var uri = java.net.URI.create(mcpUrl);
-            String host = uri.getHost();
-            int port = uri.getPort();
-            return port != -1 ? host + ":" + port : host;
-        } catch (Exception e) {
-            return "server-" + Math.abs(mcpUrl.hashCode());
+            return argumentMapper.writeValueAsString(arguments);
+        } catch (JsonProcessingException e) {
+            throw new PromptResolutionException("Invalid prompt arguments: " + e.getOriginalMessage(), e);
         }
     }
 
     /**
      * Resolves the prompt by making a call to the MCP server.
      */
-    private ResolvedPrompt resolvePromptWithServer(String serverUrl, McpPrompt prompt, Map<String, Object> arguments) {
+    private ResolvedPrompt fetchPrompt(String serverUrl, McpPrompt prompt, Map<String, Object> finalArgs) {
         try (McpSyncClient mcpClient = createMcpClient(serverUrl)) {
             mcpClient.initialize();
 
-            // Prepare the get prompt request
-            Map<String, Object> args = arguments != null ? arguments : Collections.emptyMap();
-
-            // Add default values for missing optional arguments
-            Map<String, Object> finalArgs = new HashMap<>(args);
-            if (prompt.arguments() != null) {
-                prompt.arguments().stream()
-                        .filter(arg -> !arg.required() && arg.hasDefaultValue() && !finalArgs.containsKey(arg.name()))
-                        .forEach(arg -> finalArgs.put(arg.name(), arg.defaultValue()));
-            }
-
             McpSchema.GetPromptRequest getPromptRequest = new McpSchema.GetPromptRequest(
                     prompt.name(),
                     finalArgs
@@ -169,6 +260,23 @@ public class PromptResolutionService {
         }
     }
 
+    /**
+     * Resolves the prompt with an async MCP client, closing the client when done.
+     */
+    private Mono<ResolvedPrompt> fetchPromptReactive(String serverUrl, McpPrompt prompt, Map<String, Object> finalArgs) {
+        McpAsyncClient mcpClient = mcpClientFactory.createMcpAsyncClient(serverUrl);
+
+        return mcpClient.initialize()
+                .then(Mono.defer(() -> mcpClient.getPrompt(new McpSchema.GetPromptRequest(prompt.name(), finalArgs))))
+                .map(this::convertToResolvedPrompt)
+                .onErrorMap(e -> {
+                    logger.error("Failed to resolve prompt {} on server {}: {}",
+                            prompt.name(), serverUrl, e.getMessage(), e);
+                    return new PromptResolutionException("Failed to resolve prompt: " + e.getMessage(), e);
+                })
+                .doFinally(signal -> mcpClient.closeGracefully().subscribe());
+    }
+
     /**
      * Creates an MCP client for communication with a server.
      */
@@ -196,10 +304,10 @@ public class PromptResolutionService {
      * If messages are present, concatenates their content.
      * Otherwise, returns description or empty string.
      */
-    private String extractContentFromResult(McpSchema.GetPromptResult result) {
+    static String extractContentFromResult(McpSchema.GetPromptResult result) {
         if (result.messages() != null && !result.messages().isEmpty()) {
             return result.messages().stream()
-                    .map(this::extractContentFromMessage)
+                    .map(PromptResolutionService::extractContentFromMessage)
                     .filter(Objects::nonNull)
                     .collect(Collectors.joining("\n\n"));
         }
@@ -210,7 +318,7 @@ public class PromptResolutionService {
     /**
      * Extracts content from an MCP prompt message.
      */
-    private String extractContentFromMessage(McpSchema.PromptMessage message) {
+    private static String extractContentFromMessage(McpSchema.PromptMessage message) {
         McpSchema.Content content = message.content();
 
         return switch (content) {
@@ -249,6 +357,18 @@ public class PromptResolutionService {
         return new PromptMessage(role, content);
     }
 
+    /**
+     * A validated resolution request: the cache key, the server to call and the final arguments.
+     */
+    private record Resolution(ResolutionKey key, String serverUrl, McpPrompt prompt, Map<String, Object> arguments) {
+    }
+
+    /**
+     * Cache key of a resolved prompt; {@code arguments} is the canonical JSON form of the final arguments.
+     */
+    private record ResolutionKey(String serverId, String promptName, String arguments) {
+    }
+
     /**
      * Exception thrown when prompt resolution fails.
      */
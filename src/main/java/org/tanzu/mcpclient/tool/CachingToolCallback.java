@@ -0,0 +1,49 @@
+package org.tanzu.mcpclient.tool;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.lang.NonNull;
+
+/**
+ * ToolCallback that answers repeated calls of a cacheable MCP tool from the {@link ToolResultCache}.
+ */
+class CachingToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final String serverId;
+    private final String toolName;
+    private final ToolResultCache cache;
+
+    CachingToolCallback(ToolCallback delegate, String serverId, String toolName, ToolResultCache cache) {
+        this.delegate = delegate;
+        this.serverId = serverId;
+        this.toolName = toolName;
+        this.cache = cache;
+    }
+
+    @Override
+    @NonNull
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    @NonNull
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    @NonNull
+    public String call(@NonNull String toolInput) {
+        return cache.call(serverId, toolName, toolInput, delegate::call);
+    }
+
+    @Override
+    @NonNull
+    public String call(@NonNull String toolInput, ToolContext toolContext) {
+        return cache.call(serverId, toolName, toolInput, input -> delegate.call(input, toolContext));
+    }
+}
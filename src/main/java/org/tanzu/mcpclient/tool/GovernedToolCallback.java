@@ -0,0 +1,54 @@
+package org.tanzu.mcpclient.tool;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.lang.NonNull;
+
+/**
+ * ToolCallback that passes every result through the {@link ToolOutputGovernor}.
+ */
+class GovernedToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final String serverId;
+    private final ToolOutputGovernor governor;
+
+    GovernedToolCallback(ToolCallback delegate, String serverId, ToolOutputGovernor governor) {
+        this.delegate = delegate;
+        this.serverId = serverId;
+        this.governor = governor;
+    }
+
+    /**
+     * Returns the ID of the MCP server that provides the tool.
+     */
+    String serverId() {
+        return serverId;
+    }
+
+    @Override
+    @NonNull
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    @NonNull
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    @NonNull
+    public String call(@NonNull String toolInput) {
+        return governor.apply(getToolDefinition().name(), delegate.call(toolInput));
+    }
+
+    @Override
+    @NonNull
+    public String call(@NonNull String toolInput, ToolContext toolContext) {
+        return governor.apply(getToolDefinition().name(), delegate.call(toolInput, toolContext));
+    }
+}
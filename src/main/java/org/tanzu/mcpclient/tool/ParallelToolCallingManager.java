@@ -0,0 +1,229 @@
+package org.tanzu.mcpclient.tool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.observation.DefaultToolCallingObservationConvention;
+import org.springframework.ai.tool.observation.ToolCallingObservationContext;
+import org.springframework.ai.tool.observation.ToolCallingObservationDocumentation;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ToolCallingManager that runs all tool calls of one assistant turn concurrently.
+ *
+ * <p>Each call runs on its own virtual thread, so calls to different MCP servers overlap, and calls
+ * to the same server are sent as independent JSON-RPC requests on that server's session instead of
+ * waiting for each other. Tool responses are returned in the order the model requested them. A call
+ * that exceeds the per-call timeout is cancelled and answered with an error message, so one slow tool
+ * does not fail the whole turn. Each call's latency is recorded in the {@code mcp.tool.calls} timer,
+ * tagged by server, tool and outcome.</p>
+ */
+public class ParallelToolCallingManager implements ToolCallingManager, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelToolCallingManager.class);
+
+    private static final String TOOL_CALL_HISTORY = "TOOL_CALL_HISTORY";
+
+    private final ToolCallingManager definitionResolver;
+    private final ToolCallbackResolver toolCallbackResolver;
+    private final ToolExecutionExceptionProcessor toolExecutionExceptionProcessor;
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration callTimeout;
+
+    public ParallelToolCallingManager(ToolCallbackResolver toolCallbackResolver,
+                                      ToolExecutionExceptionProcessor toolExecutionExceptionProcessor,
+                                      ObservationRegistry observationRegistry,
+                                      MeterRegistry meterRegistry,
+                                      Duration callTimeout) {
+        this.definitionResolver = DefaultToolCallingManager.builder()
+                .observationRegistry(observationRegistry)
+                .toolCallbackResolver(toolCallbackResolver)
+                .toolExecutionExceptionProcessor(toolExecutionExceptionProcessor)
+                .build();
+        this.toolCallbackResolver = toolCallbackResolver;
+        this.toolExecutionExceptionProcessor = toolExecutionExceptionProcessor;
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+        this.callTimeout = callTimeout;
+    }
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return definitionResolver.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        AssistantMessage assistantMessage = chatResponse.getResults().stream()
+                .map(Generation::getOutput)
+                .filter(output -> !CollectionUtils.isEmpty(output.getToolCalls()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No tool call requested by the chat model"));
+
+        List<ToolCallback> toolCallbacks = prompt.getOptions() instanceof ToolCallingChatOptions options
+                ? options.getToolCallbacks()
+                : List.of();
+        ToolContext toolContext = buildToolContext(prompt, assistantMessage);
+
+        List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+        List<ToolCallback> callbacks = new ArrayList<>(toolCalls.size());
+        boolean returnDirect = true;
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            ToolCallback callback = findToolCallback(toolCallbacks, toolCall.name());
+            callbacks.add(callback);
+            returnDirect = returnDirect && callback.getToolMetadata().returnDirect();
+        }
+
+        // Dispatch every call before waiting on any of them. The executor threads do not inherit the
+        // current observation, so it is handed over as the parent of each tool call observation.
+        Observation parent = observationRegistry.getCurrentObservation();
+        List<Future<String>> results = new ArrayList<>(toolCalls.size());
+        for (int i = 0; i < toolCalls.size(); i++) {
+            AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+            ToolCallback callback = callbacks.get(i);
+            results.add(executor.submit(() -> call(callback, toolCall, toolContext, parent)));
+        }
+        logger.debug("Dispatched {} tool calls concurrently", toolCalls.size());
+
+        long deadline = System.nanoTime() + callTimeout.toNanos();
+        List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(toolCalls.size());
+        for (int i = 0; i < toolCalls.size(); i++) {
+            AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+            String result = await(toolCall, results.get(i), deadline);
+            toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(),
+                    result != null ? result : ""));
+        }
+
+        List<Message> conversationHistory = new ArrayList<>(prompt.getInstructions());
+        conversationHistory.add(assistantMessage);
+        conversationHistory.add(new ToolResponseMessage(toolResponses, Map.of()));
+
+        return ToolExecutionResult.builder()
+                .conversationHistory(conversationHistory)
+                .returnDirect(returnDirect)
+                .build();
+    }
+
+    private ToolCallback findToolCallback(List<ToolCallback> toolCallbacks, String toolName) {
+        ToolCallback callback = toolCallbacks.stream()
+                .filter(tool -> toolName.equals(tool.getToolDefinition().name()))
+                .findFirst()
+                .orElseGet(() -> toolCallbackResolver.resolve(toolName));
+        if (callback == null) {
+            throw new IllegalStateException("No ToolCallback found for tool name: " + toolName);
+        }
+        return callback;
+    }
+
+    private String call(ToolCallback callback, AssistantMessage.ToolCall toolCall, ToolContext toolContext,
+                        Observation parent) {
+        ToolCallingObservationContext observationContext = ToolCallingObservationContext.builder()
+                .toolDefinition(callback.getToolDefinition())
+                .toolMetadata(callback.getToolMetadata())
+                .toolCallArguments(toolCall.arguments())
+                .build();
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return ToolCallingObservationDocumentation.TOOL_CALL
+                    .observation(null, new DefaultToolCallingObservationConvention(),
+                            () -> observationContext, observationRegistry)
+                    .parentObservation(parent)
+                    .observe(() -> {
+                        String result;
+                        try {
+                            result = callback.call(toolCall.arguments(), toolContext);
+                        } catch (ToolExecutionException e) {
+                            result = toolExecutionExceptionProcessor.process(e);
+                        }
+                        observationContext.setToolCallResult(result);
+                        return result;
+                    });
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            Timer.builder("mcp.tool.calls")
+                    .description("Latency of MCP tool calls")
+                    .tag("server", callback instanceof GovernedToolCallback governed ? governed.serverId() : "local")
+                    .tag("tool", toolCall.name())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String await(AssistantMessage.ToolCall toolCall, Future<String> result, long deadline) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            logger.warn("Tool call {} timed out after {}", toolCall.name(), callTimeout);
+            return "Tool call " + toolCall.name() + " timed out after " + callTimeout.toSeconds() + " seconds";
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Tool call " + toolCall.name() + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for tool call " + toolCall.name(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static ToolContext buildToolContext(Prompt prompt, AssistantMessage assistantMessage) {
+        if (!(prompt.getOptions() instanceof ToolCallingChatOptions options)
+                || CollectionUtils.isEmpty(options.getToolContext())) {
+            return new ToolContext(Map.of());
+        }
+
+        List<Message> history = new ArrayList<>(prompt.copy().getInstructions());
+        history.add(new AssistantMessage(assistantMessage.getText(), assistantMessage.getMetadata(),
+                assistantMessage.getToolCalls()));
+
+        Map<String, Object> context = new HashMap<>(options.getToolContext());
+        context.put(TOOL_CALL_HISTORY, history);
+        return new ToolContext(context);
+    }
+}
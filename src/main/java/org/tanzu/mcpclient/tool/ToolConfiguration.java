@@ -0,0 +1,35 @@
+package org.tanzu.mcpclient.tool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Tool execution mode. By default Spring AI's manager runs the tool calls of one model turn one after the
+ * other, in the order the model requested them. With {@code app.tools.parallel.enabled=true} they run
+ * concurrently, which is only safe when the bound MCP servers' tools neither depend on each other's
+ * effects nor on being called in order.
+ */
+@Configuration
+public class ToolConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.tools.parallel.enabled", havingValue = "true")
+    public ToolCallingManager parallelToolCallingManager(ToolCallbackResolver toolCallbackResolver,
+                                                         ToolExecutionExceptionProcessor toolExecutionExceptionProcessor,
+                                                         ObjectProvider<ObservationRegistry> observationRegistry,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${app.tools.call-timeout:60s}") Duration callTimeout) {
+        return new ParallelToolCallingManager(toolCallbackResolver, toolExecutionExceptionProcessor,
+                observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP), meterRegistry, callTimeout);
+    }
+}
@@ -0,0 +1,233 @@
+package org.tanzu.mcpclient.tool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps oversized tool results out of the prompt and chat memory.
+ *
+ * <p>Every tool result's UTF-8 size is recorded in the {@code mcp.tool.output.bytes} summary. A result
+ * longer than {@code app.tools.output.max-chars} is written to a spill file under
+ * {@code app.tools.output.spill-dir}, and the model receives only its first page together with a handle.
+ * The {@value #READ_TOOL_OUTPUT} tool pages through the spilled result by handle and offset. Spill files
+ * are deleted after {@code app.tools.output.retention}; truncations are counted in
+ * {@code mcp.tool.output.truncated}.</p>
+ */
+@Component
+public class ToolOutputGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolOutputGovernor.class);
+
+    public static final String READ_TOOL_OUTPUT = "read_tool_output";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxChars;
+    private final Path spillDirectory;
+    private final Duration retention;
+    private final Map<String, SpilledOutput> spilledOutputs = new ConcurrentHashMap<>();
+    private final ToolCallback readToolOutputCallback;
+
+    public ToolOutputGovernor(MeterRegistry meterRegistry,
+                              @Value("${app.tools.output.max-chars:16000}") int maxChars,
+                              @Value("${app.tools.output.spill-dir:${java.io.tmpdir}/mcp-tool-output}") Path spillDirectory,
+                              @Value("${app.tools.output.retention:1h}") Duration retention) {
+        this.meterRegistry = meterRegistry;
+        this.maxChars = maxChars;
+        this.spillDirectory = spillDirectory;
+        this.retention = retention;
+        this.readToolOutputCallback = FunctionToolCallback.builder(READ_TOOL_OUTPUT, this::read)
+                .description("Reads a page of a tool result that was too large to return in full. " +
+                        "Pass the handle from the truncation notice and the offset to continue from.")
+                .inputType(ReadRequest.class)
+                .build();
+    }
+
+    /**
+     * Wraps the server's tool callback so that its results are measured and, when oversized, spilled
+     * and truncated.
+     */
+    public ToolCallback govern(String serverId, ToolCallback callback) {
+        return new GovernedToolCallback(callback, serverId, this);
+    }
+
+    /**
+     * Returns the tool the model uses to page through spilled results.
+     */
+    public ToolCallback readToolOutputCallback() {
+        return readToolOutputCallback;
+    }
+
+    String apply(String toolName, String output) {
+        if (output == null) {
+            return null;
+        }
+        DistributionSummary.builder("mcp.tool.output.bytes")
+                .description("UTF-8 size of tool results")
+                .baseUnit("bytes")
+                .tag("tool", toolName)
+                .register(meterRegistry)
+                .record(utf8Length(output));
+
+        if (output.length() <= maxChars) {
+            return output;
+        }
+
+        Counter.builder("mcp.tool.output.truncated")
+                .description("Tool results truncated because they exceeded the inline limit")
+                .tag("tool", toolName)
+                .register(meterRegistry)
+                .increment();
+
+        String firstPage = page(output, 0);
+        try {
+            String handle = spill(toolName, output);
+            return firstPage + "\n\n[Output truncated: showing characters 0-" + firstPage.length() + " of " +
+                    output.length() + ". Call " + READ_TOOL_OUTPUT + " with handle \"" + handle + "\" and offset " +
+                    firstPage.length() + " to read the next page.]";
+        } catch (IOException e) {
+            logger.warn("Failed to spill output of tool {}: {}", toolName, e.getMessage());
+            return firstPage + "\n\n[Output truncated: showing characters 0-" + firstPage.length() + " of " +
+                    output.length() + ". The rest is not available.]";
+        }
+    }
+
+    ReadResult read(ReadRequest request) {
+        SpilledOutput spilled = request.handle() != null ? spilledOutputs.get(request.handle()) : null;
+        if (spilled == null) {
+            return new ReadResult(request.handle(), 0, 0, null, "",
+                    "Unknown or expired handle; call the original tool again.");
+        }
+
+        int offset = Math.max(0, Math.min(request.offset() != null ? request.offset() : 0, spilled.totalChars()));
+        try (Reader reader = Files.newBufferedReader(spilled.path(), StandardCharsets.UTF_8)) {
+            long skipped = reader.skip(offset);
+            char[] buffer = new char[Math.min(maxChars, spilled.totalChars() - offset)];
+            int read = 0;
+            while (read < buffer.length) {
+                int n = reader.read(buffer, read, buffer.length - read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+            int end = (int) skipped + read;
+            Integer nextOffset = end < spilled.totalChars() ? end : null;
+            return new ReadResult(request.handle(), offset, spilled.totalChars(), nextOffset,
+                    new String(buffer, 0, read), null);
+        } catch (IOException e) {
+            logger.warn("Failed to read spilled output {}: {}", request.handle(), e.getMessage());
+            return new ReadResult(request.handle(), offset, spilled.totalChars(), null, "",
+                    "The stored output could not be read.");
+        }
+    }
+
+    private String spill(String toolName, String output) throws IOException {
+        Files.createDirectories(spillDirectory);
+        String handle = UUID.randomUUID().toString();
+        Path path = spillDirectory.resolve(handle + ".txt");
+        Files.writeString(path, output, StandardCharsets.UTF_8);
+        spilledOutputs.put(handle, new SpilledOutput(path, output.length(), Instant.now()));
+        logger.debug("Spilled {} characters of {} output to {}", output.length(), toolName, path);
+        return handle;
+    }
+
+    /**
+     * Returns up to one page of the output from the offset, ending at a line break when one is near.
+     */
+    private String page(String output, int offset) {
+        int end = Math.min(output.length(), offset + maxChars);
+        if (end < output.length()) {
+            int lineBreak = output.lastIndexOf('\n', end);
+            if (lineBreak > offset + maxChars / 2) {
+                end = lineBreak;
+            }
+        }
+        return output.substring(offset, end);
+    }
+
+    /**
+     * Deletes spill files older than the retention period.
+     */
+    @Scheduled(cron = "${app.tools.output.cleanup-cron:0 */10 * * * *}")
+    public void deleteExpiredOutputs() {
+        Instant cutoff = Instant.now().minus(retention);
+        spilledOutputs.entrySet().removeIf(entry -> {
+            if (entry.getValue().createdAt().isAfter(cutoff)) {
+                return false;
+            }
+            deleteQuietly(entry.getValue().path());
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        spilledOutputs.values().forEach(spilled -> deleteQuietly(spilled.path()));
+        spilledOutputs.clear();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Failed to delete spill file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static long utf8Length(String value) {
+        long bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private record SpilledOutput(Path path, int totalChars, Instant createdAt) {
+    }
+
+    /**
+     * Arguments of the {@value #READ_TOOL_OUTPUT} tool.
+     */
+    record ReadRequest(
+            @ToolParam(description = "Handle from the truncation notice") String handle,
+            @ToolParam(description = "Character offset to start reading from", required = false) Integer offset
+    ) {
+    }
+
+    /**
+     * Result of the {@value #READ_TOOL_OUTPUT} tool; {@code nextOffset} is null on the last page.
+     */
+    record ReadResult(String handle, int offset, int totalChars, Integer nextOffset, String content, String error) {
+    }
+}
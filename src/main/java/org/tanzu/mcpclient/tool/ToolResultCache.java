@@ -0,0 +1,150 @@
+package org.tanzu.mcpclient.tool;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.util.GenAIService;
+import org.tanzu.mcpclient.util.McpServer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in cache of MCP tool results for tools that are safe to answer from a previous call.
+ *
+ * <p>Nothing is cached unless a tool is named in {@code app.tools.cache.tools} (entries are
+ * {@code tool}, {@code serverId/tool} or {@code serverId/*}) or in the {@code mcpCacheableTools}
+ * credential of its server's binding (tool names or {@code *}). Only read-only or idempotent tools
+ * should be listed. Results are keyed by server, tool name and canonical JSON arguments, so the same
+ * lookup is served from the cache within and across conversations until the TTL expires. Failed calls
+ * and results above {@code app.tools.cache.max-result-chars} are not cached.</p>
+ *
+ * <p>Cache statistics are published as the {@code tool-results} cache meters, and per-tool hits and
+ * misses as the {@code mcp.tool.cache.requests} counter.</p>
+ */
+@Component
+public class ToolResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolResultCache.class);
+
+    private static final String ANY_TOOL = "*";
+
+    private final Cache<ResultKey, String> results;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> cacheableTools;
+    private final Map<String, Set<String>> cacheableToolsByUrl;
+    private final int maxResultChars;
+    private final ObjectMapper argumentMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    public ToolResultCache(GenAIService genAIService, MeterRegistry meterRegistry,
+                           @Value("${app.tools.cache.tools:}") List<String> cacheableTools,
+                           @Value("${app.tools.cache.max-size:1000}") long cacheMaxSize,
+                           @Value("${app.tools.cache.ttl:5m}") Duration cacheTtl,
+                           @Value("${app.tools.cache.max-result-chars:262144}") int maxResultChars) {
+        this.meterRegistry = meterRegistry;
+        this.cacheableTools = cacheableTools.stream()
+                .map(String::trim)
+                .filter(tool -> !tool.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.cacheableToolsByUrl = genAIService.getMcpCacheableTools().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> parseToolList(entry.getValue())));
+        this.maxResultChars = maxResultChars;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "tool-results");
+    }
+
+    /**
+     * Wraps the callback of one of the server's tools with the cache if that tool is configured as
+     * cacheable, otherwise returns the callback unchanged.
+     */
+    public ToolCallback decorate(McpServer server, McpSchema.Tool tool, ToolCallback callback) {
+        if (!isCacheable(server, tool.name())) {
+            return callback;
+        }
+        logger.debug("Caching results of tool {} on {}", tool.name(), server.serverId());
+        return new CachingToolCallback(callback, server.serverId(), tool.name(), this);
+    }
+
+    private boolean isCacheable(McpServer server, String toolName) {
+        if (cacheableTools.contains(toolName)
+                || cacheableTools.contains(server.serverId() + "/" + toolName)
+                || cacheableTools.contains(server.serverId() + "/" + ANY_TOOL)) {
+            return true;
+        }
+        Set<String> bindingTools = cacheableToolsByUrl.getOrDefault(server.url(), Set.of());
+        return bindingTools.contains(toolName) || bindingTools.contains(ANY_TOOL);
+    }
+
+    /**
+     * Returns the cached result for the call, or invokes the tool and caches its result.
+     */
+    String call(String serverId, String toolName, String input, UnaryOperator<String> invoker) {
+        ResultKey key = new ResultKey(serverId, toolName, canonicalize(input));
+        String cached = results.getIfPresent(key);
+        if (cached != null) {
+            requestCounter(toolName, "hit").increment();
+            return cached;
+        }
+
+        requestCounter(toolName, "miss").increment();
+        String result = invoker.apply(input);
+        if (result != null && result.length() <= maxResultChars) {
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Re-serializes the arguments with object keys sorted at every level, so argument objects that
+     * differ only in key order or whitespace share an entry. Unparseable input is used as-is.
+     */
+    private String canonicalize(String input) {
+        if (input == null || input.isBlank()) {
+            return "{}";
+        }
+        try {
+            return argumentMapper.writeValueAsString(argumentMapper.readValue(input, Object.class));
+        } catch (JsonProcessingException e) {
+            return input;
+        }
+    }
+
+    private Counter requestCounter(String toolName, String result) {
+        return Counter.builder("mcp.tool.cache.requests")
+                .description("Tool calls looked up in the tool result cache")
+                .tag("tool", toolName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Set<String> parseToolList(String tools) {
+        return Arrays.stream(tools.split(","))
+                .map(String::trim)
+                .filter(tool -> !tool.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private record ResultKey(String serverId, String toolName, String arguments) {
+    }
+}
@@ -8,7 +8,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -21,16 +23,17 @@ public class GenAIService {
 
     // Constants
     public static final String MCP_SERVICE_URL = "mcpServiceURL";
+    public static final String MCP_TRANSPORT = "mcpTransport";
+    public static final String MCP_CACHEABLE_TOOLS = "mcpCacheableTools";
 
     public static final String CHAT_MODEL = "spring.ai.openai.chat.options.model";
     public static final String EMBEDDING_MODEL = "spring.ai.openai.embedding.options.model";
 
     private final Environment environment;
-    private final CfEnv cfEnv;
+    private volatile List<CfService> mcpServices;
 
     public GenAIService(Environment environment) {
         this.environment = environment;
-        this.cfEnv = new CfEnv();
     }
 
     public boolean isEmbeddingModelAvailable() {
@@ -47,8 +50,7 @@ public class GenAIService {
 
     public List<String> getMcpServiceNames() {
         try {
-            return cfEnv.findAllServices().stream()
-                    .filter(this::hasMcpServiceUrl)
+            return mcpServices().stream()
                     .map(CfService::getName)
                     .collect(Collectors.toList());
         } catch (Exception e) {
@@ -59,8 +61,7 @@ public class GenAIService {
 
     public List<String> getMcpServiceUrls() {
         try {
-            return cfEnv.findAllServices().stream()
-                    .filter(this::hasMcpServiceUrl)
+            return mcpServices().stream()
                     .map(service -> service.getCredentials().getString(MCP_SERVICE_URL))
                     .collect(Collectors.toList());
         } catch (Exception e) {
@@ -69,6 +70,51 @@ public class GenAIService {
         }
     }
 
+    /**
+     * Returns the transport requested by each MCP binding's optional {@code mcpTransport} credential,
+     * keyed by the binding's MCP service URL. Bindings without the credential are not included.
+     */
+    public Map<String, String> getMcpServiceTransports() {
+        return getMcpServiceCredentials(MCP_TRANSPORT);
+    }
+
+    /**
+     * Returns each MCP binding's {@code mcpCacheableTools} credential, a comma-separated list of tool
+     * names (or {@code *}) whose results may be cached, keyed by the binding's MCP service URL.
+     */
+    public Map<String, String> getMcpCacheableTools() {
+        return getMcpServiceCredentials(MCP_CACHEABLE_TOOLS);
+    }
+
+    private Map<String, String> getMcpServiceCredentials(String key) {
+        try {
+            Map<String, String> values = new HashMap<>();
+            mcpServices().stream()
+                    .filter(service -> service.getCredentials().getString(key) != null)
+                    .forEach(service -> values.put(service.getCredentials().getString(MCP_SERVICE_URL),
+                            service.getCredentials().getString(key)));
+            return values;
+        } catch (Exception e) {
+            logger.warn("Error getting MCP service credential {}: {}", key, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Returns the bindings that carry an MCP service URL. VCAP_SERVICES does not change while the
+     * application runs, so it is parsed once, on first use, rather than on every lookup.
+     */
+    private List<CfService> mcpServices() {
+        List<CfService> services = mcpServices;
+        if (services == null) {
+            services = new CfEnv().findAllServices().stream()
+                    .filter(this::hasMcpServiceUrl)
+                    .toList();
+            mcpServices = services;
+        }
+        return services;
+    }
+
     public boolean hasMcpServiceUrl(CfService service) {
         CfCredentials credentials = service.getCredentials();
         return credentials != null && credentials.getString(MCP_SERVICE_URL) != null;
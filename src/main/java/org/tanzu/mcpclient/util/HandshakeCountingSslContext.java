@@ -0,0 +1,83 @@
+package org.tanzu.mcpclient.util;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.security.KeyManagementException;
+import java.security.SecureRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * SSLContext that delegates to another context and reports every client {@link SSLEngine} it creates.
+ * The JDK HttpClient creates one engine per TLS connection, so the callback fires once per handshake.
+ */
+class HandshakeCountingSslContext extends SSLContext {
+
+    HandshakeCountingSslContext(SSLContext delegate, BiConsumer<String, Integer> onHandshake) {
+        super(new Spi(delegate, onHandshake), delegate.getProvider(), delegate.getProtocol());
+    }
+
+    private static final class Spi extends SSLContextSpi {
+
+        private final SSLContext delegate;
+        private final BiConsumer<String, Integer> onHandshake;
+
+        private Spi(SSLContext delegate, BiConsumer<String, Integer> onHandshake) {
+            this.delegate = delegate;
+            this.onHandshake = onHandshake;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr) throws KeyManagementException {
+            delegate.init(km, tm, sr);
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            onHandshake.accept(null, -1);
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            onHandshake.accept(host, port);
+            return delegate.createSSLEngine(host, port);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+}
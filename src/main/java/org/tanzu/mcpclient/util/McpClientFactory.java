@@ -1,19 +1,64 @@
 package org.tanzu.mcpclient.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpClient;
 import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 import javax.net.ssl.SSLContext;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
 import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Utility factory for creating MCP clients with consistent configuration.
  * This factory centralizes the MCP client creation logic to ensure
  * all parts of the application use the same client configuration.
+ *
+ * <p>{@code app.mcp.client-mode} selects whether the rest of the application talks to MCP servers
+ * through blocking {@link McpSyncClient}s ({@code sync}, the default) or through reactive
+ * {@link McpAsyncClient}s ({@code async}) that hold no thread while a request is in flight.</p>
+ *
+ * <p>Transports share one {@link HttpClient} per destination (scheme, host, port and connect timeout),
+ * so connections are pooled and reused across clients instead of being opened per chat. HTTPS
+ * destinations negotiate HTTP/2 through ALPN, letting the SSE stream and all requests of a server
+ * multiplex over one connection; plain HTTP stays on HTTP/1.1 to avoid h2c upgrade attempts. All
+ * HttpClients share a bounded executor and all transports share one ObjectMapper. The
+ * {@code mcp.http.clients}, {@code mcp.http.tls.handshakes} and {@code mcp.clients.created} meters
+ * show how well connections are being reused. Requests sent through the shared clients are observed,
+ * which propagates the caller's trace context to the MCP server.</p>
+ *
+ * <p>The wire transport is chosen per server. {@code streamable} uses MCP Streamable HTTP, {@code sse}
+ * the legacy HTTP+SSE transport, and {@code auto} tries Streamable HTTP first and falls back to SSE if
+ * the server rejects it, remembering the outcome so later clients to that server skip the probe. A
+ * binding selects its transport with an {@code mcpTransport} credential; {@code app.mcp.transport}
+ * is the default for bindings that do not. A service URL without a path is given
+ * {@code app.mcp.streamable-path} for Streamable HTTP.</p>
  */
 @Component
 public class McpClientFactory {
@@ -22,10 +67,67 @@ public class McpClientFactory {
     private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
     private static final Duration HEALTH_CHECK_TIMEOUT = Duration.ofSeconds(10);
 
+    private static final Logger logger = LoggerFactory.getLogger(McpClientFactory.class);
+
+    public enum Mode { SYNC, ASYNC }
+
+    public enum Transport { AUTO, STREAMABLE, SSE }
+
     private final SSLContext sslContext;
+    private final Mode mode;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final ExecutorService httpExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, HttpClient> httpClients = new ConcurrentHashMap<>();
+    private final Transport defaultTransport;
+    private final String streamablePath;
+    private final Map<String, Transport> transportsByUrl = new ConcurrentHashMap<>();
+    private final Counter syncClientsCreated;
+    private final Counter asyncClientsCreated;
+
+    public McpClientFactory(SSLContext sslContext,
+                            @Value("${app.mcp.client-mode:sync}") Mode mode,
+                            @Value("${app.mcp.http.executor-threads:16}") int executorThreads,
+                            @Value("${app.mcp.transport:auto}") Transport defaultTransport,
+                            @Value("${app.mcp.streamable-path:/mcp}") String streamablePath,
+                            GenAIService genAIService,
+                            MeterRegistry meterRegistry,
+                            ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.defaultTransport = defaultTransport;
+        this.streamablePath = streamablePath;
+        genAIService.getMcpServiceTransports().forEach((url, transport) -> {
+            try {
+                transportsByUrl.put(url, Transport.valueOf(transport.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring unknown mcpTransport '{}' for {}", transport, url);
+            }
+        });
+        this.sslContext = new HandshakeCountingSslContext(sslContext, this::recordHandshake);
+        this.mode = mode;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
+        this.httpExecutor = Executors.newFixedThreadPool(executorThreads,
+                Thread.ofPlatform().name("mcp-http-", 0).daemon().factory());
+        this.syncClientsCreated = clientsCreatedCounter("sync");
+        this.asyncClientsCreated = clientsCreatedCounter("async");
+        Gauge.builder("mcp.http.clients", httpClients, Map::size)
+                .description("Shared HttpClients (connection pools) held for MCP destinations")
+                .register(meterRegistry);
+    }
 
-    public McpClientFactory(SSLContext sslContext) {
-        this.sslContext = sslContext;
+    @PreDestroy
+    public void shutdown() {
+        httpClients.values().forEach(HttpClient::shutdownNow);
+        httpClients.clear();
+        httpExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns true if callers should use the async clients created by this factory.
+     */
+    public boolean isAsync() {
+        return mode == Mode.ASYNC;
     }
 
     /**
@@ -35,6 +137,18 @@ public class McpClientFactory {
         return createMcpSyncClient(serverUrl, DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
     }
 
+    /**
+     * Creates a new MCP synchronous client that reports {@code notifications/prompts/list_changed}
+     * to the given consumer. The client must stay open for notifications to arrive.
+     */
+    public McpSyncClient createMcpSyncClient(String serverUrl, Consumer<List<McpSchema.Prompt>> promptsChangeConsumer) {
+        syncClientsCreated.increment();
+        return McpClient.sync(createTransport(serverUrl, DEFAULT_CONNECT_TIMEOUT))
+                .requestTimeout(DEFAULT_REQUEST_TIMEOUT)
+                .promptsChangeConsumer(promptsChangeConsumer)
+                .build();
+    }
+
     /**
      * Creates a new MCP synchronous client optimized for health checks (shorter timeouts).
      */
@@ -43,24 +157,191 @@ public class McpClientFactory {
     }
 
     /**
-     * Creates a new MCP synchronous client with custom timeout configuration.
+     * Creates a new MCP asynchronous client for the specified server URL with default timeouts.
      */
-    public McpSyncClient createMcpSyncClient(String serverUrl, Duration connectTimeout, Duration requestTimeout) {
-        HttpClient.Builder clientBuilder = createHttpClientBuilder(connectTimeout);
+    public McpAsyncClient createMcpAsyncClient(String serverUrl) {
+        return createMcpAsyncClient(serverUrl, DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
+    }
 
-        HttpClientSseClientTransport transport = HttpClientSseClientTransport.builder(serverUrl)
-                .clientBuilder(clientBuilder)
-                .objectMapper(new ObjectMapper())
+    /**
+     * Creates a new MCP asynchronous client that reports {@code notifications/prompts/list_changed}
+     * to the given consumer. The client must stay open for notifications to arrive.
+     */
+    public McpAsyncClient createMcpAsyncClient(String serverUrl,
+                                               Function<List<McpSchema.Prompt>, Mono<Void>> promptsChangeConsumer) {
+        asyncClientsCreated.increment();
+        return McpClient.async(createTransport(serverUrl, DEFAULT_CONNECT_TIMEOUT))
+                .requestTimeout(DEFAULT_REQUEST_TIMEOUT)
+                .promptsChangeConsumer(promptsChangeConsumer)
                 .build();
+    }
 
-        return McpClient.sync(transport)
+    /**
+     * Creates a new MCP asynchronous client optimized for health checks (shorter timeouts).
+     */
+    public McpAsyncClient createAsyncHealthCheckClient(String serverUrl) {
+        return createMcpAsyncClient(serverUrl, HEALTH_CHECK_TIMEOUT, HEALTH_CHECK_TIMEOUT);
+    }
+
+    /**
+     * Creates a new MCP asynchronous client with custom timeout configuration.
+     */
+    public McpAsyncClient createMcpAsyncClient(String serverUrl, Duration connectTimeout, Duration requestTimeout) {
+        asyncClientsCreated.increment();
+        return McpClient.async(createTransport(serverUrl, connectTimeout))
+                .requestTimeout(requestTimeout)
+                .build();
+    }
+
+    /**
+     * Creates a new MCP synchronous client with custom timeout configuration.
+     */
+    public McpSyncClient createMcpSyncClient(String serverUrl, Duration connectTimeout, Duration requestTimeout) {
+        syncClientsCreated.increment();
+        return McpClient.sync(createTransport(serverUrl, connectTimeout))
                 .requestTimeout(requestTimeout)
                 .build();
     }
 
+    private McpClientTransport createTransport(String serverUrl, Duration connectTimeout) {
+        Transport transport = transportsByUrl.getOrDefault(serverUrl, defaultTransport);
+        if (transport == Transport.SSE) {
+            return createSseTransport(serverUrl, connectTimeout);
+        }
+
+        HttpClient httpClient = sharedHttpClient(serverUrl, connectTimeout);
+        URI endpoint = streamableEndpoint(serverUrl);
+        if (transport == Transport.STREAMABLE) {
+            return new StreamableHttpClientTransport(httpClient, endpoint, objectMapper, null, streamable -> {});
+        }
+        return new StreamableHttpClientTransport(httpClient, endpoint, objectMapper,
+                () -> createSseTransport(serverUrl, connectTimeout),
+                streamable -> {
+                    Transport negotiated = streamable ? Transport.STREAMABLE : Transport.SSE;
+                    Transport previous = transportsByUrl.put(serverUrl, negotiated);
+                    if (previous != negotiated) {
+                        logger.info("Negotiated {} transport for MCP server {}", negotiated, serverUrl);
+                    }
+                });
+    }
+
+    private HttpClientSseClientTransport createSseTransport(String serverUrl, Duration connectTimeout) {
+        return HttpClientSseClientTransport.builder(serverUrl)
+                .clientBuilder(new SharedHttpClientBuilder(sharedHttpClient(serverUrl, connectTimeout)))
+                .objectMapper(objectMapper)
+                .build();
+    }
+
+    /**
+     * Returns the Streamable HTTP endpoint: the service URL itself when it has a path, otherwise the
+     * conventional endpoint path on its host.
+     */
+    private URI streamableEndpoint(String serverUrl) {
+        URI uri = URI.create(serverUrl);
+        String path = uri.getPath();
+        return path == null || path.isEmpty() || "/".equals(path) ? uri.resolve(streamablePath) : uri;
+    }
+
+    /**
+     * Returns the HttpClient shared by all transports to the server's destination, creating it on first use.
+     */
+    private HttpClient sharedHttpClient(String serverUrl, Duration connectTimeout) {
+        URI uri = URI.create(serverUrl);
+        boolean https = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (https ? 443 : 80);
+        String destination = uri.getScheme() + "://" + uri.getHost() + ":" + port + "/" + connectTimeout.toMillis();
+
+        return httpClients.computeIfAbsent(destination, key -> {
+            logger.debug("Creating shared HttpClient for {}", key);
+            HttpClient httpClient = createHttpClientBuilder(connectTimeout)
+                    .version(https ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                    .executor(httpExecutor)
+                    .build();
+            return new ObservedHttpClient(httpClient, observationRegistry);
+        });
+    }
+
+    private void recordHandshake(String host, int port) {
+        Counter.builder("mcp.http.tls.handshakes")
+                .description("TLS connections opened to MCP servers")
+                .tag("destination", host != null ? host + ":" + port : "unknown")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Counter clientsCreatedCounter(String mode) {
+        return Counter.builder("mcp.clients.created")
+                .description("MCP clients created")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
     private HttpClient.Builder createHttpClientBuilder(Duration connectTimeout) {
         return HttpClient.newBuilder()
                 .sslContext(sslContext)
                 .connectTimeout(connectTimeout);
     }
-}
\ No newline at end of file
+
+    /**
+     * HttpClient.Builder handed to the MCP transport so that its {@code build()} returns the shared
+     * client instead of creating a new one. The transport only calls {@code connectTimeout} and
+     * {@code build}; other settings belong on the shared client and are ignored here.
+     */
+    private record SharedHttpClientBuilder(HttpClient httpClient) implements HttpClient.Builder {
+
+        @Override
+        public HttpClient.Builder cookieHandler(CookieHandler cookieHandler) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder connectTimeout(Duration duration) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder sslContext(SSLContext sslContext) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder sslParameters(javax.net.ssl.SSLParameters sslParameters) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder executor(Executor executor) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder followRedirects(HttpClient.Redirect policy) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder version(HttpClient.Version version) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder priority(int priority) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder proxy(ProxySelector proxySelector) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder authenticator(Authenticator authenticator) {
+            return this;
+        }
+
+        @Override
+        public HttpClient build() {
+            return httpClient;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.tanzu.mcpclient.util;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.tanzu.mcpclient.prompt.McpPrompt;
+
+import java.util.List;
+
+/**
+ * Everything the application knows about one bound MCP server.
+ *
+ * @param serverId The ID used to namespace the server's prompts (host[:port] of its URL)
+ * @param serviceName The name of the service binding
+ * @param url The MCP server URL
+ * @param serverName The server name reported in serverInfo, or the service name if none was reported
+ * @param healthy Whether the server could be initialized during the last health check
+ * @param capabilities The capabilities the server advertised, null if it was never initialized
+ * @param tools The tools the server exposed during the last health check
+ * @param prompts The prompts discovered from the server
+ */
+public record McpServer(
+        String serverId,
+        String serviceName,
+        String url,
+        String serverName,
+        boolean healthy,
+        McpSchema.ServerCapabilities capabilities,
+        List<McpSchema.Tool> tools,
+        List<McpPrompt> prompts
+) {
+
+    public McpServer {
+        tools = tools != null ? List.copyOf(tools) : List.of();
+        prompts = prompts != null ? List.copyOf(prompts) : List.of();
+    }
+
+    /**
+     * Returns the display name for the server (serverName if available, otherwise serviceName).
+     */
+    public String getDisplayName() {
+        return serverName != null && !serverName.trim().isEmpty() ? serverName : serviceName;
+    }
+
+    public McpServer withServerName(String serverName) {
+        return new McpServer(serverId, serviceName, url, serverName, healthy, capabilities, tools, prompts);
+    }
+
+    public McpServer withPrompts(List<McpPrompt> prompts) {
+        return new McpServer(serverId, serviceName, url, serverName, healthy, capabilities, tools, prompts);
+    }
+}
@@ -0,0 +1,135 @@
+package org.tanzu.mcpclient.util;
+
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.prompt.McpPrompt;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single source of truth for the bound MCP servers, their health, tools and prompts.
+ *
+ * <p>The registry holds an immutable {@link Snapshot} indexed by server ID, by URL and by prompt ID.
+ * Writers build a new snapshot and swap it in atomically; readers take the current snapshot without
+ * locking, so chat, prompt and metrics code always see one consistent view.</p>
+ */
+@Component
+public class McpServerRegistry {
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.of(List.of()));
+
+    /**
+     * Generates the server ID used to namespace prompts from an MCP URL.
+     */
+    public static String serverIdFor(String mcpUrl) {
+        try {
+            var uri = URI.create(mcpUrl);
+            String host = uri.getHost();
+            int port = uri.getPort();
+            return port != -1 ? host + ":" + port : host;
+        } catch (Exception e) {
+            // Fallback to URL hash if parsing fails
+            return "server-" + Math.abs(mcpUrl.hashCode());
+        }
+    }
+
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Returns all bound servers in binding order.
+     */
+    public List<McpServer> servers() {
+        return snapshot.get().servers();
+    }
+
+    /**
+     * Returns the servers that passed the last health check, in binding order.
+     */
+    public List<McpServer> healthyServers() {
+        return snapshot.get().healthyServers();
+    }
+
+    public Optional<McpServer> findById(String serverId) {
+        return Optional.ofNullable(snapshot.get().serversById().get(serverId));
+    }
+
+    public Optional<McpServer> findByUrl(String url) {
+        return Optional.ofNullable(snapshot.get().serversByUrl().get(url));
+    }
+
+    /**
+     * Finds a prompt by its unique ID (serverId:promptName).
+     */
+    public Optional<McpPrompt> findPrompt(String promptId) {
+        return Optional.ofNullable(snapshot.get().promptsById().get(promptId));
+    }
+
+    /**
+     * Replaces the set of bound servers.
+     */
+    public void replaceAll(List<McpServer> servers) {
+        snapshot.set(Snapshot.of(servers));
+    }
+
+    /**
+     * Applies a change to every server in a single swap.
+     */
+    public Snapshot updateAll(UnaryOperator<McpServer> change) {
+        return snapshot.updateAndGet(current -> Snapshot.of(current.servers().stream().map(change).toList()));
+    }
+
+    /**
+     * Applies a change to one server, leaving the others untouched. Unknown IDs are ignored.
+     */
+    public Snapshot update(String serverId, UnaryOperator<McpServer> change) {
+        return updateAll(server -> server.serverId().equals(serverId) ? change.apply(server) : server);
+    }
+
+    /**
+     * Immutable view of the registry.
+     */
+    public record Snapshot(
+            List<McpServer> servers,
+            List<McpServer> healthyServers,
+            Map<String, McpServer> serversById,
+            Map<String, McpServer> serversByUrl,
+            Map<String, McpPrompt> promptsById
+    ) {
+
+        static Snapshot of(List<McpServer> servers) {
+            Map<String, McpServer> byId = new LinkedHashMap<>();
+            Map<String, McpServer> byUrl = new HashMap<>();
+            Map<String, McpPrompt> prompts = new HashMap<>();
+            for (McpServer server : servers) {
+                byId.putIfAbsent(server.serverId(), server);
+                byUrl.put(server.url(), server);
+                server.prompts().forEach(prompt -> prompts.put(prompt.getId(), prompt));
+            }
+            return new Snapshot(
+                    List.copyOf(servers),
+                    servers.stream().filter(McpServer::healthy).toList(),
+                    Map.copyOf(byId),
+                    Map.copyOf(byUrl),
+                    Map.copyOf(prompts));
+        }
+
+        /**
+         * Returns the discovered prompts grouped by server ID, omitting servers without prompts.
+         */
+        public Map<String, List<McpPrompt>> promptsByServer() {
+            Map<String, List<McpPrompt>> byServer = new HashMap<>();
+            servers.stream()
+                    .filter(server -> !server.prompts().isEmpty())
+                    .forEach(server -> byServer.put(server.serverId(), server.prompts()));
+            return Map.copyOf(byServer);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.tanzu.mcpclient.util;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.RequestReplySenderContext;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * HttpClient that observes every MCP request it sends, so each JSON-RPC POST becomes a client span and
+ * carries the trace context to the MCP server in its propagation headers ({@code traceparent} for W3C).
+ *
+ * <p>GET requests are the long-lived SSE streams; they are passed through unobserved so that a span does
+ * not stay open for the lifetime of a connection.</p>
+ */
+class ObservedHttpClient extends HttpClient {
+
+    static final String OBSERVATION_NAME = "mcp.client.requests";
+
+    private final HttpClient delegate;
+    private final ObservationRegistry observationRegistry;
+
+    ObservedHttpClient(HttpClient delegate, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        if (!isObserved(request)) {
+            return delegate.send(request, responseBodyHandler);
+        }
+        RequestReplySenderContext<HttpRequest.Builder, HttpResponse<?>> context = senderContext(request);
+        Observation observation = start(request, context);
+        try {
+            HttpResponse<T> response = delegate.send(context.getCarrier().build(), responseBodyHandler);
+            stop(observation, context, response, null);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            stop(observation, context, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(request, responseBodyHandler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        if (!isObserved(request)) {
+            return delegate.sendAsync(request, responseBodyHandler, pushPromiseHandler);
+        }
+        RequestReplySenderContext<HttpRequest.Builder, HttpResponse<?>> context = senderContext(request);
+        Observation observation = start(request, context);
+        return delegate.sendAsync(context.getCarrier().build(), responseBodyHandler, pushPromiseHandler)
+                .whenComplete((response, error) -> stop(observation, context, response, error));
+    }
+
+    private boolean isObserved(HttpRequest request) {
+        return !observationRegistry.isNoop() && !"GET".equals(request.method());
+    }
+
+    private static RequestReplySenderContext<HttpRequest.Builder, HttpResponse<?>> senderContext(HttpRequest request) {
+        RequestReplySenderContext<HttpRequest.Builder, HttpResponse<?>> context =
+                new RequestReplySenderContext<>((carrier, key, value) -> {
+                    if (carrier != null) {
+                        carrier.setHeader(key, value);
+                    }
+                });
+        context.setCarrier(HttpRequest.newBuilder(request, (name, value) -> true));
+        context.setRemoteServiceName(request.uri().getHost());
+        return context;
+    }
+
+    private Observation start(HttpRequest request, RequestReplySenderContext<HttpRequest.Builder, HttpResponse<?>> context) {
+        String server = request.uri().getPort() != -1
+                ? request.uri().getHost() + ":" + request.uri().getPort()
+                : request.uri().getHost();
+        // Starting the observation lets the propagating tracing handler write the trace headers into the carrier
+        return Observation.createNotStarted(OBSERVATION_NAME, () -> context, observationRegistry)
+                .contextualName("mcp " + request.method())
+                .lowCardinalityKeyValue("server", server)
+                .lowCardinalityKeyValue("method", request.method())
+                .start();
+    }
+
+    private static void stop(Observation observation, RequestReplySenderContext<HttpRequest.Builder, HttpResponse<?>> context,
+                             HttpResponse<?> response, Throwable error) {
+        if (error != null) {
+            observation.error(error);
+        }
+        if (response != null) {
+            context.setResponse(response);
+            observation.lowCardinalityKeyValue("status", String.valueOf(response.statusCode()));
+        } else {
+            observation.lowCardinalityKeyValue("status", "none");
+        }
+        observation.stop();
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(Duration duration) throws InterruptedException {
+        return delegate.awaitTermination(duration);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public void shutdownNow() {
+        delegate.shutdownNow();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,35 @@
+package org.tanzu.mcpclient.util;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} while startup phases are still running or retrying in the background,
+ * with the finished, pending, failed and degraded phases as details. A failed optional phase, such as MCP
+ * discovery, is only a detail: the application is ready without it.
+ */
+@Component
+public class StartupHealthIndicator implements HealthIndicator {
+
+    private final StartupTimeline startupTimeline;
+
+    public StartupHealthIndicator(StartupTimeline startupTimeline) {
+        this.startupTimeline = startupTimeline;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = startupTimeline.isComplete() ? Health.up() : Health.outOfService();
+        if (!startupTimeline.failed().isEmpty()) {
+            builder.withDetail("failed", startupTimeline.failed());
+        }
+        if (!startupTimeline.degraded().isEmpty()) {
+            builder.withDetail("degraded", startupTimeline.degraded());
+        }
+        return builder
+                .withDetail("pending", startupTimeline.pending())
+                .withDetail("phases", startupTimeline.durations())
+                .build();
+    }
+}
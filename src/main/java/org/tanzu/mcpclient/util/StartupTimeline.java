@@ -0,0 +1,229 @@
+package org.tanzu.mcpclient.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Records how long each startup phase takes, measured from JVM start, and runs initialization work
+ * that requests do not need immediately off the startup path.
+ *
+ * <p>With {@code app.startup.background} (the default), work passed to {@link #initialize} runs on its
+ * own virtual thread, concurrently with the rest of startup and with each other; otherwise it runs
+ * inline. Until all of it has finished the {@code startup} health indicator, which is part of the
+ * readiness group, reports the phases still pending. Work the application needs, such as creating a
+ * schema, is retried with backoff until it succeeds; optional work, such as MCP discovery, only records
+ * its failure. Once the application is ready and nothing is pending, the timeline is logged.</p>
+ */
+@Component
+public class StartupTimeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeline.class);
+
+    private static final long JVM_START = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    private static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+
+    // Phases that complete before the application context exists
+    private static final List<Phase> EARLY_PHASES = new CopyOnWriteArrayList<>();
+
+    private final boolean background;
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> failed = new ConcurrentHashMap<>();
+    private final Map<String, String> degraded = new ConcurrentHashMap<>();
+    // Not shut down once startup completes: phases started by ApplicationReadyEvent listeners may come after
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean applicationReady;
+    private volatile boolean logged;
+
+    public StartupTimeline(@Value("${app.startup.background:true}") boolean background) {
+        this.background = background;
+    }
+
+    /**
+     * Records a phase that ran before the application context was created.
+     */
+    public static void recordEarly(String name, long startMillis, long endMillis) {
+        EARLY_PHASES.add(new Phase(name, startMillis - JVM_START, endMillis - JVM_START));
+    }
+
+    public <T> T time(String name, Supplier<T> work) {
+        long start = System.currentTimeMillis();
+        try {
+            return work.get();
+        } finally {
+            phases.add(new Phase(name, start - JVM_START, System.currentTimeMillis() - JVM_START));
+        }
+    }
+
+    public void time(String name, Runnable work) {
+        time(name, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs initialization work the application needs as a timed phase, in the background unless background
+     * startup is disabled. A phase that fails in the background is retried with backoff, and the application
+     * does not become ready until it succeeds.
+     */
+    public void initialize(String name, Runnable work) {
+        if (!background) {
+            time(name, work);
+            return;
+        }
+        submit(name, () -> {
+            Duration delay = FIRST_RETRY_DELAY;
+            while (true) {
+                try {
+                    time(name, work);
+                    failed.remove(name);
+                    return;
+                } catch (RuntimeException e) {
+                    logger.error("Startup phase {} failed, retrying in {}", name, delay, e);
+                    failed.put(name, String.valueOf(e.getMessage()));
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delay = delay.multipliedBy(2);
+                if (delay.compareTo(MAX_RETRY_DELAY) > 0) {
+                    delay = MAX_RETRY_DELAY;
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs initialization work the application can serve without as a timed phase, like {@link #initialize}.
+     * A failure is logged and reported by the health indicator, but the phase is not retried and does not
+     * keep the application from becoming ready.
+     */
+    public void initializeOptional(String name, Runnable work) {
+        Runnable guarded = () -> {
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                logger.error("Optional startup phase {} failed", name, e);
+                degraded.put(name, String.valueOf(e.getMessage()));
+            }
+        };
+        if (!background) {
+            time(name, guarded);
+            return;
+        }
+        submit(name, () -> time(name, guarded));
+    }
+
+    private void submit(String name, Runnable work) {
+        pending.add(name);
+        executor.execute(() -> {
+            try {
+                work.run();
+            } finally {
+                pending.remove(name);
+                logIfComplete();
+            }
+        });
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationStarted(ApplicationStartedEvent event) {
+        if (event.getTimeTaken() != null) {
+            long end = System.currentTimeMillis() - JVM_START;
+            phases.add(new Phase("context", end - event.getTimeTaken().toMillis(), end));
+        }
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        long now = System.currentTimeMillis() - JVM_START;
+        phases.add(new Phase("ready", now, now));
+        applicationReady = true;
+        logIfComplete();
+    }
+
+    public boolean isComplete() {
+        return applicationReady && pending.isEmpty();
+    }
+
+    public Set<String> pending() {
+        return Set.copyOf(pending);
+    }
+
+    /**
+     * Returns the last error of each required phase that failed and is being retried.
+     */
+    public Map<String, String> failed() {
+        return Map.copyOf(failed);
+    }
+
+    /**
+     * Returns the error of each optional phase that failed.
+     */
+    public Map<String, String> degraded() {
+        return Map.copyOf(degraded);
+    }
+
+    /**
+     * Returns the duration of every finished phase in milliseconds, in the order the phases started.
+     */
+    public Map<String, Long> durations() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        allPhases().forEach(phase -> durations.put(phase.name(), phase.endMillis() - phase.startMillis()));
+        return durations;
+    }
+
+    private List<Phase> allPhases() {
+        return Stream.concat(EARLY_PHASES.stream(), phases.stream())
+                .sorted(Comparator.comparingLong(Phase::startMillis))
+                .toList();
+    }
+
+    private synchronized void logIfComplete() {
+        if (logged || !isComplete()) {
+            return;
+        }
+        logged = true;
+        StringBuilder timeline = new StringBuilder("Startup timeline (ms since JVM start):");
+        long fullyReady = 0;
+        for (Phase phase : allPhases()) {
+            timeline.append(String.format("%n  %-22s %6d - %6d  (%d ms)", phase.name(), phase.startMillis(),
+                    phase.endMillis(), phase.endMillis() - phase.startMillis()));
+            fullyReady = Math.max(fullyReady, phase.endMillis());
+        }
+        timeline.append(String.format("%n  fully initialized at %d ms", fullyReady));
+        logger.info(timeline.toString());
+    }
+
+    private record Phase(String name, long startMillis, long endMillis) {
+    }
+}
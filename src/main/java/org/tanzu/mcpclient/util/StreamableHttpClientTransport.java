@@ -0,0 +1,356 @@
+package org.tanzu.mcpclient.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Client side of the MCP Streamable HTTP transport (protocol revision 2025-03-26).
+ *
+ * <p>Every JSON-RPC message is POSTed to a single endpoint. The server answers a request either with a
+ * JSON body or with an SSE stream that carries the response plus any messages it sends meanwhile. The
+ * {@code Mcp-Session-Id} the server assigns during initialization is echoed on every later request, and
+ * once the session is initialized a GET stream is held open for server-initiated notifications such as
+ * {@code notifications/prompts/list_changed}.</p>
+ *
+ * <p>When a fallback is supplied and the server rejects the initialize POST with a 4xx status, the
+ * transport switches to the legacy SSE transport for the rest of its life, as the specification's
+ * backwards-compatibility procedure describes.</p>
+ */
+class StreamableHttpClientTransport implements McpClientTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamableHttpClientTransport.class);
+
+    static final String SESSION_HEADER = "Mcp-Session-Id";
+
+    private static final String APPLICATION_JSON = "application/json";
+    private static final String TEXT_EVENT_STREAM = "text/event-stream";
+    private static final long NOTIFICATION_STREAM_RETRY_SECONDS = 1;
+    private static final long NOTIFICATION_STREAM_MAX_RETRY_SECONDS = 60;
+
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final ObjectMapper objectMapper;
+    private final Supplier<McpClientTransport> fallbackSupplier;
+    private final Consumer<Boolean> negotiationListener;
+
+    private final AtomicReference<String> sessionId = new AtomicReference<>();
+    private final AtomicReference<McpClientTransport> fallback = new AtomicReference<>();
+    private final AtomicBoolean listening = new AtomicBoolean();
+    private final AtomicBoolean negotiated = new AtomicBoolean();
+    private volatile Function<Mono<McpSchema.JSONRPCMessage>, Mono<McpSchema.JSONRPCMessage>> handler;
+    private volatile CompletableFuture<?> notificationStream;
+    private volatile long notificationRetrySeconds = NOTIFICATION_STREAM_RETRY_SECONDS;
+    private volatile boolean closing;
+
+    /**
+     * @param fallbackSupplier creates the SSE transport to switch to, or null to never fall back
+     * @param negotiationListener told once whether the server accepted Streamable HTTP (true) or not
+     */
+    StreamableHttpClientTransport(HttpClient httpClient, URI endpoint, ObjectMapper objectMapper,
+                                  Supplier<McpClientTransport> fallbackSupplier,
+                                  Consumer<Boolean> negotiationListener) {
+        this.httpClient = httpClient;
+        this.endpoint = endpoint;
+        this.objectMapper = objectMapper;
+        this.fallbackSupplier = fallbackSupplier;
+        this.negotiationListener = negotiationListener;
+    }
+
+    @Override
+    public Mono<Void> connect(Function<Mono<McpSchema.JSONRPCMessage>, Mono<McpSchema.JSONRPCMessage>> handler) {
+        // Nothing to open up front: the first POST carries the initialize request
+        this.handler = handler;
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> sendMessage(McpSchema.JSONRPCMessage message) {
+        if (closing) {
+            return Mono.empty();
+        }
+        McpClientTransport sseTransport = fallback.get();
+        if (sseTransport != null) {
+            return sseTransport.sendMessage(message);
+        }
+
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(message);
+        } catch (IOException e) {
+            return Mono.error(new McpError("Failed to serialize message: " + e.getMessage()));
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                .header("Content-Type", APPLICATION_JSON)
+                .header("Accept", APPLICATION_JSON + ", " + TEXT_EVENT_STREAM)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        String session = sessionId.get();
+        if (session != null) {
+            request.header(SESSION_HEADER, session);
+        }
+
+        return Mono.fromFuture(() -> httpClient.sendAsync(request.build(), this::bodySubscriber))
+                .flatMap(response -> handleResponse(message, session, response));
+    }
+
+    private Mono<Void> handleResponse(McpSchema.JSONRPCMessage message, String session,
+                                      HttpResponse<Void> response) {
+        int status = response.statusCode();
+        if (status / 100 == 2) {
+            if (negotiated.compareAndSet(false, true)) {
+                negotiationListener.accept(true);
+            }
+            if (isInitializedNotification(message)) {
+                openNotificationStream();
+            }
+            return Mono.empty();
+        }
+
+        if (session == null && status / 100 == 4 && fallbackSupplier != null && isInitializeRequest(message)) {
+            logger.debug("{} rejected Streamable HTTP with status {}, falling back to SSE", endpoint, status);
+            negotiated.set(true);
+            negotiationListener.accept(false);
+            McpClientTransport sseTransport = fallbackSupplier.get();
+            fallback.set(sseTransport);
+            return sseTransport.connect(handler).then(sseTransport.sendMessage(message));
+        }
+
+        if (session != null && status == 404) {
+            return Mono.error(new McpError("MCP session " + session + " expired at " + endpoint));
+        }
+        return Mono.error(new McpError("MCP request to " + endpoint + " failed with HTTP status " + status));
+    }
+
+    /**
+     * Picks how to consume a response body based on its status and content type. Messages are handed to
+     * the session as they are read, so a long-running request's progress notifications arrive before
+     * its response.
+     */
+    private HttpResponse.BodySubscriber<Void> bodySubscriber(HttpResponse.ResponseInfo info) {
+        if (info.statusCode() / 100 != 2) {
+            return HttpResponse.BodySubscribers.replacing(null);
+        }
+        info.headers().firstValue(SESSION_HEADER).ifPresent(sessionId::set);
+
+        String contentType = info.headers().firstValue("Content-Type").orElse("");
+        if (contentType.startsWith(TEXT_EVENT_STREAM)) {
+            return HttpResponse.BodySubscribers.fromLineSubscriber(new EventStreamSubscriber());
+        }
+        if (contentType.startsWith(APPLICATION_JSON)) {
+            return HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                    json -> {
+                        dispatchJson(json);
+                        return null;
+                    });
+        }
+        return HttpResponse.BodySubscribers.replacing(null);
+    }
+
+    /**
+     * Opens the GET stream the server uses for messages that are not tied to a request. Servers that
+     * do not offer one answer 405, which is fine; a stream the server ends is reopened after a pause, and
+     * one that fails is reopened with a backoff that doubles up to a minute.
+     */
+    private void openNotificationStream() {
+        if (closing || !listening.compareAndSet(false, true)) {
+            return;
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                .header("Accept", TEXT_EVENT_STREAM)
+                .GET();
+        String session = sessionId.get();
+        if (session != null) {
+            request.header(SESSION_HEADER, session);
+        }
+
+        notificationStream = httpClient.sendAsync(request.build(), this::bodySubscriber)
+                .whenComplete((response, error) -> {
+                    if (closing) {
+                        return;
+                    }
+                    if (error != null) {
+                        long delay = notificationRetrySeconds;
+                        notificationRetrySeconds = Math.min(delay * 2, NOTIFICATION_STREAM_MAX_RETRY_SECONDS);
+                        logger.debug("Notification stream from {} failed, reopening in {}s: {}",
+                                endpoint, delay, error.getMessage());
+                        reopenNotificationStream(delay);
+                    } else if (response.statusCode() == 200) {
+                        notificationRetrySeconds = NOTIFICATION_STREAM_RETRY_SECONDS;
+                        reopenNotificationStream(NOTIFICATION_STREAM_RETRY_SECONDS);
+                    } else {
+                        logger.debug("{} offers no notification stream (HTTP {})", endpoint, response.statusCode());
+                    }
+                });
+    }
+
+    private void reopenNotificationStream(long delaySeconds) {
+        listening.set(false);
+        CompletableFuture.delayedExecutor(delaySeconds, TimeUnit.SECONDS).execute(this::openNotificationStream);
+    }
+
+    private void dispatchJson(String json) {
+        if (json == null || json.isBlank()) {
+            return;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (node.isArray()) {
+                for (JsonNode element : node) {
+                    dispatch(McpSchema.deserializeJsonRpcMessage(objectMapper, element.toString()));
+                }
+            } else {
+                dispatch(McpSchema.deserializeJsonRpcMessage(objectMapper, json));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid JSON-RPC message from " + endpoint, e);
+        }
+    }
+
+    private void dispatch(McpSchema.JSONRPCMessage message) {
+        if (!closing && handler != null) {
+            handler.apply(Mono.just(message)).subscribe();
+        }
+    }
+
+    private static boolean isInitializeRequest(McpSchema.JSONRPCMessage message) {
+        return message instanceof McpSchema.JSONRPCRequest request
+                && McpSchema.METHOD_INITIALIZE.equals(request.method());
+    }
+
+    private static boolean isInitializedNotification(McpSchema.JSONRPCMessage message) {
+        return message instanceof McpSchema.JSONRPCNotification notification
+                && McpSchema.METHOD_NOTIFICATION_INITIALIZED.equals(notification.method());
+    }
+
+    @Override
+    public Mono<Void> closeGracefully() {
+        return Mono.defer(() -> {
+            closing = true;
+            CompletableFuture<?> stream = notificationStream;
+            if (stream != null) {
+                stream.cancel(true);
+            }
+
+            McpClientTransport sseTransport = fallback.get();
+            if (sseTransport != null) {
+                return sseTransport.closeGracefully();
+            }
+
+            String session = sessionId.get();
+            if (session == null) {
+                return Mono.empty();
+            }
+            // Let the server release the session; servers that do not support this answer 405
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .header(SESSION_HEADER, session)
+                    .DELETE()
+                    .build();
+            return Mono.fromFuture(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                    .onErrorResume(e -> {
+                        logger.debug("Failed to end MCP session at {}: {}", endpoint, e.getMessage());
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    @Override
+    public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+        return objectMapper.convertValue(data, typeRef);
+    }
+
+    /**
+     * Assembles server-sent events from lines and dispatches the JSON-RPC message each one carries.
+     */
+    private final class EventStreamSubscriber implements Flow.Subscriber<String> {
+
+        private final StringBuilder data = new StringBuilder();
+        private String eventType = "message";
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.isEmpty()) {
+                dispatchEvent();
+                return;
+            }
+            if (line.startsWith(":")) {
+                return;
+            }
+
+            int colon = line.indexOf(':');
+            String field = colon >= 0 ? line.substring(0, colon) : line;
+            String value = colon >= 0 ? line.substring(colon + 1) : "";
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+
+            switch (field) {
+                case "data" -> {
+                    if (!data.isEmpty()) {
+                        data.append('\n');
+                    }
+                    data.append(value);
+                }
+                case "event" -> eventType = value;
+                default -> {
+                    // id and retry are only needed for resumption, which this client does not attempt
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!closing) {
+                logger.debug("Event stream from {} failed: {}", endpoint, throwable.getMessage());
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            dispatchEvent();
+        }
+
+        private void dispatchEvent() {
+            try {
+                if (!data.isEmpty() && "message".equals(eventType)) {
+                    dispatch(McpSchema.deserializeJsonRpcMessage(objectMapper, data.toString()));
+                }
+            } catch (IOException e) {
+                logger.error("Error processing event from {}", endpoint, e);
+            } finally {
+                data.setLength(0);
+                eventType = "message";
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.tanzu.mcpclient.vectorstore;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.session.jdbc.config.annotation.SpringSessionDataSource;
+
+import java.util.Map;
+
+/**
+ * Separate connection pools for the database workloads, so that slow vector searches cannot take the
+ * connections that session writes on every request or chat memory need.
+ *
+ * <ul>
+ *   <li>{@code vector}: document similarity search and ingestion</li>
+ *   <li>{@code memory}: the conversation memory store</li>
+ *   <li>{@code session}: Spring Session JDBC</li>
+ *   <li>{@code general}: the primary pool behind the auto-configured JdbcTemplate, used for schema
+ *       initialization and usage flushes</li>
+ * </ul>
+ *
+ * <p>All pools connect with {@code spring.datasource.*}. Each is sized by the Hikari properties under
+ * {@code app.datasource.pools.<name>}, and the driver properties in {@code app.datasource.driver-properties}
+ * (statement caching and server-side prepare threshold) apply to all of them. Pool usage and the time
+ * spent waiting for a connection are published per pool as {@code hikaricp.connections.*}.</p>
+ */
+@Configuration
+@Conditional(DatabaseAvailableCondition.class)
+public class DataSourceConfiguration {
+
+    public static final String VECTOR = "vectorDataSource";
+    public static final String MEMORY = "memoryDataSource";
+    public static final String SESSION = "sessionDataSource";
+
+    private final Map<String, String> driverProperties;
+
+    public DataSourceConfiguration(Environment environment) {
+        this.driverProperties = Binder.get(environment)
+                .bind("app.datasource.driver-properties", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("app.datasource.pools.general")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return pool(properties, "general");
+    }
+
+    @Bean(VECTOR)
+    @ConfigurationProperties("app.datasource.pools.vector")
+    public HikariDataSource vectorDataSource(DataSourceProperties properties) {
+        return pool(properties, "vector");
+    }
+
+    @Bean(MEMORY)
+    @ConfigurationProperties("app.datasource.pools.memory")
+    public HikariDataSource memoryDataSource(DataSourceProperties properties) {
+        return pool(properties, "memory");
+    }
+
+    @Bean(SESSION)
+    @SpringSessionDataSource
+    @ConfigurationProperties("app.datasource.pools.session")
+    public HikariDataSource sessionDataSource(DataSourceProperties properties) {
+        return pool(properties, "session");
+    }
+
+    private HikariDataSource pool(DataSourceProperties properties, String name) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(name);
+        driverProperties.forEach(dataSource::addDataSourceProperty);
+        return dataSource;
+    }
+}
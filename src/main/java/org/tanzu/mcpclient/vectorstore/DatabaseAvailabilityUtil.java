@@ -3,33 +3,76 @@ package org.tanzu.mcpclient.vectorstore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
+import org.tanzu.mcpclient.util.StartupTimeline;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 public class DatabaseAvailabilityUtil {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseAvailabilityUtil.class);
 
+    public static final String DATABASE_ENABLED = "app.database.enabled";
+
     private static volatile Boolean databaseAvailable = null;
+    private static CompletableFuture<Boolean> probe;
+
+    /**
+     * Starts the connection test on a virtual thread, so that it overlaps with the rest of startup
+     * instead of blocking the first condition that needs its result.
+     */
+    public static synchronized void startProbe(Environment env) {
+        if (probe == null && configuredAvailability(env) == null) {
+            probe = new CompletableFuture<>();
+            Thread.ofVirtual().name("database-probe").start(() -> {
+                long start = System.currentTimeMillis();
+                try {
+                    probe.complete(testDirectJdbcConnection(env));
+                } catch (RuntimeException e) {
+                    probe.completeExceptionally(e);
+                } finally {
+                    StartupTimeline.recordEarly("database.probe", start, System.currentTimeMillis());
+                }
+            });
+        }
+    }
 
     /**
-     * Checks if the database is available.
-     * The result is cached after the first call.
+     * Checks if the database is available. {@code app.database.enabled} decides when it is set, as it is
+     * by the {@code postgres} and {@code in-memory} profiles; otherwise this waits for the probe started by
+     * {@link #startProbe}, starting it if it has not run. The result is cached after the first call.
      */
     public static boolean isDatabaseAvailable(Environment env) {
         if (databaseAvailable == null) {
             synchronized (DatabaseAvailabilityUtil.class) {
                 if (databaseAvailable == null) {
-                    databaseAvailable = testDirectJdbcConnection(env);
-                    logger.info("Database availability check result: {}", databaseAvailable);
+                    Boolean configured = configuredAvailability(env);
+                    if (configured != null) {
+                        databaseAvailable = configured;
+                        logger.info("Database availability set by {}: {}", DATABASE_ENABLED, databaseAvailable);
+                    } else {
+                        startProbe(env);
+                        databaseAvailable = probe.join();
+                        logger.info("Database availability check result: {}", databaseAvailable);
+                    }
                 }
             }
         }
         return databaseAvailable;
     }
 
+    /**
+     * Returns the value of {@code app.database.enabled}, or null if it is not set. Ahead-of-time
+     * processing evaluates the conditions at build time, so AOT builds must decide through this
+     * property rather than by probing the build machine's network.
+     */
+    private static Boolean configuredAvailability(Environment env) {
+        return env.getProperty(DATABASE_ENABLED, Boolean.class);
+    }
+
     /**
      * Tests if a direct JDBC connection can be established.
      */
@@ -50,8 +93,17 @@ public class DatabaseAvailabilityUtil {
             // Load the driver
             Class.forName(driverClassName);
 
-            // Create direct connection
-            connection = DriverManager.getConnection(url, username, password);
+            // A single short-lived connection, made before the pools exist; bound how long it may take
+            Properties connectionProperties = new Properties();
+            if (username != null) {
+                connectionProperties.setProperty("user", username);
+            }
+            if (password != null) {
+                connectionProperties.setProperty("password", password);
+            }
+            connectionProperties.setProperty("loginTimeout", "5");
+            connectionProperties.setProperty("connectTimeout", "5");
+            connection = DriverManager.getConnection(url, connectionProperties);
             boolean valid = connection.isValid(5); // 5 second timeout
 
             if (valid) {
@@ -0,0 +1,28 @@
+package org.tanzu.mcpclient.vectorstore;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+
+/**
+ * Starts the database availability probe as soon as the environment, including the datasource
+ * properties derived from the service bindings, is prepared, well before the first
+ * {@link DatabaseAvailableCondition} is evaluated. Registered in {@code META-INF/spring.factories}.
+ */
+public class DatabaseProbeListener implements ApplicationListener<ApplicationEnvironmentPreparedEvent>, Ordered {
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        // With AOT-generated artifacts the conditions were evaluated at build time
+        if (!AotDetector.useGeneratedArtifacts()) {
+            DatabaseAvailabilityUtil.startProbe(event.getEnvironment());
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // After the environment post-processors have mapped the bindings to spring.datasource.*
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,236 @@
+package org.tanzu.mcpclient.vectorstore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgvector.PGvector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.pgvector.PgVectorFilterExpressionConverter;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * PgVectorStore wrapper that owns the document index and applies the configured {@link VectorIndexSettings}.
+ *
+ * <p>Writes and deletes go straight to the wrapped store. Searches run in a read-only transaction so that
+ * {@code hnsw.ef_search} or {@code ivfflat.probes} can be set for that query only. Quantized precisions
+ * scan the quantized index for candidates and re-rank them against the full-precision column.</p>
+ *
+ * <p>A top-level tenant equality in a search filter is turned into a bound predicate on the tenant
+ * metadata key. With the expression index created by {@code db/vector_store_tenant_index.sql}, the planner
+ * can restrict a search to one tenant's rows instead of post-filtering the whole table. The index is built
+ * by that migration rather than at startup, because building it blocks writes to the table.</p>
+ */
+public class IndexedPgVectorStore implements VectorStore, InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexedPgVectorStore.class);
+
+    private final PgVectorStore delegate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmbeddingModel embeddingModel;
+    private final VectorIndexSettings settings;
+    private final String schemaName;
+    private final String tableName;
+    private final int dimensions;
+    private final String tenantKey;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PgVectorFilterExpressionConverter filterExpressionConverter = new PgVectorFilterExpressionConverter();
+
+    public IndexedPgVectorStore(PgVectorStore delegate, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                EmbeddingModel embeddingModel, VectorIndexSettings settings,
+                                String schemaName, String tableName, int dimensions, String tenantKey) {
+        this.delegate = delegate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.embeddingModel = embeddingModel;
+        this.settings = settings;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.dimensions = dimensions;
+        this.tenantKey = tenantKey;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        delegate.afterPropertiesSet();
+
+        if (!tenantIndexExists()) {
+            logger.warn("No tenant index on {}; tenant-scoped searches scan the whole table. " +
+                    "Run db/vector_store_tenant_index.sql to create it", qualifiedTableName());
+        }
+
+        String indexName = settings.indexName(tableName);
+        logger.info("Ensuring vector index {} ({} / {} precision)", indexName, settings.method(), settings.precision());
+        jdbcTemplate.execute(settings.createIndexSql(schemaName, tableName, dimensions));
+        dropStaleIndexes(indexName);
+    }
+
+    private boolean tenantIndexExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_indexes WHERE schemaname = ? AND tablename = ? AND indexname = ?)",
+                Boolean.class, schemaName, tableName, tableName + "_tenant_idx"));
+    }
+
+    /**
+     * Drops vector indexes left behind by a previous strategy so that writes do not maintain them.
+     */
+    private void dropStaleIndexes(String currentIndexName) {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = ? AND tablename = ? " +
+                        "AND (indexname = ? OR indexname LIKE ? OR indexname LIKE ?)",
+                String.class, schemaName, tableName, VectorIndexSettings.DEFAULT_INDEX_NAME,
+                tableName + "\\_hnsw\\_%", tableName + "\\_ivfflat\\_%");
+
+        for (String index : indexes) {
+            if (!index.equals(currentIndexName)) {
+                logger.info("Dropping stale vector index {}", index);
+                jdbcTemplate.execute("DROP INDEX IF EXISTS " + schemaName + "." + index);
+            }
+        }
+    }
+
+    @Override
+    public void add(@NonNull List<Document> documents) {
+        delegate.add(documents);
+    }
+
+    @Override
+    public void delete(@NonNull List<String> idList) {
+        delegate.delete(idList);
+    }
+
+    @Override
+    public void delete(@NonNull Filter.Expression filterExpression) {
+        delegate.delete(filterExpression);
+    }
+
+    @Override
+    public List<Document> similaritySearch(@NonNull SearchRequest request) {
+        PGvector queryEmbedding = new PGvector(embeddingModel.embed(request.getQuery()));
+
+        List<Object> whereParams = new ArrayList<>();
+        String where = whereClause(request.getFilterExpression(), whereParams);
+
+        List<Object> params = new ArrayList<>();
+        params.add(queryEmbedding);
+        params.addAll(whereParams);
+        params.add(queryEmbedding);
+        params.add(settings.candidateLimit(request.getTopK()));
+        params.add(1 - request.getSimilarityThreshold());
+        params.add(request.getTopK());
+
+        String sql = settings.searchSql(qualifiedTableName(), dimensions, where);
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(settings.searchSettingSql());
+            return jdbcTemplate.query(sql, this::toDocument, params.toArray());
+        });
+    }
+
+    /**
+     * Translates the filter into SQL, moving a top-level tenant equality onto the indexed tenant expression.
+     */
+    private String whereClause(Filter.Expression expression, List<Object> params) {
+        if (expression == null) {
+            return "";
+        }
+
+        String tenantId = tenantIdOf(expression);
+        if (tenantId != null) {
+            params.add(tenantId);
+            return tenantPredicate();
+        }
+
+        if (expression.type() == Filter.ExpressionType.AND && expression.left() instanceof Filter.Expression left) {
+            tenantId = tenantIdOf(left);
+            if (tenantId != null && expression.right() instanceof Filter.Operand right) {
+                params.add(tenantId);
+                return tenantPredicate() + " AND " + jsonPathFilter(right);
+            }
+        }
+
+        return jsonPathFilter(expression);
+    }
+
+    /**
+     * Matches the expression of the tenant index, so the planner can use it.
+     */
+    private String tenantPredicate() {
+        return "(metadata ->> '" + tenantKey + "') = ?";
+    }
+
+    private String tenantIdOf(Filter.Expression expression) {
+        if (expression.type() == Filter.ExpressionType.EQ
+                && expression.left() instanceof Filter.Key key
+                && tenantKey.equals(key.key())
+                && expression.right() instanceof Filter.Value value
+                && value.value() != null) {
+            return value.value().toString();
+        }
+        return null;
+    }
+
+    private String jsonPathFilter(Filter.Operand operand) {
+        String jsonPath = operand instanceof Filter.Group group
+                ? filterExpressionConverter.convertExpression(group.content())
+                : filterExpressionConverter.convertExpression((Filter.Expression) operand);
+        return "metadata::jsonb @@ '" + jsonPath + "'::jsonpath";
+    }
+
+    private String qualifiedTableName() {
+        return schemaName + "." + tableName;
+    }
+
+    private Document toDocument(ResultSet rs, int rowNum) throws SQLException {
+        Map<String, Object> metadata = fromJson(rs.getString("metadata"));
+        double distance = rs.getDouble("distance");
+        metadata.put(DocumentMetadata.DISTANCE.value(), distance);
+
+        return Document.builder()
+                .id(rs.getString("id"))
+                .text(rs.getString("content"))
+                .metadata(metadata)
+                .score(1.0 - distance)
+                .build();
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        if (json == null) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse document metadata", e);
+        }
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public <T> Optional<T> getNativeClient() {
+        return delegate.getNativeClient();
+    }
+}
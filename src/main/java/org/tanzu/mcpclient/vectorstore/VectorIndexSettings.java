@@ -0,0 +1,121 @@
+package org.tanzu.mcpclient.vectorstore;
+
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Index strategy for the document vector table.
+ *
+ * <p>Build parameters ({@code m}, {@code efConstruction}, {@code lists}) are applied when the index is
+ * created; search parameters ({@code efSearch}, {@code probes}) are applied per query with
+ * {@code SET LOCAL}. Quantized precisions index a {@code halfvec} or binary projection of the
+ * full-precision column and re-rank {@code rerankFactor * topK} candidates with exact cosine distance.</p>
+ *
+ * @param method the pgvector index access method
+ * @param precision the precision of the indexed vectors
+ * @param m HNSW maximum connections per layer
+ * @param efConstruction HNSW candidate list size used while building the index
+ * @param efSearch HNSW candidate list size used while searching
+ * @param lists IVFFlat number of inverted lists
+ * @param probes IVFFlat number of lists scanned per query
+ * @param rerankFactor candidates fetched per requested result before the full-precision re-rank
+ */
+@ConfigurationProperties(prefix = "app.vectorstore.index")
+public record VectorIndexSettings(
+        @DefaultValue("HNSW") Method method,
+        @DefaultValue("FULL") Precision precision,
+        @DefaultValue("16") int m,
+        @DefaultValue("64") int efConstruction,
+        @DefaultValue("40") int efSearch,
+        @DefaultValue("100") int lists,
+        @DefaultValue("1") int probes,
+        @DefaultValue("4") int rerankFactor
+) {
+
+    /**
+     * Name of the index PgVectorStore creates on its default table, kept for the default strategy so
+     * that existing deployments do not rebuild their index.
+     */
+    static final String DEFAULT_INDEX_NAME = "spring_ai_vector_index";
+
+    public enum Method { HNSW, IVFFLAT }
+
+    public enum Precision { FULL, HALF, BINARY }
+
+    /**
+     * Returns the index name, which encodes the build parameters so a changed strategy builds a new index.
+     */
+    public String indexName(String tableName) {
+        if (PgVectorStore.DEFAULT_TABLE_NAME.equals(tableName)
+                && method == Method.HNSW && precision == Precision.FULL && m == 16 && efConstruction == 64) {
+            return DEFAULT_INDEX_NAME;
+        }
+        String build = method == Method.HNSW ? "m" + m + "_ef" + efConstruction : "l" + lists;
+        return tableName + "_" + method.name().toLowerCase() + "_" + precision.name().toLowerCase() + "_" + build + "_idx";
+    }
+
+    public String createIndexSql(String schemaName, String tableName, int dimensions) {
+        String with = method == Method.HNSW
+                ? "m = " + m + ", ef_construction = " + efConstruction
+                : "lists = " + lists;
+        return "CREATE INDEX IF NOT EXISTS " + indexName(tableName) + " ON " + schemaName + "." + tableName +
+                " USING " + method.name().toLowerCase() + " ((" + indexedExpression(dimensions) + ") " + operatorClass() + ")" +
+                " WITH (" + with + ")";
+    }
+
+    /**
+     * Returns the statement that applies the search-time parameter to the current transaction.
+     */
+    public String searchSettingSql() {
+        return method == Method.HNSW
+                ? "SET LOCAL hnsw.ef_search = " + Math.max(efSearch, 1)
+                : "SET LOCAL ivfflat.probes = " + Math.max(probes, 1);
+    }
+
+    /**
+     * Builds the search query: an index-ordered candidate scan followed by an exact re-rank, which is a
+     * no-op for full precision. Parameters, in order: query vector for the re-rank, parameters of the
+     * where clause, query vector for the candidate scan, candidate limit, maximum distance, result limit.
+     */
+    public String searchSql(String qualifiedTableName, int dimensions, String whereClause) {
+        String where = whereClause == null || whereClause.isEmpty() ? "" : " WHERE " + whereClause;
+        return "SELECT id, content, metadata, distance FROM (" +
+                "SELECT id, content, metadata, embedding <=> ?::vector AS distance FROM (" +
+                "SELECT id, content, metadata, embedding FROM " + qualifiedTableName + where +
+                " ORDER BY (" + indexedExpression(dimensions) + ") " + candidateOperator() + " " + queryExpression(dimensions) +
+                " LIMIT ?) candidates) ranked WHERE distance < ? ORDER BY distance LIMIT ?";
+    }
+
+    public int candidateLimit(int topK) {
+        return precision == Precision.FULL ? topK : topK * Math.max(rerankFactor, 1);
+    }
+
+    private String indexedExpression(int dimensions) {
+        return switch (precision) {
+            case FULL -> "embedding";
+            case HALF -> "embedding::halfvec(" + dimensions + ")";
+            case BINARY -> "binary_quantize(embedding)::bit(" + dimensions + ")";
+        };
+    }
+
+    private String queryExpression(int dimensions) {
+        return switch (precision) {
+            case FULL -> "?::vector";
+            case HALF -> "?::halfvec(" + dimensions + ")";
+            case BINARY -> "binary_quantize(?::vector)";
+        };
+    }
+
+    private String operatorClass() {
+        return switch (precision) {
+            case FULL -> "vector_cosine_ops";
+            case HALF -> "halfvec_cosine_ops";
+            case BINARY -> "bit_hamming_ops";
+        };
+    }
+
+    private String candidateOperator() {
+        return precision == Precision.BINARY ? "<~>" : "<=>";
+    }
+}
@@ -1,5 +1,6 @@
 package org.tanzu.mcpclient.vectorstore;
 
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
@@ -8,18 +9,30 @@ import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.*;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tanzu.mcpclient.document.DocumentService;
+import org.tanzu.mcpclient.memory.ConversationMemoryVectorStore;
 import org.tanzu.mcpclient.util.GenAIService;
 import org.springframework.lang.NonNull;
 
+import javax.sql.DataSource;
+
+import java.time.Duration;
 import java.util.List;
 
 import static org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgDistanceType.COSINE_DISTANCE;
-import static org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgIndexType.HNSW;
+import static org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgIndexType.NONE;
 
 @Configuration
+@EnableConfigurationProperties(VectorIndexSettings.class)
 public class VectorStoreConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(VectorStoreConfiguration.class);
@@ -31,34 +44,64 @@ public class VectorStoreConfiguration {
     }
 
     @Bean
+    @Primary
     @Conditional(DatabaseAvailableCondition.class)
-    public VectorStore vectorStore(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel) {
+    public VectorStore vectorStore(@Qualifier(DataSourceConfiguration.VECTOR) DataSource dataSource,
+                                   EmbeddingModel embeddingModel, VectorIndexSettings indexSettings,
+                                   ObjectProvider<ObservationRegistry> observationRegistry) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
 
-        int dimensions = PgVectorStore.OPENAI_EMBEDDING_DIMENSION_SIZE;
-        if (genAIServiceUtil.isEmbeddingModelAvailable()) {
-            dimensions = embeddingModel.dimensions();
-        }
+        int dimensions = embeddingDimensions(embeddingModel);
         logger.info("Embedding dimensions: {}", dimensions);
 
-        return PgVectorStore.builder(jdbcTemplate, embeddingModel)
+        // The index is created by IndexedPgVectorStore according to the configured strategy
+        PgVectorStore pgVectorStore = PgVectorStore.builder(jdbcTemplate, embeddingModel)
                 .dimensions(dimensions)
                 .distanceType(COSINE_DISTANCE)
-                .indexType(HNSW)
-                .initializeSchema(true)
+                .indexType(NONE)
                 .schemaName("public")
                 .vectorTableName("vector_store")
                 .maxDocumentBatchSize(10000)
                 .initializeSchema(true)
+                .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
                 .build();
+
+        TransactionTemplate searchTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        searchTransaction.setReadOnly(true);
+
+        return new IndexedPgVectorStore(pgVectorStore, jdbcTemplate, searchTransaction, embeddingModel,
+                indexSettings, "public", "vector_store", dimensions, DocumentService.TENANT_ID);
     }
 
+    /**
+     * Conversation memory gets its own day-partitioned table so that chat volume never grows the
+     * document table or its HNSW index.
+     */
     @Bean
+    @Conditional(DatabaseAvailableCondition.class)
+    public ConversationMemoryVectorStore conversationMemoryVectorStore(
+            @Qualifier(DataSourceConfiguration.MEMORY) DataSource dataSource, EmbeddingModel embeddingModel,
+            @Value("${app.memory.retention-days:30}") int retentionDays) {
+
+        return new ConversationMemoryVectorStore(new JdbcTemplate(dataSource), embeddingModel, "public", "conversation_memory",
+                embeddingDimensions(embeddingModel), Duration.ofDays(retentionDays));
+    }
+
+    @Bean
+    @Primary
     @ConditionalOnMissingBean(VectorStore.class)
     public VectorStore fallbackVectorStore() {
         logger.info("Creating fallback vectorStore bean");
         return new EmptyVectorStore();
     }
 
+    private int embeddingDimensions(EmbeddingModel embeddingModel) {
+        if (genAIServiceUtil.isEmbeddingModelAvailable()) {
+            return embeddingModel.dimensions();
+        }
+        return PgVectorStore.OPENAI_EMBEDDING_DIMENSION_SIZE;
+    }
+
     public static class EmptyVectorStore implements VectorStore {
         @Override
         public void add(@NonNull List<Document> documents) {
@@ -0,0 +1,169 @@
+package org.tanzu.mcpclient.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Session repository that writes a session back only when it is new, when its attributes, ID or timeout
+ * changed, or when its last access time has moved by at least {@code app.session.touch-interval} since it
+ * was last written. Every other save, which Spring Session makes at the end of each request only to record
+ * the access time, is skipped.
+ *
+ * <p>The stored expiry time therefore lags the real one by less than the touch interval, which is small
+ * against the session timeout. Written and skipped saves are counted as {@code session.saves} with an
+ * {@code outcome} of {@code written} or {@code coalesced}.</p>
+ */
+final class CoalescingSessionRepository<S extends Session>
+        implements FindByIndexNameSessionRepository<CoalescingSessionRepository.TrackedSession<S>> {
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+    private final Duration touchInterval;
+    private final Counter written;
+    private final Counter coalesced;
+
+    CoalescingSessionRepository(FindByIndexNameSessionRepository<S> delegate, Duration touchInterval,
+                                MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.touchInterval = touchInterval;
+        this.written = saves(meterRegistry, "written");
+        this.coalesced = saves(meterRegistry, "coalesced");
+    }
+
+    @Override
+    public TrackedSession<S> createSession() {
+        return new TrackedSession<>(delegate.createSession(), true);
+    }
+
+    @Override
+    public void save(TrackedSession<S> session) {
+        if (!session.isNew && !session.changed
+                && Duration.between(session.storedLastAccessedTime, session.getLastAccessedTime()).compareTo(touchInterval) < 0) {
+            coalesced.increment();
+            return;
+        }
+        delegate.save(session.delegate);
+        session.markSaved();
+        written.increment();
+    }
+
+    @Override
+    public TrackedSession<S> findById(String id) {
+        S session = delegate.findById(id);
+        return session != null ? new TrackedSession<>(session, false) : null;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public Map<String, TrackedSession<S>> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        Map<String, TrackedSession<S>> sessions = new LinkedHashMap<>();
+        delegate.findByIndexNameAndIndexValue(indexName, indexValue)
+                .forEach((id, session) -> sessions.put(id, new TrackedSession<>(session, false)));
+        return sessions;
+    }
+
+    private static Counter saves(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("session.saves")
+                .description("Session saves at the end of a request, written to the database or coalesced")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Session that records whether anything other than its last access time changed.
+     */
+    static final class TrackedSession<S extends Session> implements Session {
+
+        private final S delegate;
+        private boolean isNew;
+        private boolean changed;
+        private Instant storedLastAccessedTime;
+
+        private TrackedSession(S delegate, boolean isNew) {
+            this.delegate = delegate;
+            this.isNew = isNew;
+            this.storedLastAccessedTime = delegate.getLastAccessedTime();
+        }
+
+        private void markSaved() {
+            isNew = false;
+            changed = false;
+            storedLastAccessedTime = delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            changed = true;
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            changed = true;
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            changed = true;
+            delegate.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            delegate.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            changed = true;
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+    }
+}
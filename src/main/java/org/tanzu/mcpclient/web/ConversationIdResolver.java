@@ -0,0 +1,139 @@
+package org.tanzu.mcpclient.web;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Identifies the conversation a request belongs to. With {@code app.conversation.identity=session} (the
+ * default) the conversation is the HTTP session. With {@code token} it is carried by an HMAC-signed
+ * conversation token, sent in the {@value #TOKEN_HEADER} header or the {@value #TOKEN_COOKIE} cookie, so
+ * nothing is stored on the server and any instance can serve any conversation.
+ *
+ * <p>Tokens expire {@code app.conversation.token-ttl} after they were issued and are reissued for the same
+ * conversation once they are older than {@code app.conversation.token-refresh}, so an active conversation
+ * never expires. Every instance must share {@code app.conversation.token-secret}; without it a random
+ * secret is used and tokens are only valid on the instance that issued them.</p>
+ */
+@Component
+public class ConversationIdResolver {
+
+    public static final String IDENTITY_PROPERTY = "app.conversation.identity";
+    public static final String TOKEN_HEADER = "X-Conversation-Token";
+    public static final String TOKEN_COOKIE = "CONVERSATION";
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationIdResolver.class);
+    private static final String CONVERSATION_ID_ATTRIBUTE = ConversationIdResolver.class.getName() + ".conversationId";
+
+    private final ConversationTokens tokens;
+    private final Duration tokenTtl;
+    private final Duration tokenRefresh;
+
+    public ConversationIdResolver(@Value("${" + IDENTITY_PROPERTY + ":session}") String identity,
+                                  @Value("${app.conversation.token-secret:}") String tokenSecret,
+                                  @Value("${app.conversation.token-ttl:P1D}") Duration tokenTtl,
+                                  @Value("${app.conversation.token-refresh:PT1H}") Duration tokenRefresh) {
+        this.tokens = switch (identity) {
+            case "session" -> null;
+            case "token" -> new ConversationTokens(secret(tokenSecret));
+            default -> throw new IllegalArgumentException(
+                    "Unknown " + IDENTITY_PROPERTY + " '" + identity + "', expected 'session' or 'token'");
+        };
+        this.tokenTtl = tokenTtl;
+        this.tokenRefresh = tokenRefresh;
+        logger.info("Conversations are identified by {}", identity);
+    }
+
+    /**
+     * Returns the conversation ID, starting a conversation if the request has none.
+     */
+    public String resolve(HttpServletRequest request, HttpServletResponse response) {
+        return tokens != null ? fromToken(request, response) : request.getSession().getId();
+    }
+
+    /**
+     * Like {@link #resolve}, but for read-only requests: an existing session is not marked as accessed, so
+     * the request does not cause a session write.
+     */
+    public String resolveForRead(HttpServletRequest request, HttpServletResponse response) {
+        if (tokens != null) {
+            return fromToken(request, response);
+        }
+        if (request.isRequestedSessionIdValid()) {
+            return request.getRequestedSessionId();
+        }
+        return request.getSession().getId();
+    }
+
+    private String fromToken(HttpServletRequest request, HttpServletResponse response) {
+        // Resolved once per request, so a newly issued token is not issued again
+        if (request.getAttribute(CONVERSATION_ID_ATTRIBUTE) instanceof String conversationId) {
+            return conversationId;
+        }
+        Instant now = Instant.now();
+        ConversationTokens.Token token = tokens.verify(requestedToken(request));
+        String conversationId;
+        if (token == null || token.issuedAt().plus(tokenTtl).isBefore(now)) {
+            conversationId = UUID.randomUUID().toString();
+            issue(conversationId, now, request, response);
+        } else {
+            conversationId = token.conversationId();
+            if (token.issuedAt().plus(tokenRefresh).isBefore(now)) {
+                issue(conversationId, now, request, response);
+            }
+        }
+        request.setAttribute(CONVERSATION_ID_ATTRIBUTE, conversationId);
+        return conversationId;
+    }
+
+    private void issue(String conversationId, Instant now, HttpServletRequest request, HttpServletResponse response) {
+        String token = tokens.issue(conversationId, now);
+        ResponseCookie cookie = ResponseCookie.from(TOKEN_COOKIE, token)
+                .path("/")
+                .maxAge(tokenTtl)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        response.setHeader(TOKEN_HEADER, token);
+    }
+
+    private static String requestedToken(HttpServletRequest request) {
+        String header = request.getHeader(TOKEN_HEADER);
+        if (header != null && !header.isBlank()) {
+            return header.trim();
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (TOKEN_COOKIE.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static byte[] secret(String tokenSecret) {
+        if (!tokenSecret.isBlank()) {
+            return tokenSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        logger.warn("app.conversation.token-secret is not set; conversation tokens are only valid on this instance until it restarts");
+        byte[] secret = new byte[ConversationTokens.MINIMUM_SECRET_LENGTH];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+}
@@ -0,0 +1,81 @@
+package org.tanzu.mcpclient.web;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Issues and verifies conversation tokens of the form {@code <conversationId>.<issuedAt>.<signature>}, where
+ * the issue time is in epoch seconds (base 36) and the signature is the HMAC-SHA256 of the first two parts.
+ * A token carries everything needed to identify the conversation, so no instance has to store it.
+ */
+final class ConversationTokens {
+
+    static final int MINIMUM_SECRET_LENGTH = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Pattern CONVERSATION_ID = Pattern.compile("[0-9a-f-]{36}");
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    ConversationTokens(byte[] secret) {
+        if (secret.length < MINIMUM_SECRET_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Conversation token secret must be at least " + MINIMUM_SECRET_LENGTH + " bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    String issue(String conversationId, Instant issuedAt) {
+        String payload = conversationId + "." + Long.toString(issuedAt.getEpochSecond(), 36);
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Returns the token's content, or null if the token is malformed or its signature does not match.
+     */
+    Token verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        int issuedAtStart = signatureStart > 0 ? token.lastIndexOf('.', signatureStart - 1) : -1;
+        if (issuedAtStart <= 0) {
+            return null;
+        }
+        String conversationId = token.substring(0, issuedAtStart);
+        if (!CONVERSATION_ID.matcher(conversationId).matches()) {
+            return null;
+        }
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(token.substring(0, signatureStart)))) {
+                return null;
+            }
+            long issuedAt = Long.parseLong(token.substring(issuedAtStart + 1, signatureStart), 36);
+            return new Token(conversationId, Instant.ofEpochSecond(issuedAt));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign conversation token", e);
+        }
+    }
+
+    record Token(String conversationId, Instant issuedAt) {
+    }
+}
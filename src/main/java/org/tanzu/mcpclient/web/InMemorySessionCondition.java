@@ -0,0 +1,20 @@
+package org.tanzu.mcpclient.web;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.lang.NonNull;
+import org.tanzu.mcpclient.vectorstore.DatabaseAvailabilityUtil;
+
+/**
+ * Matches when sessions are kept in memory: when no database is bound, or when conversations are identified
+ * by tokens and sessions are not used at all. In that case the repository stays empty, and its presence
+ * keeps Spring Boot from configuring JDBC sessions.
+ */
+public class InMemorySessionCondition implements Condition {
+    @Override
+    public boolean matches(ConditionContext context, @NonNull AnnotatedTypeMetadata metadata) {
+        return "token".equals(context.getEnvironment().getProperty(ConversationIdResolver.IDENTITY_PROPERTY))
+                || !DatabaseAvailabilityUtil.isDatabaseAvailable(context.getEnvironment());
+    }
+}
@@ -1,28 +1,75 @@
 package org.tanzu.mcpclient.web;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
 import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
 import org.springframework.context.annotation.Bean;
 import org.springframework.session.SessionRepository;
 import org.springframework.session.web.context.AbstractHttpSessionApplicationInitializer;
-import org.tanzu.mcpclient.vectorstore.DatabaseNotAvailableCondition;
 
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Sessions held in memory, at most {@code app.session.max-sessions} of them. When the limit is reached the
+ * least valuable sessions are evicted, and each session is removed by a sweeper thread once it has been
+ * inactive for its max inactive interval. Occupancy and evictions are published as the {@code sessions}
+ * cache meters.
+ */
 @Configuration
 @EnableSpringHttpSession
 @Order(2)
-@Conditional(DatabaseNotAvailableCondition.class)
+@Conditional(InMemorySessionCondition.class)
 public class InMemorySessionConfiguration extends AbstractHttpSessionApplicationInitializer {
 
     @Bean
-    public SessionRepository sessionRepository() {
-        MapSessionRepository repository = new MapSessionRepository(new ConcurrentHashMap<>());
+    public SessionRepository sessionRepository(MeterRegistry meterRegistry,
+                                               @Value("${app.session.max-sessions:10000}") long maxSessions) {
+        Cache<String, Session> sessions = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfter(new SessionExpiry())
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "sessions");
+        MapSessionRepository repository = new MapSessionRepository(sessions.asMap());
         repository.setDefaultMaxInactiveInterval(Duration.ofDays(1)); // 24 hours
         return repository;
     }
-}
\ No newline at end of file
+
+    /**
+     * Expires a session once it has not been read or saved for its max inactive interval.
+     */
+    private static final class SessionExpiry implements Expiry<String, Session> {
+
+        @Override
+        public long expireAfterCreate(String id, Session session, long currentTime) {
+            return timeToLive(session);
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, Session session, long currentTime, long currentDuration) {
+            return timeToLive(session);
+        }
+
+        @Override
+        public long expireAfterRead(String id, Session session, long currentTime, long currentDuration) {
+            return timeToLive(session);
+        }
+
+        // A negative interval means the session never expires
+        private static long timeToLive(Session session) {
+            Duration interval = session.getMaxInactiveInterval();
+            return interval.isNegative() ? Long.MAX_VALUE : interval.toNanos();
+        }
+    }
+}
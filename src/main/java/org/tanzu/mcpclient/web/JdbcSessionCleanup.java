@@ -0,0 +1,65 @@
+package org.tanzu.mcpclient.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.vectorstore.DataSourceConfiguration;
+import org.tanzu.mcpclient.vectorstore.DatabaseAvailableCondition;
+
+import javax.sql.DataSource;
+
+/**
+ * Deletes expired sessions in batches of {@code app.session.cleanup-batch-size}, each its own short
+ * statement, so cleanup never holds locks on a large part of the session table. Rows locked by another
+ * instance's cleanup are skipped rather than waited for.
+ */
+@Component
+@Conditional(DatabaseAvailableCondition.class)
+@ConditionalOnProperty(name = ConversationIdResolver.IDENTITY_PROPERTY, havingValue = "session", matchIfMissing = true)
+public class JdbcSessionCleanup {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcSessionCleanup.class);
+
+    /**
+     * Upper bound on batches per run, so a large backlog is worked off over several runs.
+     */
+    private static final int MAX_BATCHES = 100;
+
+    private static final String DELETE_EXPIRED = "DELETE FROM SPRING_SESSION WHERE PRIMARY_ID IN (" +
+            "SELECT PRIMARY_ID FROM SPRING_SESSION WHERE EXPIRY_TIME < ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public JdbcSessionCleanup(@Qualifier(DataSourceConfiguration.SESSION) DataSource dataSource,
+                              @Value("${app.session.cleanup-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.cleanup-interval:PT5M}", initialDelayString = "${app.session.cleanup-interval:PT5M}")
+    public void deleteExpiredSessions() {
+        long now = System.currentTimeMillis();
+        int total = 0;
+        try {
+            for (int batch = 0; batch < MAX_BATCHES; batch++) {
+                int deleted = jdbcTemplate.update(DELETE_EXPIRED, now, batchSize);
+                total += deleted;
+                if (deleted < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to delete expired sessions: {}", e.getMessage());
+        }
+        if (total > 0) {
+            logger.debug("Deleted {} expired sessions", total);
+        }
+    }
+}
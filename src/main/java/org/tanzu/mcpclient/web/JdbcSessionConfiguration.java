@@ -1,17 +1,61 @@
 package org.tanzu.mcpclient.web;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.FlushMode;
+import org.springframework.session.SaveMode;
+import org.springframework.session.Session;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
 import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
 import org.springframework.session.web.context.AbstractHttpSessionApplicationInitializer;
 import org.tanzu.mcpclient.vectorstore.DatabaseAvailableCondition;
 
+import java.time.Duration;
+
+/**
+ * JDBC sessions that are written as rarely as possible: changes are flushed only when the request
+ * completes, a save that would only record the access time is coalesced by
+ * {@link CoalescingSessionRepository}, and expired sessions are removed in batches by
+ * {@link JdbcSessionCleanup} instead of the repository's single unbounded delete.
+ */
 @Configuration
 @EnableJdbcHttpSession(
-        maxInactiveIntervalInSeconds = 86400 // 24 hours
+        maxInactiveIntervalInSeconds = 86400, // 24 hours
+        flushMode = FlushMode.ON_SAVE,
+        saveMode = SaveMode.ON_SET_ATTRIBUTE,
+        cleanupCron = Scheduled.CRON_DISABLED
 )
 @Order(2)
 @Conditional(DatabaseAvailableCondition.class)
+@ConditionalOnProperty(name = ConversationIdResolver.IDENTITY_PROPERTY, havingValue = "session", matchIfMissing = true)
 public class JdbcSessionConfiguration extends AbstractHttpSessionApplicationInitializer {
-}
\ No newline at end of file
+
+    @Bean
+    public static BeanPostProcessor coalescingSessionRepositoryPostProcessor(
+            @Value("${app.session.touch-interval:PT1M}") Duration touchInterval,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JdbcIndexedSessionRepository repository) {
+                    return coalescing(repository, touchInterval, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static <S extends Session> CoalescingSessionRepository<S> coalescing(
+            FindByIndexNameSessionRepository<S> repository, Duration touchInterval, MeterRegistry meterRegistry) {
+        return new CoalescingSessionRepository<>(repository, touchInterval, meterRegistry);
+    }
+}
@@ -4,15 +4,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.core.annotation.Order;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.tanzu.mcpclient.util.StartupTimeline;
 import org.tanzu.mcpclient.vectorstore.DatabaseAvailableCondition;
 
 @Component
 @Order(1) // Ensure this runs early in the startup process
 @Conditional(DatabaseAvailableCondition.class)
+@ConditionalOnProperty(name = ConversationIdResolver.IDENTITY_PROPERTY, havingValue = "session", matchIfMissing = true)
 public class JdbcSessionDatabaseInitializer implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcSessionDatabaseInitializer.class);
@@ -20,8 +23,18 @@ public class JdbcSessionDatabaseInitializer implements CommandLineRunner {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private StartupTimeline startupTimeline;
+
+    /**
+     * Creates the session tables in the background; the application reports ready only once they exist.
+     */
     @Override
     public void run(String... args) {
+        startupTimeline.initialize("schema.session", this::initializeSchema);
+    }
+
+    private void initializeSchema() {
         logger.info("Initializing Spring Session tables");
 
         try {
@@ -0,0 +1,42 @@
+package org.tanzu.mcpclient.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Derives the tenant key that owns uploaded documents and scopes retrieval.
+ * An authenticated principal wins; otherwise the conversation identifies the tenant.
+ */
+@Component
+public class TenantResolver {
+
+    private final ConversationIdResolver conversationIdResolver;
+
+    public TenantResolver(ConversationIdResolver conversationIdResolver) {
+        this.conversationIdResolver = conversationIdResolver;
+    }
+
+    public String resolveTenantId(HttpServletRequest request, HttpServletResponse response) {
+        String user = userTenantId(request);
+        return user != null ? user : "session:" + conversationIdResolver.resolve(request, response);
+    }
+
+    /**
+     * Resolves the tenant for a read-only request, see {@link ConversationIdResolver#resolveForRead}.
+     */
+    public String resolveTenantIdForRead(HttpServletRequest request, HttpServletResponse response) {
+        String user = userTenantId(request);
+        return user != null ? user : "session:" + conversationIdResolver.resolveForRead(request, response);
+    }
+
+    private static String userTenantId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && principal.getName() != null && !principal.getName().isBlank()) {
+            return "user:" + principal.getName();
+        }
+        return null;
+    }
+}
@@ -37,6 +37,7 @@ public class WebConfiguration {
                                 HttpMethod.DELETE.name(),
                                 HttpMethod.OPTIONS.name())
                         .allowedHeaders("*")
+                        .exposedHeaders(ConversationIdResolver.TOKEN_HEADER)
                         .allowCredentials(true)  // Allow credentials (cookies)
                         .maxAge(3600);
             }
@@ -0,0 +1,22 @@
+-- Indexes the tenant of every document chunk, so that searches scoped to one tenant
+-- do not scan the whole vector_store table. Run once per database with psql, outside a transaction:
+--
+--   psql "$DATABASE_URL" -f vector_store_tenant_index.sql
+--
+-- The application works without the index, only slower, and warns at startup while it is missing.
+-- Run the script once every instance runs a release that writes uploadedAt, see step 1.
+
+-- 1. Legacy rows. Chunks written before this release have no uploadedAt, and the oldest also no
+--    tenantId, so no tenant can search or delete them and the retention sweep never expires them.
+--    Their documents were only listed in memory by the instances that stored them, which are gone
+--    after the upgrade, so they cannot be attributed to anyone; delete them.
+DELETE FROM public.vector_store WHERE metadata ->> 'uploadedAt' IS NULL;
+
+-- 2. Deployments that ran a build which added a generated tenant_id column at startup: drop it.
+--    Dropping a column only updates the catalog and does not rewrite the table.
+ALTER TABLE public.vector_store DROP COLUMN IF EXISTS tenant_id;
+
+-- 3. The index. CONCURRENTLY builds it without blocking writes and without rewriting the table.
+--    If it is interrupted, drop the invalid index and run this statement again.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_tenant_idx
+    ON public.vector_store ((metadata ->> 'tenantId'));
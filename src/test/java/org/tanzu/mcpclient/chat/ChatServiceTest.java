@@ -0,0 +1,137 @@
+package org.tanzu.mcpclient.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tanzu.mcpclient.document.DocumentService;
+import org.tanzu.mcpclient.memory.ConversationMemoryVectorStore;
+import org.tanzu.mcpclient.memory.MemoryConfiguration;
+import org.tanzu.mcpclient.metrics.ChatPipelineMetrics;
+import org.tanzu.mcpclient.metrics.ConversationUsageRepository;
+import org.tanzu.mcpclient.metrics.ConversationUsageTracker;
+import org.tanzu.mcpclient.tool.ToolOutputGovernor;
+import org.tanzu.mcpclient.tool.ToolResultCache;
+import org.tanzu.mcpclient.util.GenAIService;
+import org.tanzu.mcpclient.util.McpClientFactory;
+import org.tanzu.mcpclient.util.McpServerRegistry;
+import org.tanzu.mcpclient.vectorstore.VectorStoreConfiguration;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatServiceTest {
+
+    private static final String CACHED_ANSWER = "Restart the app after binding the service.";
+
+    @Test
+    void documentFilterKeepsIdsAsValues() {
+        String tenantId = "t' OR tenantId != '";
+        String documentId = "3f2b8c1e-5d4a-4e7f-9b6c-2a1d0e9f8c7b";
+
+        Filter.Expression filter = ChatService.buildDocumentFilterExpression(tenantId, List.of(documentId));
+
+        assertThat(filter).isEqualTo(new Filter.Expression(Filter.ExpressionType.AND,
+                new Filter.Expression(Filter.ExpressionType.EQ,
+                        new Filter.Key(DocumentService.TENANT_ID), new Filter.Value(tenantId)),
+                new Filter.Expression(Filter.ExpressionType.EQ,
+                        new Filter.Key(DocumentService.DOCUMENT_ID), new Filter.Value(documentId))));
+    }
+
+    @Test
+    void documentFilterRejectsIdsThatAreNotUuids() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ChatService.buildDocumentFilterExpression("t",
+                List.of("3f2b8c1e-5d4a-4e7f-9b6c-2a1d0e9f8c7b", "x' OR tenantId != '")));
+    }
+
+    @Test
+    void followUpToCachedAnswerSeesItInHistory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GenAIService genAIService = new GenAIService(new StandardEnvironment());
+        ChatPipelineMetrics pipelineMetrics = new ChatPipelineMetrics(meterRegistry,
+                beanFactory.getBeanProvider(ObservationRegistry.class), genAIService,
+                new ConversationUsageTracker(meterRegistry,
+                        beanFactory.getBeanProvider(ConversationUsageRepository.class), 100, Duration.ofHours(1)));
+        VectorStoreConfiguration.EmptyVectorStore vectorStore = new VectorStoreConfiguration.EmptyVectorStore();
+
+        SemanticResponseCache semanticCache = mock(SemanticResponseCache.class);
+        ResponseCacheStore.Scope scope = new ResponseCacheStore.Scope("scope", "tenant", List.of());
+        when(semanticCache.lookup(anyString(), eq("conversation"), anyString(), anyList()))
+                .thenReturn(new SemanticResponseCache.Lookup(scope, "How do I bind?", new float[0],
+                        new ResponseCacheStore.CachedResponse("How do I bind?", CACHED_ANSWER, 1.0,
+                                Duration.ofSeconds(3)), System.nanoTime()))
+                .thenReturn(null);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<SemanticResponseCache> semanticCacheProvider = mock(ObjectProvider.class);
+        when(semanticCacheProvider.getIfAvailable()).thenReturn(semanticCache);
+
+        RecordingChatModel chatModel = new RecordingChatModel();
+        ChatService chatService = new ChatService(ChatClient.builder(chatModel),
+                new MemoryConfiguration(genAIService).chatMemoryAdvisor(new InMemoryChatMemoryRepository(),
+                        vectorStore, beanFactory.getBeanProvider(ConversationMemoryVectorStore.class), pipelineMetrics),
+                mock(McpServerRegistry.class), vectorStore, mock(McpClientFactory.class),
+                mock(ToolResultCache.class), mock(ToolOutputGovernor.class), pipelineMetrics, semanticCacheProvider);
+        ReflectionTestUtils.setField(chatService, "systemChatPrompt",
+                new ClassPathResource("prompts/system-prompt.st"));
+
+        String replayed = String.join("", chatService.chatStream("How do I bind?", "conversation", "tenant", List.of())
+                .collectList().block());
+        assertThat(replayed).isEqualTo(CACHED_ANSWER);
+        assertThat(chatModel.prompts).isEmpty();
+
+        chatService.chatStream("And then?", "conversation", "tenant", List.of()).collectList().block();
+
+        assertThat(chatModel.prompts).hasSize(1);
+        List<Message> history = chatModel.prompts.get(0).getInstructions().stream()
+                .filter(message -> message.getMessageType() != MessageType.SYSTEM)
+                .toList();
+        assertThat(history).extracting(Message::getMessageType)
+                .containsExactly(MessageType.USER, MessageType.ASSISTANT, MessageType.USER);
+        assertThat(history).extracting(Message::getText)
+                .containsExactly("How do I bind?", CACHED_ANSWER, "And then?");
+    }
+
+    private static class RecordingChatModel implements ChatModel {
+
+        final List<Prompt> prompts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            prompts.add(prompt);
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("Done."))));
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            prompts.add(prompt);
+            return Flux.just(new ChatResponse(List.of(new Generation(new AssistantMessage("Done."),
+                    ChatGenerationMetadata.builder().finishReason("STOP").build()))));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.tanzu.mcpclient.memory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.tanzu.mcpclient.metrics.ChatPipelineMetrics;
+import org.tanzu.mcpclient.metrics.ConversationUsageRepository;
+import org.tanzu.mcpclient.metrics.ConversationUsageTracker;
+import org.tanzu.mcpclient.util.GenAIService;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
+
+class TimedChatMemoryAdvisorTest {
+
+    @Test
+    void streamedAnswerIsStoredWhole() {
+        ChatMemory chatMemory = MessageWindowChatMemory.builder().build();
+        TimedChatMemoryAdvisor advisor =
+                new TimedChatMemoryAdvisor(MessageChatMemoryAdvisor.builder(chatMemory).build(), pipelineMetrics());
+        ChatClient chatClient = ChatClient.builder(new ChunkedChatModel("The ", "answer ", "is ", "42."))
+                .defaultAdvisors(advisor)
+                .build();
+
+        List<String> chunks = chatClient.prompt()
+                .user("What is the answer?")
+                .advisors(a -> a.param(CONVERSATION_ID, "c1"))
+                .stream()
+                .content()
+                .collectList()
+                .block();
+
+        assertThat(String.join("", chunks)).isEqualTo("The answer is 42.");
+        List<Message> history = chatMemory.get("c1");
+        assertThat(history).extracting(Message::getMessageType)
+                .containsExactly(MessageType.USER, MessageType.ASSISTANT);
+        assertThat(history).extracting(Message::getText)
+                .containsExactly("What is the answer?", "The answer is 42.");
+    }
+
+    static ChatPipelineMetrics pipelineMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        ConversationUsageTracker usageTracker = new ConversationUsageTracker(meterRegistry,
+                beanFactory.getBeanProvider(ConversationUsageRepository.class), 100, Duration.ofHours(1));
+        return new ChatPipelineMetrics(meterRegistry, beanFactory.getBeanProvider(ObservationRegistry.class),
+                new GenAIService(new StandardEnvironment()), usageTracker);
+    }
+
+    /**
+     * Streams the given chunks followed by an empty chunk carrying the finish reason, as OpenAI does.
+     */
+    private static class ChunkedChatModel implements ChatModel {
+
+        private final String[] chunks;
+
+        ChunkedChatModel(String... chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(String.join("", chunks)))));
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            ChatResponse last = new ChatResponse(List.of(new Generation(new AssistantMessage(""),
+                    ChatGenerationMetadata.builder().finishReason("STOP").build())));
+            return Flux.fromArray(chunks)
+                    .map(chunk -> new ChatResponse(List.of(new Generation(new AssistantMessage(chunk)))))
+                    .concatWith(Flux.just(last));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.tanzu.mcpclient.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupTimelineTest {
+
+    private StartupTimeline startupTimeline;
+    private StartupHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        startupTimeline = new StartupTimeline(true);
+        healthIndicator = new StartupHealthIndicator(startupTimeline);
+    }
+
+    @Test
+    void failedOptionalPhaseDoesNotHoldBackReadiness() throws InterruptedException {
+        startupTimeline.initializeOptional("mcp.discovery", () -> {
+            throw new IllegalStateException("connection refused");
+        });
+        applicationReady();
+
+        awaitComplete();
+
+        assertThat(healthIndicator.health().getStatus().getCode()).isEqualTo("UP");
+        assertThat(healthIndicator.health().getDetails())
+                .containsEntry("degraded", Map.of("mcp.discovery", "connection refused"));
+    }
+
+    @Test
+    void failedRequiredPhaseIsRetriedUntilItSucceeds() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        startupTimeline.initialize("schema.session", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("too many connections");
+            }
+        });
+        applicationReady();
+
+        Thread.sleep(200);
+        assertThat(healthIndicator.health().getStatus().getCode()).isEqualTo("OUT_OF_SERVICE");
+        assertThat(startupTimeline.failed()).containsEntry("schema.session", "too many connections");
+
+        awaitComplete();
+
+        assertThat(attempts).hasValue(2);
+        assertThat(startupTimeline.failed()).isEmpty();
+        assertThat(healthIndicator.health().getStatus().getCode()).isEqualTo("UP");
+    }
+
+    private void applicationReady() {
+        startupTimeline.onApplicationReady(new ApplicationReadyEvent(new SpringApplication(), new String[0], null,
+                Duration.ZERO));
+    }
+
+    private void awaitComplete() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!startupTimeline.isComplete() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(startupTimeline.isComplete()).isTrue();
+    }
+}
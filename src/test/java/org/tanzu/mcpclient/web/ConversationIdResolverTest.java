@@ -0,0 +1,104 @@
+package org.tanzu.mcpclient.web;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationIdResolverTest {
+
+    private static final String SECRET = "a secret of at least thirty-two bytes";
+    private static final String CONVERSATION_ID = "6f1c2d3e-4b5a-4c7d-8e9f-0a1b2c3d4e5f";
+
+    private final ConversationIdResolver resolver =
+            new ConversationIdResolver("token", SECRET, Duration.ofDays(1), Duration.ofHours(1));
+    private final ConversationTokens tokens = new ConversationTokens(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void startsAConversationWithoutAToken() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String conversationId = resolver.resolve(new MockHttpServletRequest(), response);
+
+        String token = response.getHeader(ConversationIdResolver.TOKEN_HEADER);
+        assertThat(tokens.verify(token).conversationId()).isEqualTo(conversationId);
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith(ConversationIdResolver.TOKEN_COOKIE + "=" + token)
+                .contains("HttpOnly", "SameSite=Lax");
+    }
+
+    @Test
+    void keepsTheConversationOfAFreshTokenWithoutReissuing() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ConversationIdResolver.TOKEN_HEADER, tokens.issue(CONVERSATION_ID, Instant.now()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(resolver.resolve(request, response)).isEqualTo(CONVERSATION_ID);
+        assertThat(response.getHeader(ConversationIdResolver.TOKEN_HEADER)).isNull();
+    }
+
+    @Test
+    void readsTheTokenFromTheCookie() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ConversationIdResolver.TOKEN_COOKIE, tokens.issue(CONVERSATION_ID, Instant.now())));
+
+        assertThat(resolver.resolve(request, new MockHttpServletResponse())).isEqualTo(CONVERSATION_ID);
+    }
+
+    @Test
+    void reissuesATokenOlderThanTheRefreshInterval() {
+        Instant issuedAt = Instant.now().minus(Duration.ofHours(2));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ConversationIdResolver.TOKEN_HEADER, tokens.issue(CONVERSATION_ID, issuedAt));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(resolver.resolve(request, response)).isEqualTo(CONVERSATION_ID);
+        ConversationTokens.Token reissued = tokens.verify(response.getHeader(ConversationIdResolver.TOKEN_HEADER));
+        assertThat(reissued.conversationId()).isEqualTo(CONVERSATION_ID);
+        assertThat(reissued.issuedAt()).isAfter(issuedAt.plus(Duration.ofHours(1)));
+    }
+
+    @Test
+    void startsANewConversationWhenTheTokenExpired() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ConversationIdResolver.TOKEN_HEADER,
+                tokens.issue(CONVERSATION_ID, Instant.now().minus(Duration.ofDays(2))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String conversationId = resolver.resolve(request, response);
+
+        assertThat(conversationId).isNotEqualTo(CONVERSATION_ID);
+        assertThat(tokens.verify(response.getHeader(ConversationIdResolver.TOKEN_HEADER)).conversationId())
+                .isEqualTo(conversationId);
+    }
+
+    @Test
+    void startsANewConversationWhenTheTokenWasTamperedWith() {
+        String token = tokens.issue(CONVERSATION_ID, Instant.now());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ConversationIdResolver.TOKEN_HEADER,
+                "00000000-0000-4000-8000-000000000000" + token.substring(CONVERSATION_ID.length()));
+
+        assertThat(resolver.resolve(request, new MockHttpServletResponse())).isNotEqualTo(CONVERSATION_ID)
+                .isNotEqualTo("00000000-0000-4000-8000-000000000000");
+    }
+
+    @Test
+    void issuesOneTokenPerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String first = resolver.resolve(request, response);
+        String second = resolver.resolveForRead(request, response);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(response.getHeaders(HttpHeaders.SET_COOKIE)).hasSize(1);
+    }
+}
@@ -0,0 +1,87 @@
+package org.tanzu.mcpclient.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ConversationTokensTest {
+
+    private static final String CONVERSATION_ID = "6f1c2d3e-4b5a-4c7d-8e9f-0a1b2c3d4e5f";
+    private static final Instant ISSUED_AT = Instant.parse("2026-10-19T12:00:00Z");
+
+    private final ConversationTokens tokens = new ConversationTokens(secret("a secret of at least thirty-two bytes"));
+
+    @Test
+    void verifiesTheTokenItIssued() {
+        ConversationTokens.Token token = tokens.verify(tokens.issue(CONVERSATION_ID, ISSUED_AT));
+
+        assertThat(token).isEqualTo(new ConversationTokens.Token(CONVERSATION_ID, ISSUED_AT));
+    }
+
+    @Test
+    void rejectsATamperedSignature() {
+        String token = tokens.issue(CONVERSATION_ID, ISSUED_AT);
+        // The first character of the signature carries six significant bits, unlike the last
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        String tampered = token.substring(0, signatureStart) + (first == 'A' ? 'B' : 'A')
+                + token.substring(signatureStart + 1);
+
+        assertThat(tokens.verify(tampered)).isNull();
+    }
+
+    @Test
+    void rejectsATamperedIssueTime() {
+        String token = tokens.issue(CONVERSATION_ID, ISSUED_AT);
+        String[] parts = token.split("\\.");
+        String later = Long.toString(ISSUED_AT.plusSeconds(86400).getEpochSecond(), 36);
+
+        assertThat(tokens.verify(parts[0] + "." + later + "." + parts[2])).isNull();
+    }
+
+    @Test
+    void rejectsAnotherConversationWithTheSameSignature() {
+        String token = tokens.issue(CONVERSATION_ID, ISSUED_AT);
+        String other = "00000000-0000-4000-8000-000000000000" + token.substring(CONVERSATION_ID.length());
+
+        assertThat(tokens.verify(other)).isNull();
+    }
+
+    @Test
+    void rejectsAMalformedConversationIdEvenIfSigned() {
+        assertThat(tokens.verify(tokens.issue("x' OR '1'='1", ISSUED_AT))).isNull();
+        assertThat(tokens.verify(tokens.issue(CONVERSATION_ID + ".extra", ISSUED_AT))).isNull();
+        assertThat(tokens.verify(tokens.issue(CONVERSATION_ID.toUpperCase(), ISSUED_AT))).isNull();
+    }
+
+    @Test
+    void rejectsATokenSignedWithAnotherSecret() {
+        ConversationTokens otherTokens = new ConversationTokens(secret("another secret of thirty-two bytes!"));
+
+        assertThat(tokens.verify(otherTokens.issue(CONVERSATION_ID, ISSUED_AT))).isNull();
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThat(tokens.verify(null)).isNull();
+        assertThat(tokens.verify("")).isNull();
+        assertThat(tokens.verify("..")).isNull();
+        assertThat(tokens.verify(CONVERSATION_ID)).isNull();
+        assertThat(tokens.verify(CONVERSATION_ID + ".abc")).isNull();
+        assertThat(tokens.verify(CONVERSATION_ID + ".abc.!!!")).isNull();
+        assertThat(tokens.verify(CONVERSATION_ID + "..")).isNull();
+    }
+
+    @Test
+    void requiresASecretOfAtLeast32Bytes() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ConversationTokens(secret("too short")));
+    }
+
+    private static byte[] secret(String secret) {
+        return secret.getBytes(StandardCharsets.UTF_8);
+    }
+}